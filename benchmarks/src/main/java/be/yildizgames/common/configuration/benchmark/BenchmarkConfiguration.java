@@ -0,0 +1,80 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration.benchmark;
+
+import be.yildizgames.common.configuration.BaseConfiguration;
+import be.yildizgames.common.configuration.ConfigKey;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Configuration exposing the protected accessors to the benchmarks, the file is stored in a temporary directory.
+ *
+ * @author Grégory Van den Borre
+ */
+public class BenchmarkConfiguration extends BaseConfiguration {
+
+    private final Path file;
+
+    private BenchmarkConfiguration(Properties properties, Path file) {
+        super(properties);
+        this.file = file;
+    }
+
+    /**
+     * Create a configuration containing generated values, keys are key0 to key(size - 1).
+     * @param size Number of values to generate.
+     * @return The created configuration.
+     */
+    public static BenchmarkConfiguration withSize(int size) {
+        Properties properties = new Properties();
+        for (int i = 0; i < size; i++) {
+            properties.setProperty("key" + i, "value" + i);
+        }
+        properties.setProperty(LANGUAGE, "en");
+        properties.setProperty(EULA_ACCEPTED, "0");
+        try {
+            return new BenchmarkConfiguration(properties, Files.createTempFile("benchmark", ".properties"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public final String read(String key) {
+        return this.get(key);
+    }
+
+    public final <T> T read(ConfigKey<T> key) {
+        return this.get(key);
+    }
+
+    public final void write(String key, String value) {
+        this.updateValue(key, value);
+    }
+
+    public final void persist() {
+        this.store();
+    }
+
+    @Override
+    protected final Path getConfigFile() {
+        return this.file;
+    }
+}
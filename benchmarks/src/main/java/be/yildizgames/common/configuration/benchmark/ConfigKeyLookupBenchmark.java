@@ -0,0 +1,114 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration.benchmark;
+
+import be.yildizgames.common.configuration.ConfigKey;
+import be.yildizgames.common.configuration.ConfigurationStatistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare a lookup through a compiled ConfigKey with the String based lookups.
+ *
+ * @author Grégory Van den Borre
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConfigKeyLookupBenchmark {
+
+    private static final String INT_NAME = "benchmark.int";
+
+    @Param({"16", "1024"})
+    public int size;
+
+    private BenchmarkConfiguration configuration;
+
+    private BenchmarkConfiguration meteredConfiguration;
+
+    private Properties properties;
+
+    private String name;
+
+    private ConfigKey<String> key;
+
+    private ConfigKey<Integer> intKey;
+
+    @Setup
+    public void setup() {
+        this.name = "key" + this.size / 2;
+        // Keys are registered before the configuration is created, so its snapshot contains their slots.
+        this.key = ConfigKey.ofString(this.name);
+        this.intKey = ConfigKey.ofInt(INT_NAME);
+        this.configuration = BenchmarkConfiguration.withSize(this.size);
+        this.configuration.write(INT_NAME, String.valueOf(this.size));
+        this.meteredConfiguration = BenchmarkConfiguration.withSize(this.size);
+        this.meteredConfiguration.setMetrics(new ConfigurationStatistics());
+        this.properties = new Properties();
+        for (int i = 0; i < this.size; i++) {
+            this.properties.setProperty("key" + i, "value" + i);
+        }
+        this.properties.setProperty(INT_NAME, String.valueOf(this.size));
+    }
+
+    @Benchmark
+    public String propertiesGetProperty() {
+        return this.properties.getProperty(this.name);
+    }
+
+    @Benchmark
+    public String configurationGetString() {
+        return this.configuration.read(this.name);
+    }
+
+    @Benchmark
+    public String configurationGetKey() {
+        return this.configuration.read(this.key);
+    }
+
+    /**
+     * Same as configurationGetKey, with the read counters enabled, to measure their overhead.
+     */
+    @Benchmark
+    public String configurationGetKeyMetered() {
+        return this.meteredConfiguration.read(this.key);
+    }
+
+    @Benchmark
+    public int configurationGetIntKey() {
+        return this.configuration.read(this.intKey);
+    }
+
+    @Benchmark
+    public int propertiesParseInt() {
+        return Integer.parseInt(this.properties.getProperty(INT_NAME));
+    }
+}
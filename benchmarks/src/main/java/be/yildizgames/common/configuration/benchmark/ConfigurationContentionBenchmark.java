@@ -0,0 +1,95 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure BaseConfiguration.get throughput with concurrent readers, with and without a concurrent writer.
+ * Running the main method executes the read benchmark with 1 to 64 reader threads.
+ *
+ * @author Grégory Van den Borre
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConfigurationContentionBenchmark {
+
+    private static final int SIZE = 256;
+
+    private static final int[] READER_THREADS = {1, 2, 4, 8, 16, 32, 64};
+
+    private final String[] keys = new String[SIZE];
+
+    private BenchmarkConfiguration configuration;
+
+    @Setup
+    public void setup() {
+        this.configuration = BenchmarkConfiguration.withSize(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            this.keys[i] = "key" + i;
+        }
+    }
+
+    @Benchmark
+    public String read() {
+        return this.configuration.read(this.keys[ThreadLocalRandom.current().nextInt(SIZE)]);
+    }
+
+    @Benchmark
+    @Group("readWhileWriting")
+    @GroupThreads(7)
+    public String readWhileWriting() {
+        return this.configuration.read(this.keys[ThreadLocalRandom.current().nextInt(SIZE)]);
+    }
+
+    @Benchmark
+    @Group("readWhileWriting")
+    @GroupThreads(1)
+    public void writeWhileReading() {
+        this.configuration.write("key0", String.valueOf(ThreadLocalRandom.current().nextInt()));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : READER_THREADS) {
+            new Runner(new OptionsBuilder()
+                    .include(ConfigurationContentionBenchmark.class.getName() + ".read$")
+                    .threads(threads)
+                    .build())
+                    .run();
+        }
+    }
+}
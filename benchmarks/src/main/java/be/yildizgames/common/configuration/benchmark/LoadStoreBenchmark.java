@@ -0,0 +1,116 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration.benchmark;
+
+import be.yildizgames.common.configuration.ConfigurationNotFoundException;
+import be.yildizgames.common.configuration.ConfigurationRetriever;
+import be.yildizgames.common.configuration.ConfigurationRetrieverFactory;
+import be.yildizgames.common.configuration.ConfigurationSource;
+import be.yildizgames.common.configuration.ConfigurationSources;
+import be.yildizgames.common.configuration.parameter.ApplicationArgs;
+import be.yildizgames.common.configuration.parameter.DefaultArgName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure loading a configuration file at startup, and writing the configuration.
+ *
+ * @author Grégory Van den Borre
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoadStoreBenchmark {
+
+    @Param({"10000"})
+    public int size;
+
+    private ApplicationArgs args;
+
+    private Path file;
+
+    private BenchmarkConfiguration configuration;
+
+    private PrintStream out;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Properties properties = new Properties();
+        for (int i = 0; i < this.size; i++) {
+            properties.setProperty("key" + i, "value" + i);
+        }
+        this.file = Files.createTempFile("load", ".properties");
+        try (Writer writer = Files.newBufferedWriter(this.file)) {
+            properties.store(writer, "benchmark");
+        }
+        this.args = ApplicationArgs.of(DefaultArgName.CONFIGURATION_FILE + "=" + this.file);
+        this.configuration = BenchmarkConfiguration.withSize(this.size);
+        // The retriever logs on the console, which would be measured too.
+        this.out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(this.out);
+    }
+
+    /**
+     * Cold start: a new retriever loading the whole file.
+     */
+    @Benchmark
+    public Properties retrieveFromArgs() {
+        ConfigurationRetriever retriever = ConfigurationRetrieverFactory.fromFile(new ConfigurationNotFoundException());
+        return retriever.retrieveFromArgs(this.args);
+    }
+
+    /**
+     * Cold start with the memory mapped source, indexing the keys and reading a single value.
+     */
+    @Benchmark
+    public String mappedFile() {
+        ConfigurationSource source = ConfigurationSources.fromMappedFile(this.file);
+        return source.get("key0");
+    }
+
+    @Benchmark
+    public void store() {
+        this.configuration.persist();
+    }
+}
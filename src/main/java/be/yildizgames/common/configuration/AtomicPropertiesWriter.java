@@ -0,0 +1,159 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.UnaryOperator;
+
+/**
+ * Write configuration files atomically: the content is written in a temporary file in the same directory, then moved
+ * over the target file.
+ * A reader, or a crash during the write, can only see the previous complete file or the new complete file, never a
+ * truncated one.
+ *
+ * @author Grégory Van den Borre
+ */
+final class AtomicPropertiesWriter {
+
+    private AtomicPropertiesWriter() {
+        super();
+    }
+
+    /**
+     * Write the properties in a file, replacing it atomically.
+     * @param target File to write.
+     * @param properties Properties to write.
+     * @param comment Comment written at the beginning of the file.
+     * @param sync If true, the content is forced to the storage device before replacing the target.
+     * @throws IOException If the file could not be written, the target is then left unchanged.
+     */
+    static void write(Path target, Properties properties, String comment, boolean sync) throws IOException {
+        write(target, properties, comment, sync, UnaryOperator.identity());
+    }
+
+    /**
+     * Write the properties in a file, replacing it atomically.
+     * @param target File to write.
+     * @param properties Properties to write.
+     * @param comment Comment written at the beginning of the file.
+     * @param sync If true, the content is forced to the storage device before replacing the target.
+     * @param decorator Wrap the stream writing the temporary file, only used for testing.
+     * @throws IOException If the file could not be written, the target is then left unchanged.
+     */
+    static void write(Path target, Properties properties, String comment, boolean sync, UnaryOperator<OutputStream> decorator) throws IOException {
+        write(target, sync, decorator, out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            properties.store(writer, comment);
+            writer.flush();
+        });
+    }
+
+    /**
+     * Write any content in a file, replacing it atomically.
+     * @param target File to write.
+     * @param sync If true, the content is forced to the storage device before replacing the target.
+     * @param content Write the content in the temporary file stream.
+     * @throws IOException If the file could not be written, the target is then left unchanged.
+     */
+    static void write(Path target, boolean sync, Content content) throws IOException {
+        write(target, sync, UnaryOperator.identity(), content);
+    }
+
+    private static void write(Path target, boolean sync, UnaryOperator<OutputStream> decorator, Content content) throws IOException {
+        Path absolute = target.toAbsolutePath();
+        Path temp = absolute.resolveSibling("." + absolute.getFileName() + "." + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                content.writeTo(decorator.apply(Channels.newOutputStream(channel)));
+                if (sync) {
+                    channel.force(true);
+                }
+            }
+            copyPermissions(absolute, temp);
+            try {
+                Files.move(temp, absolute, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (sync) {
+                syncDirectory(absolute.getParent());
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Force the directory entry changes to the disk, so the rename survives a crash.
+     * Some platforms, like Windows, cannot open a directory, the rename is then only as durable as the file system
+     * makes it.
+     * @param directory Directory containing the renamed file.
+     * @throws IOException If the directory could not be forced.
+     */
+    private static void syncDirectory(Path directory) throws IOException {
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (AccessDeniedException | UnsupportedOperationException e) {
+            // Directories cannot be opened or forced on this platform.
+        }
+    }
+
+    /**
+     * Keep the permissions of the replaced file, if any.
+     * @param from Original file.
+     * @param to Replacing file.
+     * @throws IOException If the permissions could not be read or set.
+     */
+    private static void copyPermissions(Path from, Path to) throws IOException {
+        PosixFileAttributeView view = Files.getFileAttributeView(from, PosixFileAttributeView.class);
+        if (view != null && Files.exists(from)) {
+            Files.setPosixFilePermissions(to, view.readAttributes().permissions());
+        }
+    }
+
+    /**
+     * Content to write in the temporary file.
+     */
+    @FunctionalInterface
+    interface Content {
+
+        /**
+         * Write the content, the stream must be flushed but not closed.
+         * @param out Stream to the temporary file.
+         * @throws IOException If the content could not be written.
+         */
+        void writeTo(OutputStream out) throws IOException;
+    }
+}
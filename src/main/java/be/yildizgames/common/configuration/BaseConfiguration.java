@@ -15,17 +15,41 @@
 
 package be.yildizgames.common.configuration;
 
+import be.yildizgames.common.configuration.parameter.ApplicationArgs;
+
 import java.io.IOException;
+import java.io.Reader;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
+ * Base class for the application configurations.
+ * Values can reference other values, environment variables and system properties with ${other.key}, ${env:VARIABLE}
+ * and ${sys:property} placeholders. The getters return the resolved values, resolved once per change, while the
+ * configuration file keeps the placeholders.
+ *
  * @author Grégory Van den Borre
  */
 public class BaseConfiguration implements LanguageConfiguration {
@@ -40,43 +64,393 @@ public class BaseConfiguration implements LanguageConfiguration {
 
     public static final String LANGUAGE = "language";
 
-    private final List<ConfigurationChangeListener> listeners = new ArrayList<>();
+    public static final ConfigKey<String> EULA_ACCEPTED_KEY = ConfigKey.ofString(EULA_ACCEPTED);
 
-    private final List<LocaleChangedListener> localeChangedListeners = new ArrayList<>();
+    public static final ConfigKey<String> LANGUAGE_KEY = ConfigKey.ofString(LANGUAGE).withDefault("fr");
+
+    /**
+     * Change listeners, indexed by the properties they use.
+     */
+    private final Map<String, List<ConfigurationChangeListener>> listeners = new ConcurrentHashMap<>();
+
+    /**
+     * Run every asynchronous notification on its own virtual thread.
+     */
+    private static final Executor DEFAULT_LISTENER_EXECUTOR = r -> Thread.ofVirtual().name("configuration-listener").start(r);
+
+    private final List<LocaleChangedListener> localeChangedListeners = new CopyOnWriteArrayList<>();
 
     private final List<Locale> supportedLocales = new ArrayList<>();
 
-    private final Properties properties;
+    /**
+     * Supported locales by lower case language tag and by language, to resolve a stored tag without parsing it.
+     */
+    private final Map<String, Locale> supportedLocalesByTag = new HashMap<>();
+
+    /**
+     * Last resolved locale, valid as long as the language value it was resolved from is the current one.
+     */
+    private volatile ResolvedLocale resolvedLocale;
+
+    /**
+     * Lock used only by the writers to serialize the snapshot changes, readers never take it.
+     */
+    private final Object updateLock = new Object();
+
+    /**
+     * Lock used to serialize the writes to the configuration file.
+     */
+    private final Object storeLock = new Object();
+
+    /**
+     * Current values, replaced on every change and read without locking.
+     */
+    private volatile ConfigurationSnapshot snapshot;
+
+    /**
+     * Values hidden by the overrides of the retrieved properties, like the application arguments, by overridden key,
+     * null if the configuration file does not define the key. They are written instead of the overrides until the
+     * application changes the value, replaced under the update lock.
+     */
+    private volatile Map<String, String> overridden;
+
+    /**
+     * Last published versions, guarded by the update lock.
+     */
+    private final ConfigurationHistory history = new ConfigurationHistory(ConfigurationHistory.DEFAULT_SIZE);
+
+    /**
+     * Last assigned version, guarded by the update lock.
+     */
+    private long lastVersion;
+
+    /**
+     * Executor used for the asynchronous notifications.
+     */
+    private volatile Executor listenerExecutor = DEFAULT_LISTENER_EXECUTOR;
+
+    /**
+     * Asynchronous writer, null when the configuration is written synchronously.
+     */
+    private volatile WriteBehindStore writeBehind;
+
+    /**
+     * Journal shared with the other processes using the same configuration file, null when not enabled.
+     */
+    private volatile ChangeJournal journal;
+
+    /**
+     * Last snapshot written in the journal, the differences with the current snapshot are the local changes to append,
+     * guarded by the store lock.
+     */
+    private ConfigurationSnapshot journaled;
+
+    /**
+     * Receive the reads, writes, reloads and listener notifications.
+     */
+    private volatile ConfigurationMetrics metrics = ConfigurationMetrics.NONE;
 
     public BaseConfiguration(Properties properties) {
         this(properties, List.of(Locale.ENGLISH));
     }
 
+    /**
+     * Create a new configuration.
+     * @param properties Configuration values.
+     * @param supportedLocales Locales the application can use.
+     * @throws IllegalStateException If the placeholders of the values contain a cycle.
+     */
     public BaseConfiguration(Properties properties, List<Locale> supportedLocales) {
         super();
-        this.properties = properties;
+        this.snapshot = ConfigurationSnapshot.of(properties);
+        this.overridden = OverriddenProperties.hiddenValues(properties);
+        this.history.add(this.snapshot);
         this.supportedLocales.addAll(supportedLocales);
+        for (Locale locale : supportedLocales) {
+            this.supportedLocalesByTag.putIfAbsent(locale.toLanguageTag().toLowerCase(Locale.ROOT), locale);
+            this.supportedLocalesByTag.putIfAbsent(locale.getLanguage(), locale);
+        }
     }
 
     protected final String get(String key) {
-        return this.properties.getProperty(key);
+        this.metrics.onRead(key);
+        return this.snapshot.get(key);
     }
 
     protected final String get(String key, String defaultValue) {
-        return this.properties.getProperty(key, defaultValue);
+        this.metrics.onRead(key);
+        return this.snapshot.get(key, defaultValue);
+    }
+
+    /**
+     * Provide a value from its compiled key, the lookup is an array access and the parsed value is cached.
+     * @param key Key of the value.
+     * @param <T> Type of the value.
+     * @return The value, or the key default value if missing.
+     * @throws IllegalStateException If the value is missing without default or cannot be converted.
+     */
+    protected final <T> T get(ConfigKey<T> key) {
+        this.metrics.onRead(key.name());
+        return key.read(this.snapshot);
+    }
+
+    /**
+     * Provide a value as an int, parsed once and cached until the value changes.
+     * @param key Key of the value.
+     * @return The parsed value.
+     * @throws IllegalStateException If the value is missing or is not a valid int.
+     */
+    protected final int getInt(String key) {
+        return this.value(key).asInt();
+    }
+
+    protected final int getInt(String key, int defaultValue) {
+        ConfigurationValue value = this.read(key);
+        return value == null ? defaultValue : value.asInt();
+    }
+
+    /**
+     * Provide a value as a long, parsed once and cached until the value changes.
+     * @param key Key of the value.
+     * @return The parsed value.
+     * @throws IllegalStateException If the value is missing or is not a valid long.
+     */
+    protected final long getLong(String key) {
+        return this.value(key).asLong();
+    }
+
+    protected final long getLong(String key, long defaultValue) {
+        ConfigurationValue value = this.read(key);
+        return value == null ? defaultValue : value.asLong();
+    }
+
+    /**
+     * Provide a value as a double, parsed once and cached until the value changes.
+     * @param key Key of the value.
+     * @return The parsed value.
+     * @throws IllegalStateException If the value is missing or is not a valid double.
+     */
+    protected final double getDouble(String key) {
+        return this.value(key).asDouble();
+    }
+
+    protected final double getDouble(String key, double defaultValue) {
+        ConfigurationValue value = this.read(key);
+        return value == null ? defaultValue : value.asDouble();
+    }
+
+    /**
+     * Provide a value as a boolean, parsed once and cached until the value changes.
+     * @param key Key of the value.
+     * @return True if the value is 'true', ignoring case, false otherwise.
+     * @throws IllegalStateException If the value is missing.
+     */
+    protected final boolean getBoolean(String key) {
+        return this.value(key).asBoolean();
+    }
+
+    protected final boolean getBoolean(String key, boolean defaultValue) {
+        ConfigurationValue value = this.read(key);
+        return value == null ? defaultValue : value.asBoolean();
+    }
+
+    /**
+     * Provide a value as a duration, expected format is ISO-8601 (PT10S) or a number followed by ms, s, m, h or d,
+     * a number without unit is in milliseconds.
+     * @param key Key of the value.
+     * @return The parsed value.
+     * @throws IllegalStateException If the value is missing or is not a valid duration.
+     */
+    protected final Duration getDuration(String key) {
+        return this.value(key).asDuration();
+    }
+
+    protected final Duration getDuration(String key, Duration defaultValue) {
+        ConfigurationValue value = this.read(key);
+        return value == null ? defaultValue : value.asDuration();
+    }
+
+    /**
+     * Provide a value as a size in bytes, expected format is a number optionally followed by B, KB, MB, GB or TB,
+     * using 1024 multiples.
+     * @param key Key of the value.
+     * @return The parsed value, in bytes.
+     * @throws IllegalStateException If the value is missing or is not a valid size.
+     */
+    protected final long getSize(String key) {
+        return this.value(key).asSize();
+    }
+
+    protected final long getSize(String key, long defaultValue) {
+        ConfigurationValue value = this.read(key);
+        return value == null ? defaultValue : value.asSize();
+    }
+
+    /**
+     * Provide a value as an enum constant, the value is matched to the constant name ignoring case.
+     * @param key Key of the value.
+     * @param type Enum class.
+     * @param <E> Enum type.
+     * @return The matching constant.
+     * @throws IllegalStateException If the value is missing or does not match any constant.
+     */
+    protected final <E extends Enum<E>> E getEnum(String key, Class<E> type) {
+        return this.value(key).asEnum(type);
+    }
+
+    protected final <E extends Enum<E>> E getEnum(String key, E defaultValue) {
+        ConfigurationValue value = this.read(key);
+        return value == null ? defaultValue : value.asEnum(defaultValue.getDeclaringClass());
+    }
+
+    /**
+     * Provide a value as a list, elements are separated by commas and trimmed, empty elements are ignored.
+     * @param key Key of the value.
+     * @return An immutable list of the elements.
+     * @throws IllegalStateException If the value is missing.
+     */
+    protected final List<String> getList(String key) {
+        return this.value(key).asList();
+    }
+
+    protected final List<String> getList(String key, List<String> defaultValue) {
+        ConfigurationValue value = this.read(key);
+        return value == null ? defaultValue : value.asList();
+    }
+
+    private ConfigurationValue value(String key) {
+        ConfigurationValue value = this.read(key);
+        if (value == null) {
+            throw new IllegalStateException("Missing configuration property: " + key);
+        }
+        return value;
+    }
+
+    private ConfigurationValue read(String key) {
+        this.metrics.onRead(key);
+        return this.snapshot.value(key);
+    }
+
+    /**
+     * Set the metrics receiving the reads, writes, reloads and listener notifications of this configuration, nothing
+     * is collected by default.
+     * @param metrics Metrics to use, ConfigurationMetrics.NONE to stop collecting.
+     */
+    public final void setMetrics(ConfigurationMetrics metrics) {
+        this.metrics = Objects.requireNonNull(metrics);
     }
 
     public final void addLocaleChangedListener(LocaleChangedListener listener) {
         this.localeChangedListeners.add(listener);
     }
 
+    /**
+     * Register a listener to be notified when one of its used properties changes.
+     * The used properties are read once, at registration.
+     * @param listener Listener to register.
+     */
     public final void addConfigurationChangedListener(ConfigurationChangeListener listener) {
-        this.listeners.add(listener);
+        for (String property : Set.copyOf(listener.getUsedConfigurationProperties())) {
+            this.listeners.compute(property, (p, l) -> {
+                List<ConfigurationChangeListener> registered = l == null ? new CopyOnWriteArrayList<>() : l;
+                registered.add(listener);
+                return registered;
+            });
+        }
+    }
+
+    /**
+     * Unregister a listener, does nothing if it was not registered.
+     * @param listener Listener to unregister.
+     */
+    public final void removeConfigurationChangedListener(ConfigurationChangeListener listener) {
+        for (String property : List.copyOf(this.listeners.keySet())) {
+            // Drop the property once its last listener is gone, so registration churn does not grow the index.
+            this.listeners.computeIfPresent(property, (p, l) -> l.remove(listener) && l.isEmpty() ? null : l);
+        }
+    }
+
+    /**
+     * Create a record from the configuration values.
+     * Every record component is read from the property named after the prefix and the component name, the camel case
+     * being replaced by dots: the component maxSize with the prefix cache is read from cache.max.size.
+     * Supported component types are String, int, long, double, boolean and their wrappers, Duration, List of String,
+     * enums, and records, read with the component property name as prefix.
+     * @param type Record type to create.
+     * @param prefix Prefix of the properties, empty for none.
+     * @param <T> Record type.
+     * @return The created record.
+     * @throws IllegalStateException If the record cannot be created or a value is missing or invalid.
+     */
+    public final <T extends Record> T bind(Class<T> type, String prefix) {
+        return RecordBinder.of(type, prefix).bind(this.snapshot);
     }
 
+    /**
+     * Configure an object with a record created from the configuration values, see bind(Class, String), then
+     * configure it again, with a new record, every time one of the properties used by the record changes.
+     * Changes to other properties do not create a new record.
+     * @param type Record type to create.
+     * @param prefix Prefix of the properties, empty for none.
+     * @param target Object to configure.
+     * @param <T> Record type.
+     * @return The handle to stop configuring the target.
+     * @throws IllegalStateException If the record cannot be created or a value is missing or invalid.
+     */
+    public final <T extends Record> ConfigurationWatch bind(Class<T> type, String prefix, Configurable<T> target) {
+        Objects.requireNonNull(target);
+        RecordBinder<T> binder = RecordBinder.of(type, prefix);
+        target.configure(binder.bind(this.snapshot));
+        ConfigurationChangeListener listener = new ConfigurationChangeListener() {
+            @Override
+            public List<String> getUsedConfigurationProperties() {
+                return binder.keys();
+            }
+
+            @Override
+            public void onChange(String property, String newValue) {
+                target.configure(binder.bind(BaseConfiguration.this.snapshot));
+            }
+
+            @Override
+            public void onChanges(Map<String, String> changes) {
+                target.configure(binder.bind(BaseConfiguration.this.snapshot));
+            }
+        };
+        this.addConfigurationChangedListener(listener);
+        return () -> this.removeConfigurationChangedListener(listener);
+    }
+
+    /**
+     * Provide the configured locale, resolved against the supported locales.
+     * If the configured language is not supported, the supported locale with the same language is used, and if there
+     * is none, the first supported locale.
+     * The resolved locale is cached until the language value changes.
+     * @return The locale to use.
+     */
     @Override
     public final Locale getLocale() {
-        return Locale.forLanguageTag(this.properties.getProperty(LANGUAGE, "fr"));
+        this.metrics.onRead(LANGUAGE);
+        ConfigurationValue value = this.snapshot.value(LANGUAGE_KEY);
+        ResolvedLocale resolved = this.resolvedLocale;
+        if (resolved == null || resolved.source != value) {
+            resolved = new ResolvedLocale(value, this.resolveLocale(value == null ? LANGUAGE_KEY.read(this.snapshot) : value.raw));
+            this.resolvedLocale = resolved;
+        }
+        return resolved.locale;
+    }
+
+    private Locale resolveLocale(String tag) {
+        Locale supported = this.supportedLocalesByTag.get(tag.trim().toLowerCase(Locale.ROOT));
+        if (supported != null) {
+            return supported;
+        }
+        Locale parsed = Locale.forLanguageTag(tag.trim());
+        supported = this.supportedLocalesByTag.get(parsed.getLanguage());
+        if (supported != null) {
+            return supported;
+        }
+        return this.supportedLocales.isEmpty() ? parsed : this.supportedLocales.get(0);
     }
 
     @Override
@@ -86,40 +460,545 @@ public class BaseConfiguration implements LanguageConfiguration {
 
     @Override
     public final void setLocale(Locale locale) {
-        this.properties.setProperty(LANGUAGE, locale.getLanguage());
+        this.set(LANGUAGE, locale.getLanguage());
         this.store();
         this.localeChangedListeners.forEach(l -> l.setLanguage(locale));
     }
 
+    /**
+     * Change the locale without blocking the caller: the configuration file is written and all the locale listeners
+     * are notified concurrently, using the listener executor.
+     * The new locale is visible with getLocale as soon as this method returns.
+     * A failing listener does not prevent the others from being notified.
+     * @param locale New locale.
+     * @return A future completed when the file is written and all the listeners are done, completed exceptionally
+     * with a ListenerDispatchException if any of them failed.
+     */
+    public final CompletableFuture<Void> setLocaleAsync(Locale locale) {
+        this.set(LANGUAGE, locale.getLanguage());
+        Executor executor = this.listenerExecutor;
+        List<CompletableFuture<Throwable>> tasks = new ArrayList<>();
+        tasks.add(runCapturingFailure(this::store, executor));
+        for (LocaleChangedListener listener : this.localeChangedListeners) {
+            tasks.add(runCapturingFailure(() -> listener.setLanguage(locale), executor));
+        }
+        return CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).thenRun(() -> {
+            List<Throwable> failures = tasks.stream()
+                    .map(CompletableFuture::join)
+                    .filter(Objects::nonNull)
+                    .toList();
+            if (!failures.isEmpty()) {
+                failures.forEach(f -> this.metrics.onListenerFailure(LANGUAGE, f));
+                ListenerDispatchException e = new ListenerDispatchException("Error changing locale to " + locale, failures);
+                System.getLogger(this.getClass().getName()).log(System.Logger.Level.ERROR, e.getMessage(), e);
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * Set the executor used for the asynchronous notifications, by default, each notification runs in its own virtual
+     * thread.
+     * @param executor Executor to use.
+     */
+    public final void setListenerExecutor(Executor executor) {
+        this.listenerExecutor = Objects.requireNonNull(executor);
+    }
+
+    private static CompletableFuture<Throwable> runCapturingFailure(Runnable task, Executor executor) {
+        return CompletableFuture.runAsync(task, executor)
+                .handle((v, e) -> e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+    }
+
+    /**
+     * Persist the configuration in the configuration file.
+     * When write behind is enabled, the write is only scheduled and errors are logged instead of being thrown.
+     * @throws IllegalStateException If the file could not be written.
+     */
     protected final void store() {
-        try (var buf = Files.newBufferedWriter(getConfigFile(),
-                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
-            this.properties.store(buf, "Properties");
+        WriteBehindStore store = this.writeBehind;
+        if (store == null) {
+            this.write();
+        } else {
+            store.requestWrite();
+        }
+    }
+
+    /**
+     * Write the configuration asynchronously, all the changes done within an interval are persisted with a single
+     * write, from a dedicated thread.
+     * Pending changes are written when calling flush, when disabling write behind and when the JVM shuts down.
+     * @param interval Delay between a first change and its write.
+     */
+    public final synchronized void enableWriteBehind(Duration interval) {
+        Objects.requireNonNull(interval);
+        if (this.writeBehind != null) {
+            this.writeBehind.close();
+        }
+        this.writeBehind = new WriteBehindStore(this::write, interval);
+    }
+
+    /**
+     * Write the pending changes and go back to synchronous writes.
+     */
+    public final synchronized void disableWriteBehind() {
+        WriteBehindStore store = this.writeBehind;
+        this.writeBehind = null;
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    /**
+     * Write the pending changes immediately, does nothing when write behind is not enabled or nothing changed.
+     * @throws IllegalStateException If the file could not be written.
+     */
+    public final void flush() {
+        WriteBehindStore store = this.writeBehind;
+        if (store != null) {
+            store.flush();
+        }
+    }
+
+    private void write() {
+        synchronized (this.storeLock) {
+            long start = System.nanoTime();
+            try {
+                ChangeJournal j = this.journal;
+                Map<String, String> hidden = this.overridden;
+                if (j == null) {
+                    Properties values = this.snapshot.toProperties();
+                    hidden.forEach((key, value) -> {
+                        if (value == null) {
+                            values.remove(key);
+                        } else {
+                            values.setProperty(key, value);
+                        }
+                    });
+                    AtomicPropertiesWriter.write(getConfigFile(), values, "Properties", this.isSyncOnStore());
+                } else {
+                    ConfigurationSnapshot current = this.snapshot;
+                    Map<String, String> changes = new HashMap<>(this.journaled.rawDiff(current).getChanges());
+                    changes.keySet().removeAll(hidden.keySet());
+                    if (!changes.isEmpty()) {
+                        j.append(changes);
+                    }
+                    this.journaled = current;
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                this.metrics.onStore(System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * Share the changes with the other processes using the same configuration file through a journal next to it.
+     * Once enabled, storing the configuration appends the changed values to the journal instead of rewriting the file,
+     * the changes appended by the other processes are applied and notified to the listeners, and the journal is
+     * regularly compacted into the configuration file.
+     * A local change not stored yet takes precedence over a change of the same value by another process.
+     * A value overridden when loading, by the application arguments for example, stays overridden when another process
+     * changes it.
+     * @param pollInterval Delay between two reads of the journal.
+     * @param compactionInterval Delay between two compactions, the journal is also compacted when half full.
+     * @return The handle to stop using the journal, the journal is compacted when closing it.
+     * @throws IllegalStateException If the journal is already enabled or cannot be opened.
+     */
+    public final synchronized ConfigurationWatch enableJournal(Duration pollInterval, Duration compactionInterval) {
+        if (this.journal != null) {
+            throw new IllegalStateException("Configuration journal already enabled.");
+        }
+        ChangeJournal j;
+        try {
+            j = ChangeJournal.open(this.getConfigFile(), ChangeJournal.DEFAULT_CAPACITY);
         } catch (IOException e) {
-            throw new IllegalStateException(e);
+            throw new IllegalStateException("Cannot open configuration journal: " + ChangeJournal.pathFor(this.getConfigFile()), e);
         }
+        synchronized (this.storeLock) {
+            this.journaled = this.snapshot;
+            this.journal = j;
+        }
+        this.pollJournal(j);
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "configuration-journal");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(() -> this.runJournalTask(() -> {
+            this.pollJournal(j);
+            if (j.usage() > 0.5) {
+                j.compact();
+            }
+        }), pollInterval.toNanos(), pollInterval.toNanos(), TimeUnit.NANOSECONDS);
+        executor.scheduleWithFixedDelay(() -> this.runJournalTask(j::compact), compactionInterval.toNanos(), compactionInterval.toNanos(), TimeUnit.NANOSECONDS);
+        return () -> this.disableJournal(j, executor);
     }
 
+    private synchronized void disableJournal(ChangeJournal j, ScheduledExecutorService executor) {
+        if (this.journal != j) {
+            return;
+        }
+        // Not interrupting a running task, it could be interrupted while holding the journal file lock.
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.flush();
+        synchronized (this.storeLock) {
+            this.journal = null;
+            this.journaled = null;
+        }
+        try {
+            j.compact();
+            j.close();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot compact configuration journal.", e);
+        }
+    }
+
+    /**
+     * Apply the changes appended to the journal by the other processes.
+     * @param j Journal to read.
+     */
+    private void pollJournal(ChangeJournal j) {
+        ChangeJournal.Poll poll = j.poll();
+        if (poll.isEmpty()) {
+            return;
+        }
+        ConfigurationSnapshot previous;
+        ConfigurationSnapshot next;
+        synchronized (this.storeLock) {
+            if (this.journal != j) {
+                return;
+            }
+            synchronized (this.updateLock) {
+                previous = this.snapshot;
+                ConfigurationSnapshot remote = this.journaled;
+                Map<String, String> changes = new HashMap<>(poll.changes());
+                Map<String, String> hidden = this.overridden;
+                if (poll.reload()) {
+                    Properties file = this.readConfigFile();
+                    for (String key : hidden.keySet()) {
+                        if (!changes.containsKey(key)) {
+                            changes.put(key, file.getProperty(key));
+                        }
+                        String override = remote.raw(key);
+                        if (override == null) {
+                            file.remove(key);
+                        } else {
+                            file.setProperty(key, override);
+                        }
+                    }
+                    remote = remote.replace(file);
+                }
+                if (!Collections.disjoint(hidden.keySet(), changes.keySet())) {
+                    // The overrides still apply, the changes of the other processes become the hidden values.
+                    Map<String, String> nextHidden = new HashMap<>(hidden);
+                    for (String key : hidden.keySet()) {
+                        if (changes.containsKey(key)) {
+                            nextHidden.put(key, changes.remove(key));
+                        }
+                    }
+                    this.overridden = Collections.unmodifiableMap(nextHidden);
+                }
+                remote = remote.withAll(changes);
+                ConfigurationDiff pending = this.journaled.rawDiff(previous);
+                next = this.publish(remote.withAll(pending.getChanges()));
+                this.journaled = remote;
+            }
+        }
+        ConfigurationDiff diff = previous.diff(next);
+        if (!diff.isEmpty()) {
+            this.notifyChanges(diff);
+        }
+    }
+
+    private Properties readConfigFile() {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(this.getConfigFile())) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read configuration file: " + this.getConfigFile(), e);
+        }
+        return properties;
+    }
+
+    private void runJournalTask(JournalTask task) {
+        try {
+            task.run();
+        } catch (IOException | RuntimeException e) {
+            System.getLogger(this.getClass().getName()).log(System.Logger.Level.ERROR, "Error synchronizing configuration journal", e);
+        }
+    }
+
+    /**
+     * Change a value, store the configuration and notify the listeners of the property, and of the properties whose
+     * resolved value changed because they reference it.
+     * @param changedProperty Property to change.
+     * @param newValue New raw value, it can contain placeholders.
+     * @throws IllegalStateException If the new value creates a placeholder cycle, the value is then not changed.
+     */
     protected final void updateValue(String changedProperty, String newValue) {
-        this.properties.setProperty(changedProperty, newValue);
+        ConfigurationSnapshot previous;
+        ConfigurationSnapshot next;
+        synchronized (this.updateLock) {
+            previous = this.snapshot;
+            next = this.publish(previous.with(changedProperty, newValue));
+            this.release(Set.of(changedProperty));
+        }
         this.store();
-        this.listeners.stream()
-                .filter(l -> l.getUsedConfigurationProperties().contains(changedProperty))
-                .forEach(l -> l.onChange(changedProperty, newValue));
+        this.notifyListeners(changedProperty, next.get(changedProperty));
+        previous.diff(next).getChanges().forEach((property, value) -> {
+            if (!property.equals(changedProperty)) {
+                this.notifyListeners(property, value);
+            }
+        });
+    }
+
+    /**
+     * Change several values at once: readers see all the changes or none, the configuration file is written once,
+     * and every listener using a changed property is notified once, with all its changed properties.
+     * The locale listeners are notified if the language changed.
+     * @param changes Set the values to change in the given transaction.
+     * @return The differences with the previous configuration, values set to their current value are not included.
+     * @throws ListenerDispatchException If a listener failed, the other listeners are still notified.
+     */
+    protected final ConfigurationDiff update(Consumer<ConfigurationTransaction> changes) {
+        ConfigurationTransaction transaction = new ConfigurationTransaction();
+        changes.accept(transaction);
+        ConfigurationSnapshot previous;
+        ConfigurationSnapshot next;
+        synchronized (this.updateLock) {
+            previous = this.snapshot;
+            next = this.publish(previous.withAll(transaction.getChanges()));
+            this.release(transaction.getChanges().keySet());
+        }
+        if (next == previous) {
+            return ConfigurationDiff.empty();
+        }
+        this.store();
+        ConfigurationDiff diff = previous.diff(next);
+        if (!diff.isEmpty()) {
+            this.notifyChanges(diff);
+        }
+        return diff;
+    }
+
+    /**
+     * Replace the whole configuration, typically after the configuration file was reloaded.
+     * Only the listeners using a changed property are notified, once with all their changed properties, with a null
+     * value for removed properties.
+     * The locale listeners are notified if the language changed.
+     * The configuration file is not written.
+     * @param properties New configuration content.
+     * @return The differences with the previous configuration.
+     * @throws ListenerDispatchException If a listener failed, the other listeners are still notified.
+     */
+    public final ConfigurationDiff reload(Properties properties) {
+        Objects.requireNonNull(properties);
+        long start = System.nanoTime();
+        ConfigurationSnapshot previous;
+        ConfigurationSnapshot next;
+        synchronized (this.updateLock) {
+            previous = this.snapshot;
+            next = this.publish(previous.replace(properties));
+            this.overridden = OverriddenProperties.hiddenValues(properties);
+        }
+        ConfigurationDiff diff = previous.diff(next);
+        this.notifyChanges(diff);
+        this.metrics.onReload(System.nanoTime() - start, diff.getChangedKeys().size());
+        return diff;
+    }
+
+    /**
+     * @return The version of the current values, every change publishes a new version, the initial values are the
+     * version 0. After a rollback, this is the version rolled back to.
+     */
+    public final long version() {
+        return this.snapshot.version();
+    }
+
+    /**
+     * Provide a past or current version of the values.
+     * @param version Version to find.
+     * @return The values of this version, empty if it is no longer in the history.
+     */
+    public final Optional<ConfigurationVersion> at(long version) {
+        synchronized (this.updateLock) {
+            return Optional.ofNullable(this.history.get(version)).map(ConfigurationVersion::new);
+        }
+    }
+
+    /**
+     * Compute the differences between two versions, only the parts not shared by the versions are compared.
+     * @param from First version.
+     * @param to Second version.
+     * @return The keys whose resolved value differs, with their value in the second version.
+     * @throws IllegalStateException If a version is no longer in the history.
+     */
+    public final ConfigurationDiff diff(long from, long to) {
+        ConfigurationSnapshot first;
+        ConfigurationSnapshot second;
+        synchronized (this.updateLock) {
+            first = this.historyVersion(from);
+            second = this.historyVersion(to);
+        }
+        return first.diff(second);
+    }
+
+    /**
+     * Publish again the values of a past version, the version itself is published, nothing is rebuilt.
+     * The configuration is stored if the values differ, and only the listeners of the differing properties are
+     * notified. The later versions stay in the history, so the rollback can be undone.
+     * @param version Version to restore.
+     * @return The differences with the values before the rollback.
+     * @throws IllegalStateException If the version is no longer in the history.
+     * @throws ListenerDispatchException If a listener failed, the other listeners are still notified.
+     */
+    public final ConfigurationDiff rollback(long version) {
+        ConfigurationSnapshot previous;
+        ConfigurationSnapshot target;
+        synchronized (this.updateLock) {
+            target = this.historyVersion(version);
+            previous = this.snapshot;
+            this.snapshot = target;
+        }
+        if (!previous.rawDiff(target).isEmpty()) {
+            this.store();
+        }
+        ConfigurationDiff diff = previous.diff(target);
+        if (!diff.isEmpty()) {
+            this.notifyChanges(diff);
+        }
+        return diff;
+    }
+
+    /**
+     * Set how many versions are kept for at, diff and rollback, 16 by default.
+     * @param size Number of versions to keep, the most recent ones are kept.
+     */
+    public final void setHistorySize(int size) {
+        synchronized (this.updateLock) {
+            this.history.resize(size);
+        }
+    }
+
+    /**
+     * Publish new values as a new version, must be called with the update lock held.
+     * @param next New values.
+     * @return The published snapshot, the current one if the values did not change.
+     */
+    private ConfigurationSnapshot publish(ConfigurationSnapshot next) {
+        ConfigurationSnapshot current = this.snapshot;
+        if (next == current) {
+            return current;
+        }
+        ConfigurationSnapshot versioned = next.withVersion(++this.lastVersion);
+        this.history.add(versioned);
+        this.snapshot = versioned;
+        return versioned;
+    }
+
+    private ConfigurationSnapshot historyVersion(long version) {
+        ConfigurationSnapshot snapshot = this.history.get(version);
+        if (snapshot == null) {
+            throw new IllegalStateException("Configuration version not in history: " + version);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Reload this configuration every time the retriever detects a change.
+     * @param retriever Retriever providing the configuration.
+     * @param args Arguments used to retrieve the configuration.
+     * @return The handle to stop reloading.
+     */
+    public final ConfigurationWatch reloadOnChange(ConfigurationRetriever retriever, ApplicationArgs args) {
+        return retriever.watch(() -> this.reload(retriever.retrieveFromArgs(args)));
+    }
+
+    /**
+     * Notify every listener once with the changes of the properties it uses, then the locale listeners if the
+     * language changed.
+     * A failing listener does not prevent the others from being notified.
+     * @param diff Changes to notify.
+     * @throws ListenerDispatchException If any listener failed, once all of them were notified.
+     */
+    private void notifyChanges(ConfigurationDiff diff) {
+        // Identity, not equality, distinguishes the listeners, and the registration order is kept.
+        Map<ConfigurationChangeListener, Map<String, String>> byListener = new IdentityHashMap<>();
+        List<ConfigurationChangeListener> order = new ArrayList<>();
+        diff.getChanges().forEach((property, value) -> {
+            List<ConfigurationChangeListener> registered = this.listeners.get(property);
+            if (registered != null) {
+                for (ConfigurationChangeListener listener : registered) {
+                    byListener.computeIfAbsent(listener, l -> {
+                        order.add(l);
+                        return new LinkedHashMap<>();
+                    }).put(property, value);
+                }
+            }
+        });
+        ConfigurationMetrics m = this.metrics;
+        List<Throwable> failures = new ArrayList<>();
+        for (ConfigurationChangeListener listener : order) {
+            Map<String, String> changes = byListener.get(listener);
+            changes.keySet().forEach(m::onListenerDispatch);
+            try {
+                listener.onChanges(Collections.unmodifiableMap(changes));
+            } catch (RuntimeException e) {
+                m.onListenerFailure(changes.keySet().iterator().next(), e);
+                failures.add(e);
+            }
+        }
+        if (diff.getChangedKeys().contains(LANGUAGE)) {
+            Locale locale = this.getLocale();
+            for (LocaleChangedListener listener : this.localeChangedListeners) {
+                try {
+                    listener.setLanguage(locale);
+                } catch (RuntimeException e) {
+                    m.onListenerFailure(LANGUAGE, e);
+                    failures.add(e);
+                }
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new ListenerDispatchException("Error notifying configuration changes", failures);
+        }
+    }
+
+    private void notifyListeners(String property, String newValue) {
+        List<ConfigurationChangeListener> registered = this.listeners.get(property);
+        if (registered != null) {
+            ConfigurationMetrics m = this.metrics;
+            for (ConfigurationChangeListener listener : registered) {
+                m.onListenerDispatch(property);
+                try {
+                    listener.onChange(property, newValue);
+                } catch (RuntimeException e) {
+                    m.onListenerFailure(property, e);
+                    throw e;
+                }
+            }
+        }
     }
 
     public final boolean isEulaAccepted(String expectedHash) {
-        return this.properties.getProperty(EULA_ACCEPTED).equals(expectedHash);
+        return this.get(EULA_ACCEPTED_KEY).equals(expectedHash);
     }
 
     /**
      * Set the EULA as accepted.
      * @param hash Hash of the eula to ensure it is the right one accepted.
-     * @return True if process went well, false otherwise
+     * @return True if process went well, false otherwise, with write behind enabled, only tells if the write was scheduled.
      */
     public final boolean setEulaAccepted(String hash) {
         try {
-            this.properties.setProperty(EULA_ACCEPTED, hash);
+            this.set(EULA_ACCEPTED, hash);
             this.store();
             return true;
         } catch (IllegalStateException e) {
@@ -132,7 +1011,34 @@ public class BaseConfiguration implements LanguageConfiguration {
      * Set the EULA as not accepted.
      */
     public final void setEulaNotAccepted() {
-        this.properties.setProperty(EULA_ACCEPTED, "0");
+        this.set(EULA_ACCEPTED, "0");
+    }
+
+    /**
+     * Publish a new snapshot containing the changed value, readers currently using the previous one are not impacted.
+     * @param key Key of the value to change.
+     * @param value New value.
+     */
+    private void set(String key, String value) {
+        synchronized (this.updateLock) {
+            this.publish(this.snapshot.with(key, value));
+            this.release(Set.of(key));
+        }
+    }
+
+    /**
+     * Write the values set by the application even if they were overridden when loading, called under the update
+     * lock.
+     * @param keys Keys explicitly changed.
+     */
+    private void release(Set<String> keys) {
+        Map<String, String> current = this.overridden;
+        if (current.isEmpty() || Collections.disjoint(current.keySet(), keys)) {
+            return;
+        }
+        Map<String, String> next = new HashMap<>(current);
+        next.keySet().removeAll(keys);
+        this.overridden = Collections.unmodifiableMap(next);
     }
 
     /**
@@ -143,4 +1049,29 @@ public class BaseConfiguration implements LanguageConfiguration {
     protected Path getConfigFile() {
         return Path.of("config/configuration.properties");
     }
+
+    /**
+     * Tell if the configuration file content must be forced to the storage device before replacing the previous file.
+     * This function can be overridden to trade write speed for durability in case of power loss, false by default.
+     * @return True to force the content to the device.
+     */
+    protected boolean isSyncOnStore() {
+        return false;
+    }
+
+    /**
+     * Locale resolved from a language value.
+     * @param source Language value, null if the language was not set.
+     * @param locale Resolved locale.
+     */
+    private record ResolvedLocale(ConfigurationValue source, Locale locale) {}
+
+    /**
+     * Journal synchronization task, errors are logged.
+     */
+    @FunctionalInterface
+    private interface JournalTask {
+
+        void run() throws IOException;
+    }
 }
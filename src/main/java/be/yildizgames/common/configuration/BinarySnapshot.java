@@ -0,0 +1,182 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.zip.CRC32C;
+
+/**
+ * Compact binary copy of a properties file, stored next to it, to load the configuration without parsing the text.
+ * The snapshot records the size and CRC32C of the properties file it was created from, it is only used while they
+ * still match, a modified file is always read again. The modification time is not used, a same size rewrite within the
+ * file system timestamp granularity would keep it.
+ * Format, big endian:
+ * magic, version, source size, source CRC32C, string table (count then length prefixed UTF-8 strings),
+ * entries sorted by key (count then key and value indexes in the string table), CRC32C of all the previous bytes.
+ *
+ * @author Grégory Van den Borre
+ */
+final class BinarySnapshot {
+
+    private static final int MAGIC = 0x59434653;
+
+    private static final byte VERSION = 2;
+
+    private static final String EXTENSION = ".snapshot";
+
+    private BinarySnapshot() {
+        super();
+    }
+
+    /**
+     * Provide the snapshot file of a properties file.
+     * @param source Properties file.
+     * @return The snapshot file, in the same directory.
+     */
+    static Path pathFor(Path source) {
+        return source.resolveSibling(source.getFileName() + EXTENSION);
+    }
+
+    /**
+     * Write the snapshot of a properties file, the file must already contain the given properties.
+     * @param source Properties file.
+     * @param properties Content of the properties file.
+     * @throws IOException If the snapshot could not be written.
+     */
+    static void write(Path source, Properties properties) throws IOException {
+        byte[] sourceContent = Files.readAllBytes(source);
+        byte[] content = encode(properties, sourceContent.length, hash(sourceContent));
+        AtomicPropertiesWriter.write(pathFor(source), false, out -> {
+            out.write(content);
+            out.flush();
+        });
+    }
+
+    /**
+     * Read the snapshot of a properties file.
+     * @param source Properties file.
+     * @return The properties, empty if there is no snapshot, if it is stale or corrupted.
+     * @throws IOException If the files could not be read.
+     */
+    static Optional<Properties> read(Path source) throws IOException {
+        byte[] content;
+        try {
+            content = Files.readAllBytes(pathFor(source));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+        byte[] sourceContent = Files.readAllBytes(source);
+        return decode(content, sourceContent.length, hash(sourceContent));
+    }
+
+    private static long hash(byte[] content) {
+        CRC32C crc = new CRC32C();
+        crc.update(content);
+        return crc.getValue();
+    }
+
+    static byte[] encode(Properties properties, long sourceSize, long sourceHash) throws IOException {
+        TreeMap<String, String> sorted = new TreeMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            sorted.put(key, properties.getProperty(key));
+        }
+        Map<String, Integer> table = new HashMap<>();
+        ByteArrayOutputStream strings = new ByteArrayOutputStream();
+        DataOutputStream stringsOut = new DataOutputStream(strings);
+        int[] entries = new int[sorted.size() * 2];
+        int i = 0;
+        for (Map.Entry<String, String> entry : sorted.entrySet()) {
+            entries[i++] = intern(entry.getKey(), table, stringsOut);
+            entries[i++] = intern(entry.getValue(), table, stringsOut);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(strings.size() + entries.length * 4 + 64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(sourceSize);
+        out.writeLong(sourceHash);
+        out.writeInt(table.size());
+        strings.writeTo(out);
+        out.writeInt(sorted.size());
+        for (int index : entries) {
+            out.writeInt(index);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+        return bytes.toByteArray();
+    }
+
+    static Optional<Properties> decode(byte[] content, long sourceSize, long sourceHash) {
+        if (content.length < 4) {
+            return Optional.empty();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(content);
+        CRC32C crc = new CRC32C();
+        crc.update(content, 0, content.length - 4);
+        if ((int) crc.getValue() != buffer.getInt(content.length - 4)) {
+            return Optional.empty();
+        }
+        buffer.limit(content.length - 4);
+        try {
+            if (buffer.getInt() != MAGIC || buffer.get() != VERSION) {
+                return Optional.empty();
+            }
+            if (buffer.getLong() != sourceSize || buffer.getLong() != sourceHash) {
+                return Optional.empty();
+            }
+            String[] strings = new String[buffer.getInt()];
+            for (int i = 0; i < strings.length; i++) {
+                int length = buffer.getInt();
+                strings[i] = new String(content, buffer.position(), length, StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + length);
+            }
+            int count = buffer.getInt();
+            Properties properties = new Properties();
+            for (int i = 0; i < count; i++) {
+                properties.setProperty(strings[buffer.getInt()], strings[buffer.getInt()]);
+            }
+            return buffer.hasRemaining() ? Optional.empty() : Optional.of(properties);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException | NegativeArraySizeException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static int intern(String value, Map<String, Integer> table, DataOutputStream out) throws IOException {
+        Integer index = table.get(value);
+        if (index == null) {
+            index = table.size();
+            table.put(value, index);
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+        return index;
+    }
+}
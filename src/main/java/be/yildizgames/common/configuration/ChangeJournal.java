@@ -0,0 +1,377 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Append only journal of configuration changes, shared by all the processes using the same configuration file.
+ * The journal is a memory mapped file next to the configuration file, writers append the changed values as versioned
+ * records, and readers poll it to apply only the records they did not see yet.
+ * Compaction writes the journal content in the configuration file and empties the journal, readers notice it with the
+ * generation number, and reload the configuration file if they missed records that were compacted.
+ * Appends and compactions are serialized between processes with a file lock, reads take no lock, a record being
+ * published by updating the end offset after it is written, and checked with its checksum.
+ * Header: magic, format, generation, end offset, base version (last version written in the configuration file), last
+ * version.
+ * Record: payload length, version, payload CRC32C, payload (count, then key and value, length prefixed UTF-8, a
+ * negative value length for a removed key).
+ *
+ * @author Grégory Van den Borre
+ */
+final class ChangeJournal implements AutoCloseable {
+
+    /**
+     * Default journal size, in bytes.
+     */
+    static final int DEFAULT_CAPACITY = 1 << 20;
+
+    private static final int MAGIC = 0x59434A4C;
+
+    private static final int FORMAT = 1;
+
+    private static final int GENERATION = 8;
+
+    private static final int END = 12;
+
+    private static final int BASE_VERSION = 16;
+
+    private static final int LAST_VERSION = 24;
+
+    private static final int HEADER = 64;
+
+    private static final int RECORD_HEADER = 16;
+
+    private static final String EXTENSION = ".journal";
+
+    /**
+     * File locks are held by the process, this serializes the threads of this process using the same journal.
+     */
+    private static final Map<Path, ReentrantLock> LOCKS = new ConcurrentHashMap<>();
+
+    private final Path configFile;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer buffer;
+
+    private final ReentrantLock lock;
+
+    /**
+     * Reader state: generation, position of the next record to read, and last version applied.
+     */
+    private int generation;
+
+    private int position;
+
+    private long version;
+
+    private ChangeJournal(Path configFile, FileChannel channel, MappedByteBuffer buffer, ReentrantLock lock) {
+        super();
+        this.configFile = configFile;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.lock = lock;
+        this.generation = buffer.getInt(GENERATION);
+        this.position = HEADER;
+        this.version = buffer.getLong(BASE_VERSION);
+    }
+
+    /**
+     * Provide the journal file of a configuration file.
+     * @param configFile Configuration file.
+     * @return The journal file, in the same directory.
+     */
+    static Path pathFor(Path configFile) {
+        return configFile.resolveSibling(configFile.getFileName() + EXTENSION);
+    }
+
+    /**
+     * Open the journal of a configuration file, creating it if needed.
+     * The records not compacted yet are returned by the first poll.
+     * @param configFile Configuration file.
+     * @param capacity Size of the journal if created, in bytes.
+     * @return The opened journal.
+     * @throws IOException If the journal cannot be opened.
+     */
+    static ChangeJournal open(Path configFile, int capacity) throws IOException {
+        Path absolute = configFile.toAbsolutePath().normalize();
+        ReentrantLock lock = LOCKS.computeIfAbsent(absolute, p -> new ReentrantLock());
+        FileChannel channel = FileChannel.open(pathFor(absolute), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return locked(channel, lock, () -> {
+                long size = channel.size();
+                boolean valid = size >= HEADER + RECORD_HEADER && size <= Integer.MAX_VALUE;
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, valid ? size : Math.max(capacity, HEADER + RECORD_HEADER));
+                if (!valid || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT) {
+                    buffer.putInt(4, FORMAT);
+                    buffer.putInt(GENERATION, 0);
+                    buffer.putInt(END, HEADER);
+                    buffer.putLong(BASE_VERSION, 0);
+                    buffer.putLong(LAST_VERSION, 0);
+                    buffer.putInt(0, MAGIC);
+                }
+                return new ChangeJournal(absolute, channel, buffer, lock);
+            });
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Append changes as a single record, compacting the journal first if there is not enough space.
+     * @param changes New value by key, null for a removed key.
+     * @return The version of the record.
+     * @throws IOException If the journal or the configuration file cannot be written.
+     */
+    synchronized long append(Map<String, String> changes) throws IOException {
+        byte[] payload = encode(changes);
+        if (payload.length + RECORD_HEADER > this.buffer.capacity() - HEADER) {
+            throw new IllegalStateException("Configuration change too large for the journal: " + payload.length + " bytes");
+        }
+        return locked(this.channel, this.lock, () -> {
+            int end = this.buffer.getInt(END);
+            if (end + RECORD_HEADER + payload.length > this.buffer.capacity()) {
+                this.compactLocked();
+                end = HEADER;
+            }
+            long next = this.buffer.getLong(LAST_VERSION) + 1;
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            this.buffer.putInt(end, payload.length);
+            this.buffer.putLong(end + 4, next);
+            this.buffer.putInt(end + 12, (int) crc.getValue());
+            this.buffer.put(end + RECORD_HEADER, payload);
+            this.buffer.putLong(LAST_VERSION, next);
+            // Publish the record once fully written.
+            this.buffer.putInt(END, end + RECORD_HEADER + payload.length);
+            if (this.isCaughtUp(next - 1)) {
+                // The writer already has its own changes, it does not need to read them back.
+                this.position = end + RECORD_HEADER + payload.length;
+                this.version = next;
+            }
+            return next;
+        });
+    }
+
+    /**
+     * Read the records appended since the last poll.
+     * @return The changes to apply, empty if none, with a reload flag if records were compacted before being read.
+     */
+    synchronized Poll poll() {
+        boolean reload = false;
+        int currentGeneration = this.buffer.getInt(GENERATION);
+        if (currentGeneration != this.generation) {
+            long base = this.buffer.getLong(BASE_VERSION);
+            reload = this.version < base;
+            this.generation = currentGeneration;
+            this.position = HEADER;
+            this.version = Math.max(this.version, base);
+        }
+        Map<String, String> changes = new LinkedHashMap<>();
+        int end = Math.min(this.buffer.getInt(END), this.buffer.capacity());
+        while (this.position + RECORD_HEADER <= end) {
+            int length = this.buffer.getInt(this.position);
+            if (length < 0 || this.position + RECORD_HEADER + length > end) {
+                break;
+            }
+            long recordVersion = this.buffer.getLong(this.position + 4);
+            byte[] payload = new byte[length];
+            this.buffer.get(this.position + RECORD_HEADER, payload);
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            if ((int) crc.getValue() != this.buffer.getInt(this.position + 12)) {
+                // Overwritten by a compaction and a new append while reading, the next poll sees the new generation.
+                break;
+            }
+            if (recordVersion > this.version) {
+                decode(payload, changes);
+                this.version = recordVersion;
+            }
+            this.position += RECORD_HEADER + length;
+        }
+        return new Poll(reload, Collections.unmodifiableMap(changes), this.version);
+    }
+
+    /**
+     * Write the journal content in the configuration file and empty the journal.
+     * @throws IOException If the configuration file cannot be written.
+     */
+    synchronized void compact() throws IOException {
+        locked(this.channel, this.lock, () -> {
+            this.compactLocked();
+            return null;
+        });
+    }
+
+    /**
+     * @return The part of the journal used by records, between 0 and 1.
+     */
+    double usage() {
+        return (double) (this.buffer.getInt(END) - HEADER) / (this.buffer.capacity() - HEADER);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    private void compactLocked() throws IOException {
+        int end = this.buffer.getInt(END);
+        if (end == HEADER) {
+            return;
+        }
+        Properties properties = new Properties();
+        if (Files.exists(this.configFile)) {
+            try (Reader reader = Files.newBufferedReader(this.configFile)) {
+                properties.load(reader);
+            }
+        }
+        Map<String, String> changes = new LinkedHashMap<>();
+        for (int p = HEADER; p + RECORD_HEADER <= end; ) {
+            int length = this.buffer.getInt(p);
+            byte[] payload = new byte[length];
+            this.buffer.get(p + RECORD_HEADER, payload);
+            decode(payload, changes);
+            p += RECORD_HEADER + length;
+        }
+        changes.forEach((k, v) -> {
+            if (v == null) {
+                properties.remove(k);
+            } else {
+                properties.setProperty(k, v);
+            }
+        });
+        AtomicPropertiesWriter.write(this.configFile, properties, "Properties", true);
+        long last = this.buffer.getLong(LAST_VERSION);
+        boolean caughtUp = this.isCaughtUp(last);
+        this.buffer.putLong(BASE_VERSION, last);
+        this.buffer.putInt(END, HEADER);
+        this.buffer.putInt(GENERATION, this.buffer.getInt(GENERATION) + 1);
+        if (caughtUp) {
+            this.generation = this.buffer.getInt(GENERATION);
+            this.position = HEADER;
+        }
+    }
+
+    /**
+     * Tell if this reader read all the records up to a version, in the current generation.
+     * @param last Version to check.
+     * @return True if there is nothing to read up to this version.
+     */
+    private boolean isCaughtUp(long last) {
+        return this.generation == this.buffer.getInt(GENERATION) && this.version == last;
+    }
+
+    /**
+     * Run an action holding the lock of this process and the file lock shared with the other processes.
+     */
+    private static <T> T locked(FileChannel channel, ReentrantLock lock, LockedAction<T> action) throws IOException {
+        lock.lock();
+        try {
+            FileLock fileLock = channel.lock();
+            try {
+                return action.run();
+            } finally {
+                fileLock.release();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static byte[] encode(Map<String, String> changes) {
+        List<byte[]> parts = new ArrayList<>(changes.size() * 2);
+        int size = 4;
+        for (Map.Entry<String, String> change : changes.entrySet()) {
+            byte[] key = change.getKey().getBytes(StandardCharsets.UTF_8);
+            byte[] value = change.getValue() == null ? null : change.getValue().getBytes(StandardCharsets.UTF_8);
+            parts.add(key);
+            parts.add(value);
+            size += 8 + key.length + (value == null ? 0 : value.length);
+        }
+        ByteBuffer payload = ByteBuffer.allocate(size);
+        payload.putInt(changes.size());
+        for (byte[] part : parts) {
+            if (part == null) {
+                payload.putInt(-1);
+            } else {
+                payload.putInt(part.length);
+                payload.put(part);
+            }
+        }
+        return payload.array();
+    }
+
+    private static void decode(byte[] payload, Map<String, String> changes) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        int count = buffer.getInt();
+        for (int i = 0; i < count; i++) {
+            String key = read(buffer);
+            changes.put(key, read(buffer));
+        }
+    }
+
+    private static String read(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    @FunctionalInterface
+    private interface LockedAction<T> {
+
+        T run() throws IOException;
+    }
+
+    /**
+     * Result of a poll.
+     *
+     * @param reload True if records were compacted before being read, the configuration file must be reloaded before
+     *               applying the changes.
+     * @param changes New value by key, null for a removed key, in the order they were appended.
+     * @param version Last version read.
+     */
+    record Poll(boolean reload, Map<String, String> changes, long version) {
+
+        boolean isEmpty() {
+            return !this.reload && this.changes.isEmpty();
+        }
+    }
+}
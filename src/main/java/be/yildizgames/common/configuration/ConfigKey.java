@@ -0,0 +1,187 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Compiled handle to a configuration property.
+ * The key name is resolved once, when the key is created, to a slot index shared by all the keys with the same name.
+ * Snapshots store their values in an array indexed by those slots, so reading through a key is an array load,
+ * without hashing or comparing the name.
+ * The parsed value is cached in the configuration value, reading the same key again does not parse it again.
+ *
+ * @param <T> Type of the value.
+ * @author Grégory Van den Borre
+ */
+public final class ConfigKey<T> {
+
+    private static final Function<ConfigurationValue, String> STRING = v -> v.raw;
+
+    private static final Function<ConfigurationValue, Integer> INT = ConfigurationValue::asInt;
+
+    private static final Function<ConfigurationValue, Long> LONG = ConfigurationValue::asLong;
+
+    private static final Function<ConfigurationValue, Double> DOUBLE = ConfigurationValue::asDouble;
+
+    private static final Function<ConfigurationValue, Boolean> BOOLEAN = ConfigurationValue::asBoolean;
+
+    private static final Function<ConfigurationValue, Long> SIZE = ConfigurationValue::asSize;
+
+    private static final Function<ConfigurationValue, Duration> DURATION = ConfigurationValue::asDuration;
+
+    private static final Function<ConfigurationValue, List<String>> LIST = ConfigurationValue::asList;
+
+    /**
+     * Converters for enum types, one instance per enum class, so the parsed values can be cached by converter.
+     */
+    private static final Map<Class<?>, Function<ConfigurationValue, ?>> ENUMS = new ConcurrentHashMap<>();
+
+    /**
+     * Property name.
+     */
+    private final String name;
+
+    /**
+     * Index of the value in the snapshots.
+     */
+    final int slot;
+
+    /**
+     * Convert the raw value to the key type, the same instance is shared by all the keys of a type.
+     */
+    final Function<ConfigurationValue, T> converter;
+
+    /**
+     * Value returned when the property is missing, null if there is none.
+     */
+    private final T defaultValue;
+
+    private ConfigKey(String name, int slot, Function<ConfigurationValue, T> converter, T defaultValue) {
+        super();
+        this.name = name;
+        this.slot = slot;
+        this.converter = converter;
+        this.defaultValue = defaultValue;
+    }
+
+    private static <T> ConfigKey<T> of(String name, Function<ConfigurationValue, T> converter) {
+        Objects.requireNonNull(name);
+        return new ConfigKey<>(name, ConfigKeyRegistry.slot(name), converter, null);
+    }
+
+    public static ConfigKey<String> ofString(String name) {
+        return of(name, STRING);
+    }
+
+    public static ConfigKey<Integer> ofInt(String name) {
+        return of(name, INT);
+    }
+
+    public static ConfigKey<Long> ofLong(String name) {
+        return of(name, LONG);
+    }
+
+    public static ConfigKey<Double> ofDouble(String name) {
+        return of(name, DOUBLE);
+    }
+
+    public static ConfigKey<Boolean> ofBoolean(String name) {
+        return of(name, BOOLEAN);
+    }
+
+    /**
+     * Create a key for a size in bytes, see BaseConfiguration.getSize for the accepted format.
+     * @param name Property name.
+     * @return The created key.
+     */
+    public static ConfigKey<Long> ofSize(String name) {
+        return of(name, SIZE);
+    }
+
+    /**
+     * Create a key for a duration, see BaseConfiguration.getDuration for the accepted format.
+     * @param name Property name.
+     * @return The created key.
+     */
+    public static ConfigKey<Duration> ofDuration(String name) {
+        return of(name, DURATION);
+    }
+
+    public static ConfigKey<List<String>> ofList(String name) {
+        return of(name, LIST);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E extends Enum<E>> ConfigKey<E> ofEnum(String name, Class<E> type) {
+        Objects.requireNonNull(type);
+        return of(name, (Function<ConfigurationValue, E>) ENUMS.computeIfAbsent(type, t -> v -> v.asEnum(type)));
+    }
+
+    /**
+     * Create a copy of this key returning a default value when the property is missing.
+     * @param defaultValue Value to use when the property is missing.
+     * @return The created key, sharing the slot of this one.
+     */
+    public ConfigKey<T> withDefault(T defaultValue) {
+        Objects.requireNonNull(defaultValue);
+        return new ConfigKey<>(this.name, this.slot, this.converter, defaultValue);
+    }
+
+    /**
+     * @return The property name.
+     */
+    public String name() {
+        return this.name;
+    }
+
+    /**
+     * Convert a raw value as it is converted when read from the configuration, the default value is not used.
+     * @param raw Raw value.
+     * @return The converted value.
+     * @throws IllegalStateException If the value cannot be converted.
+     */
+    public T parse(String raw) {
+        return new ConfigurationValue(this.name, raw).as(this.converter);
+    }
+
+    /**
+     * Read the value of this key in a snapshot.
+     * @param snapshot Snapshot to read.
+     * @return The converted value, or the default value if missing.
+     * @throws IllegalStateException If the value is missing and there is no default.
+     */
+    T read(ConfigurationSnapshot snapshot) {
+        ConfigurationValue value = snapshot.value(this);
+        if (value == null) {
+            if (this.defaultValue == null) {
+                throw new IllegalStateException("Missing configuration property: " + this.name);
+            }
+            return this.defaultValue;
+        }
+        return value.as(this.converter);
+    }
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
+}
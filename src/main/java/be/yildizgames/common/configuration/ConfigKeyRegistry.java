@@ -0,0 +1,78 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assign a slot index to every configuration key name, for the whole process.
+ * Slots are never released, a name always keeps the same index.
+ *
+ * @author Grégory Van den Borre
+ */
+final class ConfigKeyRegistry {
+
+    private static final Map<String, Integer> SLOTS = new ConcurrentHashMap<>();
+
+    /**
+     * Names by slot index, replaced as a whole when a name is added, so it can be read without locking.
+     */
+    private static volatile String[] names = new String[0];
+
+    private ConfigKeyRegistry() {
+        super();
+    }
+
+    /**
+     * Provide the slot of a name, assigning a new one if the name was never registered.
+     * @param name Key name.
+     * @return The slot index.
+     */
+    static int slot(String name) {
+        Integer slot = SLOTS.get(name);
+        if (slot != null) {
+            return slot;
+        }
+        synchronized (ConfigKeyRegistry.class) {
+            return SLOTS.computeIfAbsent(name, n -> {
+                String[] current = names;
+                String[] copy = Arrays.copyOf(current, current.length + 1);
+                copy[current.length] = n;
+                names = copy;
+                return current.length;
+            });
+        }
+    }
+
+    /**
+     * Provide the slot of a name, without registering it.
+     * @param name Key name.
+     * @return The slot index, -1 if the name was never registered.
+     */
+    static int find(String name) {
+        Integer slot = SLOTS.get(name);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * @return The registered names, indexed by slot, the array must not be modified.
+     */
+    static String[] names() {
+        return names;
+    }
+}
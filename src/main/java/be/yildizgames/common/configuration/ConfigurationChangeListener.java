@@ -16,13 +16,31 @@
 package be.yildizgames.common.configuration;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author Grégory Van den Borre
  */
 public interface ConfigurationChangeListener {
 
+    /**
+     * @return The properties this listener must be notified for.
+     */
     List<String> getUsedConfigurationProperties();
 
+    /**
+     * Called when a used property changed.
+     * @param property Changed property.
+     * @param newValue New value, null if the property was removed by a reload.
+     */
     void onChange(String property, String newValue);
+
+    /**
+     * Called once when several used properties changed together, by a batch update or a reload.
+     * By default, onChange is called for every changed property.
+     * @param changes New value by changed property, null for a property removed by a reload.
+     */
+    default void onChanges(Map<String, String> changes) {
+        changes.forEach(this::onChange);
+    }
 }
@@ -0,0 +1,72 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import be.yildizgames.common.configuration.parameter.ApplicationArgs;
+import be.yildizgames.common.configuration.parameter.DefaultArgName;
+
+import java.io.PrintStream;
+
+/**
+ * Validate and exit mode, enabled with the application argument 'configuration-check'.
+ * The configuration is checked against a schema without being written, the report is printed as JSON on the
+ * standard output and the application exits with 0 if the configuration is valid, 1 otherwise.
+ * The argument can be given a file, and repeated, to check several configuration files at once:
+ * configuration-check=tenant1.properties configuration-check=tenant2.properties
+ *
+ * @author Grégory Van den Borre
+ */
+public final class ConfigurationCheck {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private ConfigurationCheck() {
+        super();
+    }
+
+    /**
+     * @param args Application arguments.
+     * @return True if the validate and exit mode is requested.
+     */
+    public static boolean isRequested(ApplicationArgs args) {
+        return args.hasArg(DefaultArgName.CONFIGURATION_CHECK);
+    }
+
+    /**
+     * Check the configuration and exit, if the validate and exit mode is requested, do nothing otherwise.
+     * To be called at startup, before retrieving the configuration.
+     * @param args Application arguments.
+     * @param retriever Retriever to check the configuration with.
+     * @param schema Schema to check.
+     */
+    public static void exitIfRequested(ApplicationArgs args, ConfigurationRetriever retriever, ConfigurationSchema schema) {
+        if (isRequested(args)) {
+            System.exit(run(args, retriever, schema, System.out) ? 0 : 1);
+        }
+    }
+
+    /**
+     * Check the configuration and print the report.
+     * @return True if the configuration is valid.
+     */
+    static boolean run(ApplicationArgs args, ConfigurationRetriever retriever, ConfigurationSchema schema, PrintStream out) {
+        ValidationReport report = retriever.check(args, schema);
+        out.println(report.toJson());
+        out.flush();
+        return report.isValid();
+    }
+}
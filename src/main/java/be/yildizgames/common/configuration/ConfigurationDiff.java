@@ -0,0 +1,67 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Key level differences between two versions of a configuration.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class ConfigurationDiff {
+
+    private static final ConfigurationDiff EMPTY = new ConfigurationDiff(Map.of());
+
+    /**
+     * New value by changed key, null for a removed key.
+     */
+    private final Map<String, String> changes;
+
+    ConfigurationDiff(Map<String, String> changes) {
+        super();
+        this.changes = Collections.unmodifiableMap(changes);
+    }
+
+    static ConfigurationDiff empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @return The keys added, removed or whose value changed.
+     */
+    public Set<String> getChangedKeys() {
+        return this.changes.keySet();
+    }
+
+    /**
+     * @return The new value of every changed key, null for the removed keys.
+     */
+    public Map<String, String> getChanges() {
+        return this.changes;
+    }
+
+    public boolean isEmpty() {
+        return this.changes.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return this.changes.toString();
+    }
+}
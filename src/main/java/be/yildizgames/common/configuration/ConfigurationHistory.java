@@ -0,0 +1,83 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+/**
+ * Last published snapshots of a configuration, by version.
+ * The versions are consecutive, so a snapshot is stored at its version modulo the capacity, and is replaced by the
+ * version capacity steps later. The snapshots share most of their content, keeping them costs only their differences.
+ * Not thread safe, the configuration update lock guards it.
+ *
+ * @author Grégory Van den Borre
+ */
+final class ConfigurationHistory {
+
+    static final int DEFAULT_SIZE = 16;
+
+    private ConfigurationSnapshot[] versions;
+
+    ConfigurationHistory(int size) {
+        super();
+        this.versions = new ConfigurationSnapshot[checkSize(size)];
+    }
+
+    /**
+     * Keep a published snapshot, the oldest one is dropped when the history is full.
+     * @param snapshot Snapshot to keep, with its version.
+     */
+    void add(ConfigurationSnapshot snapshot) {
+        this.versions[(int) (snapshot.version() % this.versions.length)] = snapshot;
+    }
+
+    /**
+     * @param version Version to find.
+     * @return The snapshot of this version, null if it was dropped or never existed.
+     */
+    ConfigurationSnapshot get(long version) {
+        if (version < 0) {
+            return null;
+        }
+        ConfigurationSnapshot snapshot = this.versions[(int) (version % this.versions.length)];
+        return snapshot != null && snapshot.version() == version ? snapshot : null;
+    }
+
+    /**
+     * Change the number of kept versions, the most recent ones are kept.
+     * @param size New number of versions.
+     */
+    void resize(int size) {
+        ConfigurationSnapshot[] resized = new ConfigurationSnapshot[checkSize(size)];
+        long latest = -1;
+        for (ConfigurationSnapshot snapshot : this.versions) {
+            if (snapshot != null) {
+                latest = Math.max(latest, snapshot.version());
+            }
+        }
+        for (ConfigurationSnapshot snapshot : this.versions) {
+            if (snapshot != null && snapshot.version() > latest - size) {
+                resized[(int) (snapshot.version() % size)] = snapshot;
+            }
+        }
+        this.versions = resized;
+    }
+
+    private static int checkSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("History size must be positive: " + size);
+        }
+        return size;
+    }
+}
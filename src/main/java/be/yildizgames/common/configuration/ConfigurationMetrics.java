@@ -0,0 +1,76 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+/**
+ * Callback receiving the configuration activity, to collect metrics.
+ * All the methods do nothing by default, an implementation only overrides what it needs; they are called from the
+ * reading or writing thread, so they must be fast and thread safe.
+ * ConfigurationStatistics is an implementation collecting the metrics and exposing them with JMX.
+ *
+ * @author Grégory Van den Borre
+ */
+public interface ConfigurationMetrics {
+
+    /**
+     * Metrics doing nothing, used by default.
+     */
+    ConfigurationMetrics NONE = new ConfigurationMetrics() {};
+
+    /**
+     * A value was read.
+     * @param key Key of the value.
+     */
+    default void onRead(String key) {
+    }
+
+    /**
+     * The configuration was loaded by a retriever.
+     * @param nanos Load duration, in nanoseconds.
+     */
+    default void onLoad(long nanos) {
+    }
+
+    /**
+     * The configuration file was written.
+     * @param nanos Write duration, in nanoseconds.
+     */
+    default void onStore(long nanos) {
+    }
+
+    /**
+     * The configuration was reloaded.
+     * @param nanos Reload duration, listeners notification included, in nanoseconds.
+     * @param changedKeys Number of keys changed by the reload.
+     */
+    default void onReload(long nanos, int changedKeys) {
+    }
+
+    /**
+     * A listener is notified of a change.
+     * @param key Changed key.
+     */
+    default void onListenerDispatch(String key) {
+    }
+
+    /**
+     * A listener failed while being notified of a change.
+     * @param key Changed key.
+     * @param failure Listener error.
+     */
+    default void onListenerFailure(String key, Throwable failure) {
+    }
+}
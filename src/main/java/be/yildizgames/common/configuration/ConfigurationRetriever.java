@@ -33,5 +33,40 @@ public interface ConfigurationRetriever {
      */
     Properties retrieveFromArgs(ApplicationArgs args);
 
+    /**
+     * Retrieve the properties as layers, to know where every value comes from.
+     * More sources, like the environment, can be stacked on top of the returned layers.
+     * @param args Argument to build properties from.
+     * @return The layers, by default a single layer containing the retrieved properties.
+     */
+    default LayeredConfiguration retrieveLayers(ApplicationArgs args) {
+        return LayeredConfiguration.of(ConfigurationSources.fromProperties("configuration", this.retrieveFromArgs(args)));
+    }
+
+    /**
+     * Check the configuration against a schema, see ConfigurationCheck.
+     * @param args Argument to build properties from.
+     * @param schema Schema to check.
+     * @return The check result, by default the check of the retrieved layers.
+     */
+    default ValidationReport check(ApplicationArgs args, ConfigurationSchema schema) {
+        return schema.validate("configuration", this.retrieveLayers(args));
+    }
+
+    /**
+     * Invoke a behavior every time the configuration changes.
+     * @param behavior Behavior to invoke.
+     */
     void onReload(ConfigurationReloadedBehavior behavior);
+
+    /**
+     * Invoke a behavior every time the configuration changes, until the returned handle is closed.
+     * @param behavior Behavior to invoke.
+     * @return A handle to stop watching the changes, by default the behavior is registered with onReload and the
+     * handle cannot stop it.
+     */
+    default ConfigurationWatch watch(ConfigurationReloadedBehavior behavior) {
+        this.onReload(behavior);
+        return () -> {};
+    }
 }
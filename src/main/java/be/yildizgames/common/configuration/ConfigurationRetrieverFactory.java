@@ -30,4 +30,35 @@ public class ConfigurationRetrieverFactory {
     public static ConfigurationRetriever fromFile(ConfigurationNotFoundStrategy strategy) {
         return new FileConfigurationRetriever(strategy);
     }
+
+    /**
+     * Build a configuration retrieved from a file, keeping a binary snapshot of the file next to it.
+     * The snapshot is loaded instead of parsing the file as long as the file is not modified, it is rebuilt otherwise.
+     * @param strategy Behavior to fire when the file is not found.
+     * @return The configuration retriever.
+     */
+    public static ConfigurationRetriever fromFileWithSnapshot(ConfigurationNotFoundStrategy strategy) {
+        return new FileConfigurationRetriever(strategy, true);
+    }
+
+    /**
+     * Build a configuration retrieved from a file read through a memory mapping, for very large files.
+     * The file is parsed directly from the mapping instead of being read as text, the configuration still holds all
+     * the values once loaded.
+     * @param strategy Behavior to fire when the file is not found.
+     * @return The configuration retriever.
+     */
+    public static ConfigurationRetriever fromMappedFile(ConfigurationNotFoundStrategy strategy) {
+        return new FileConfigurationRetriever(strategy, false, true);
+    }
+
+    /**
+     * Report the load durations of a retriever to metrics.
+     * @param retriever Retriever to measure.
+     * @param metrics Metrics receiving the durations.
+     * @return The measured retriever.
+     */
+    public static ConfigurationRetriever metered(ConfigurationRetriever retriever, ConfigurationMetrics metrics) {
+        return new MeteredConfigurationRetriever(retriever, metrics);
+    }
 }
@@ -0,0 +1,218 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * Declared rules of a configuration, to check a configuration before using it.
+ * The checks are run on a fork join pool: every checked configuration is a task, split in sub tasks for the rules,
+ * and all the errors are gathered in a single report instead of failing on the first one.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class ConfigurationSchema {
+
+    /**
+     * Number of rules under which a task checks them itself instead of splitting them.
+     */
+    private static final int THRESHOLD = 32;
+
+    private final PropertyRule<?>[] rules;
+
+    private final Set<String> names;
+
+    /**
+     * True if the keys without rule are errors.
+     */
+    private final boolean strict;
+
+    private ConfigurationSchema(PropertyRule<?>[] rules, Set<String> names, boolean strict) {
+        super();
+        this.rules = rules;
+        this.names = names;
+        this.strict = strict;
+    }
+
+    /**
+     * Create a new schema.
+     * @param rules Rules of the properties, the keys without rule are not checked.
+     * @return The created schema.
+     * @throws IllegalStateException If several rules have the same property name.
+     */
+    public static ConfigurationSchema of(PropertyRule<?>... rules) {
+        Set<String> names = new HashSet<>();
+        for (PropertyRule<?> rule : rules) {
+            if (!names.add(rule.name())) {
+                throw new IllegalStateException("Duplicated rule for property " + rule.name());
+            }
+        }
+        return new ConfigurationSchema(rules.clone(), Set.copyOf(names), false);
+    }
+
+    /**
+     * @return A copy of this schema reporting the keys without rule as errors, to detect misspelled keys.
+     */
+    public ConfigurationSchema rejectUnknownKeys() {
+        return new ConfigurationSchema(this.rules, this.names, true);
+    }
+
+    /**
+     * @return The rules of this schema.
+     */
+    public List<PropertyRule<?>> getRules() {
+        return List.of(this.rules);
+    }
+
+    /**
+     * Check a configuration on the common fork join pool.
+     * @param source Name of the configuration, used in the errors.
+     * @param configuration Configuration to check.
+     * @return The check result.
+     */
+    public ValidationReport validate(String source, LayeredConfiguration configuration) {
+        Objects.requireNonNull(configuration);
+        return this.validate(List.of(new Input(source, () -> configuration)), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Check properties on the common fork join pool.
+     * @param source Name of the configuration, used in the errors.
+     * @param properties Properties to check.
+     * @return The check result.
+     */
+    public ValidationReport validate(String source, Properties properties) {
+        return this.validate(source, LayeredConfiguration.of(ConfigurationSources.fromProperties(source, properties)));
+    }
+
+    /**
+     * Check several configurations, they are loaded in their task so the loading is parallelized too.
+     * @param inputs Configurations to check.
+     * @param pool Pool running the checks.
+     * @return The check result, with the errors in the order of the inputs.
+     */
+    ValidationReport validate(List<Input> inputs, ForkJoinPool pool) {
+        List<SourceTask> tasks = new ArrayList<>(inputs.size());
+        inputs.forEach(i -> tasks.add(new SourceTask(i)));
+        List<ValidationError> errors = pool.invoke(ForkJoinTask.adapt(() -> {
+            List<ValidationError> result = new ArrayList<>();
+            ForkJoinTask.invokeAll(tasks).forEach(t -> result.addAll(t.join()));
+            return result;
+        }));
+        return new ValidationReport(inputs.size(), errors);
+    }
+
+    /**
+     * A configuration to check.
+     *
+     * @param source Name of the configuration.
+     * @param loader Load the configuration.
+     */
+    record Input(String source, Supplier<LayeredConfiguration> loader) {
+
+        Input {
+            Objects.requireNonNull(source);
+            Objects.requireNonNull(loader);
+        }
+    }
+
+    /**
+     * Load and check a configuration, the tasks are never serialized.
+     */
+    @SuppressWarnings("serial")
+    private final class SourceTask extends RecursiveTask<List<ValidationError>> {
+
+        private final Input input;
+
+        private SourceTask(Input input) {
+            super();
+            this.input = input;
+        }
+
+        @Override
+        protected List<ValidationError> compute() {
+            LayeredConfiguration configuration;
+            ConfigurationSnapshot values;
+            try {
+                configuration = this.input.loader.get();
+                // The rules check the values as the configuration reads them, with their placeholders resolved.
+                values = ConfigurationSnapshot.of(configuration.toProperties());
+            } catch (IllegalStateException e) {
+                return List.of(new ValidationError(this.input.source, null, null, e.getMessage()));
+            }
+            List<ValidationError> errors = new ArrayList<>(new RulesTask(this.input.source, values, 0, rules.length).invoke());
+            if (strict) {
+                for (String key : new TreeSet<>(configuration.getKeys())) {
+                    if (!names.contains(key)) {
+                        errors.add(new ValidationError(this.input.source, key, values.get(key), "Unknown property"));
+                    }
+                }
+            }
+            return errors;
+        }
+    }
+
+    /**
+     * Check a range of the rules against a configuration, the tasks are never serialized.
+     */
+    @SuppressWarnings("serial")
+    private final class RulesTask extends RecursiveTask<List<ValidationError>> {
+
+        private final String source;
+
+        private final ConfigurationSnapshot values;
+
+        private final int from;
+
+        private final int to;
+
+        private RulesTask(String source, ConfigurationSnapshot values, int from, int to) {
+            super();
+            this.source = source;
+            this.values = values;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<ValidationError> compute() {
+            if (this.to - this.from <= THRESHOLD) {
+                List<ValidationError> errors = new ArrayList<>();
+                for (int i = this.from; i < this.to; i++) {
+                    PropertyRule<?> rule = rules[i];
+                    errors.addAll(rule.validate(this.source, this.values.get(rule.name())));
+                }
+                return errors;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            RulesTask left = new RulesTask(this.source, this.values, this.from, middle);
+            left.fork();
+            List<ValidationError> errors = new ArrayList<>(new RulesTask(this.source, this.values, middle, this.to).compute());
+            errors.addAll(0, left.join());
+            return errors;
+        }
+    }
+}
@@ -0,0 +1,360 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Immutable view of the configuration values at a given time.
+ * A snapshot is never modified once created, changing a value produces a new snapshot, so it can be read from any
+ * thread without synchronization once safely published.
+ * The values are kept in persistent maps: a new snapshot shares all the unchanged entries and most of the map
+ * structure with the one it is derived from, so old snapshots can be kept as a version history for the cost of their
+ * differences, and unchanged values keep their parsed forms.
+ * The raw values are kept to be stored, while the readers see the values with their placeholders resolved, see
+ * Interpolation. The placeholders are resolved when the snapshot is created, and only for the changed keys and their
+ * dependents when it is derived from another snapshot.
+ *
+ * @author Grégory Van den Borre
+ */
+final class ConfigurationSnapshot {
+
+    /**
+     * Raw configuration values.
+     */
+    private final PersistentMap<ConfigurationValue> values;
+
+    /**
+     * Configuration values with their placeholders resolved, the same map as values if there is no placeholder.
+     */
+    private final PersistentMap<ConfigurationValue> resolved;
+
+    private final Interpolation interpolation;
+
+    /**
+     * Resolved values indexed by the slot of their key, see ConfigKey, keys registered after this snapshot creation
+     * are not present and are looked up in the map.
+     */
+    private final ConfigurationValue[] slots;
+
+    /**
+     * Version assigned when the snapshot is published, 0 before.
+     */
+    private final long version;
+
+    private ConfigurationSnapshot(PersistentMap<ConfigurationValue> values, PersistentMap<ConfigurationValue> resolved,
+                                  Interpolation interpolation, ConfigurationValue[] slots, long version) {
+        super();
+        this.values = values;
+        this.resolved = resolved;
+        this.interpolation = interpolation;
+        this.slots = slots;
+        this.version = version;
+    }
+
+    /**
+     * Create a snapshot from a properties object, default values of the properties are included.
+     * @param properties Properties to copy.
+     * @return The created snapshot.
+     * @throws IllegalStateException If the placeholders contain a cycle.
+     */
+    static ConfigurationSnapshot of(Properties properties) {
+        return of(properties, Interpolation.EMPTY);
+    }
+
+    /**
+     * Create a snapshot from a properties object, resolving the placeholders with an interpolation.
+     */
+    static ConfigurationSnapshot of(Properties properties, Interpolation interpolation) {
+        Objects.requireNonNull(properties);
+        Set<String> keys = properties.stringPropertyNames();
+        PersistentMap<ConfigurationValue> values = PersistentMap.empty();
+        for (String key : keys) {
+            values = values.with(key, new ConfigurationValue(key, properties.getProperty(key)));
+        }
+        return derive(null, interpolation, values, keys);
+    }
+
+    /**
+     * Build a snapshot from new raw values, resolving only the changed keys and their dependents.
+     * @param previous Snapshot the values are derived from, null if none.
+     * @param interpolation Interpolation of the previous values.
+     * @param values New raw values.
+     * @param changed Keys added, removed or changed.
+     * @return The new snapshot.
+     */
+    private static ConfigurationSnapshot derive(ConfigurationSnapshot previous, Interpolation interpolation,
+                                                PersistentMap<ConfigurationValue> values, Collection<String> changed) {
+        Interpolation next = interpolation.update(values, changed);
+        PersistentMap<ConfigurationValue> resolved;
+        Collection<String> touched;
+        if (next.isEmpty()) {
+            resolved = values;
+            touched = changed;
+        } else {
+            Set<String> affected = next.affected(changed);
+            resolved = previous == null ? values : previous.resolved;
+            Map<String, String> texts = next.resolve(affected, values, resolved);
+            for (String key : affected) {
+                ConfigurationValue raw = values.get(key);
+                if (raw == null) {
+                    resolved = resolved.without(key);
+                } else if (next.isTemplate(key)) {
+                    String text = texts.get(key);
+                    ConfigurationValue current = resolved.get(key);
+                    if (current == null || !current.raw.equals(text)) {
+                        resolved = resolved.with(key, new ConfigurationValue(key, text));
+                    }
+                } else {
+                    resolved = resolved.with(key, raw);
+                }
+            }
+            touched = affected;
+        }
+        return new ConfigurationSnapshot(values, resolved, next, slots(previous, resolved, touched), 0);
+    }
+
+    /**
+     * Build the slots of a new snapshot, only the touched keys are looked up when there is a previous snapshot.
+     */
+    private static ConfigurationValue[] slots(ConfigurationSnapshot previous, PersistentMap<ConfigurationValue> resolved,
+                                              Collection<String> touched) {
+        String[] names = ConfigKeyRegistry.names();
+        int start = previous == null ? 0 : previous.slots.length;
+        ConfigurationValue[] result = previous == null
+                ? new ConfigurationValue[names.length]
+                : Arrays.copyOf(previous.slots, names.length);
+        for (int i = start; i < names.length; i++) {
+            result[i] = resolved.get(names[i]);
+        }
+        if (previous != null) {
+            for (String key : touched) {
+                int slot = ConfigKeyRegistry.find(key);
+                if (slot >= 0 && slot < start) {
+                    result[slot] = resolved.get(key);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Create a copy of this snapshot with a version, sharing all its content.
+     * @param version Version of the copy.
+     * @return The versioned copy.
+     */
+    ConfigurationSnapshot withVersion(long version) {
+        return new ConfigurationSnapshot(this.values, this.resolved, this.interpolation, this.slots, version);
+    }
+
+    /**
+     * @return The version of this snapshot, 0 if not published.
+     */
+    long version() {
+        return this.version;
+    }
+
+    /**
+     * Provide a value.
+     * @param key Key of the value.
+     * @return The resolved value matching the key, null if not found.
+     */
+    String get(String key) {
+        ConfigurationValue value = this.resolved.get(key);
+        return value == null ? null : value.raw;
+    }
+
+    /**
+     * Provide a value.
+     * @param key Key of the value.
+     * @param defaultValue Value to return if the key is not found.
+     * @return The resolved value matching the key, defaultValue if not found.
+     */
+    String get(String key, String defaultValue) {
+        ConfigurationValue value = this.resolved.get(key);
+        return value == null ? defaultValue : value.raw;
+    }
+
+    /**
+     * Provide a value as stored, without resolving its placeholders.
+     * @param key Key of the value.
+     * @return The raw value matching the key, null if not found.
+     */
+    String raw(String key) {
+        ConfigurationValue value = this.values.get(key);
+        return value == null ? null : value.raw;
+    }
+
+    /**
+     * Provide a value with its cached parsed forms.
+     * @param key Key of the value.
+     * @return The resolved value matching the key, null if not found.
+     */
+    ConfigurationValue value(String key) {
+        return this.resolved.get(key);
+    }
+
+    /**
+     * Provide a value from its compiled key.
+     * @param key Key of the value.
+     * @return The resolved value matching the key, null if not found.
+     */
+    ConfigurationValue value(ConfigKey<?> key) {
+        ConfigurationValue[] s = this.slots;
+        int slot = key.slot;
+        return slot < s.length ? s[slot] : this.resolved.get(key.name());
+    }
+
+    /**
+     * @return The keys of all the values.
+     */
+    Set<String> keys() {
+        Set<String> keys = new HashSet<>();
+        this.values.forEach((k, v) -> keys.add(k));
+        return keys;
+    }
+
+    /**
+     * Create a new snapshot with a value changed, this snapshot is not modified.
+     * @param key Key of the value to change.
+     * @param value New raw value.
+     * @return The new snapshot.
+     * @throws IllegalStateException If the new value creates a placeholder cycle.
+     */
+    ConfigurationSnapshot with(String key, String value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        ConfigurationValue current = this.values.get(key);
+        if (current != null && current.raw.equals(value)) {
+            return this;
+        }
+        return derive(this, this.interpolation, this.values.with(key, new ConfigurationValue(key, value)), Set.of(key));
+    }
+
+    /**
+     * Create a new snapshot with several values changed at once, this snapshot is not modified.
+     * @param changes New raw value by key, null to remove the key.
+     * @return The new snapshot, this one if no value changed.
+     * @throws IllegalStateException If the new values create a placeholder cycle.
+     */
+    ConfigurationSnapshot withAll(Map<String, String> changes) {
+        PersistentMap<ConfigurationValue> copy = this.values;
+        List<String> changed = new ArrayList<>();
+        for (Map.Entry<String, String> change : changes.entrySet()) {
+            String key = Objects.requireNonNull(change.getKey());
+            String value = change.getValue();
+            ConfigurationValue current = copy.get(key);
+            if (value == null) {
+                if (current != null) {
+                    copy = copy.without(key);
+                    changed.add(key);
+                }
+            } else if (current == null || !current.raw.equals(value)) {
+                copy = copy.with(key, new ConfigurationValue(key, value));
+                changed.add(key);
+            }
+        }
+        return changed.isEmpty() ? this : derive(this, this.interpolation, copy, changed);
+    }
+
+    /**
+     * Create a new snapshot containing exactly the given properties, this snapshot is not modified.
+     * The values that did not change are shared with this snapshot, so they keep their parsed forms.
+     * @param properties New raw content.
+     * @return The new snapshot, this one if the content is the same.
+     * @throws IllegalStateException If the placeholders contain a cycle.
+     */
+    ConfigurationSnapshot replace(Properties properties) {
+        Set<String> keys = properties.stringPropertyNames();
+        PersistentMap<ConfigurationValue> copy = this.values;
+        List<String> changed = new ArrayList<>();
+        for (String key : keys) {
+            String raw = properties.getProperty(key);
+            ConfigurationValue current = copy.get(key);
+            if (current == null || !current.raw.equals(raw)) {
+                copy = copy.with(key, new ConfigurationValue(key, raw));
+                changed.add(key);
+            }
+        }
+        List<String> removed = new ArrayList<>();
+        this.values.forEach((k, v) -> {
+            if (!keys.contains(k)) {
+                removed.add(k);
+            }
+        });
+        for (String key : removed) {
+            copy = copy.without(key);
+        }
+        changed.addAll(removed);
+        return changed.isEmpty() ? this : derive(this, this.interpolation, copy, changed);
+    }
+
+    /**
+     * Compute the keys whose resolved value differs between this snapshot and another one, a key is changed when
+     * a value it references changed.
+     * @param next Snapshot to compare with.
+     * @return The differences, with the resolved values of the next snapshot.
+     */
+    ConfigurationDiff diff(ConfigurationSnapshot next) {
+        return diff(this.resolved, next.resolved);
+    }
+
+    /**
+     * Compute the keys whose raw value differs between this snapshot and another one, to store the changes.
+     * @param next Snapshot to compare with.
+     * @return The differences, with the raw values of the next snapshot.
+     */
+    ConfigurationDiff rawDiff(ConfigurationSnapshot next) {
+        return diff(this.values, next.values);
+    }
+
+    /**
+     * Compare two maps, only the parts not shared by both are visited.
+     */
+    private static ConfigurationDiff diff(PersistentMap<ConfigurationValue> previous, PersistentMap<ConfigurationValue> next) {
+        if (previous == next) {
+            return ConfigurationDiff.empty();
+        }
+        Map<String, String> changes = new HashMap<>();
+        PersistentMap.diff(previous, next, (k, p, n) -> {
+            if (n == null) {
+                changes.put(k, null);
+            } else if (p == null || !p.raw.equals(n.raw)) {
+                changes.put(k, n.raw);
+            }
+        });
+        return changes.isEmpty() ? ConfigurationDiff.empty() : new ConfigurationDiff(changes);
+    }
+
+    /**
+     * Copy the raw values in a new properties object.
+     * @return The properties containing all the values of this snapshot, with their placeholders.
+     */
+    Properties toProperties() {
+        Properties properties = new Properties();
+        this.values.forEach((k, v) -> properties.setProperty(k, v.raw));
+        return properties;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import java.util.Set;
+
+/**
+ * A layer of configuration values, like default values, a file, the environment or the application arguments.
+ * Sources are stacked in a LayeredConfiguration, the value of a higher layer hides the values of the lower ones.
+ *
+ * @author Grégory Van den Borre
+ */
+public interface ConfigurationSource {
+
+    /**
+     * @return The name of this source, to report where a value comes from.
+     */
+    String getName();
+
+    /**
+     * Provide a value.
+     * @param key Key of the value.
+     * @return The value, null if this source does not define it.
+     */
+    String get(String key);
+
+    /**
+     * Provide the keys defined by this source.
+     * A source that can only override the values of other sources, like the environment, returns an empty set.
+     * @return The defined keys.
+     */
+    Set<String> getKeys();
+}
@@ -0,0 +1,204 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import be.yildizgames.common.configuration.parameter.ApplicationArgs;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Build the configuration sources.
+ * The environment, system properties and application arguments sources only override keys defined by other sources,
+ * they do not add the whole environment to the configuration.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class ConfigurationSources {
+
+    private ConfigurationSources() {
+        super();
+    }
+
+    /**
+     * Create a source from properties, the properties are copied.
+     * The values are kept as written, their placeholders are only resolved by the configuration using them.
+     * @param name Source name.
+     * @param properties Source values.
+     * @return The created source.
+     */
+    public static ConfigurationSource fromProperties(String name, Properties properties) {
+        Map<String, String> values = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            values.put(key, properties.getProperty(key));
+        }
+        return new PropertiesSource(name, values);
+    }
+
+    /**
+     * Create a source from a properties file, the file is read once, when calling this method.
+     * @param file File to read.
+     * @return The created source, named after the file.
+     * @throws IllegalStateException If the file cannot be read.
+     */
+    public static ConfigurationSource fromFile(Path file) {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new IllegalStateException("Error while reading property file: " + file.toAbsolutePath(), e);
+        }
+        return fromProperties(file.toString(), properties);
+    }
+
+    /**
+     * Create a source from a memory mapped properties file, for very large files.
+     * Only the keys are read when calling this method, the values are decoded on first access to the source.
+     * A LayeredConfiguration only decodes the values it is asked for, but a configuration loaded from it decodes all the
+     * values when it is created, the mapping then only avoids reading the whole file as text.
+     * @param file File to map.
+     * @return The created source, named after the file.
+     * @throws IllegalStateException If the file cannot be read.
+     */
+    public static ConfigurationSource fromMappedFile(Path file) {
+        return MappedPropertiesSource.map(file);
+    }
+
+    /**
+     * Create a source overriding values from the environment variables, the key 'database.host' is read from the
+     * variable 'DATABASE_HOST'.
+     * @return The created source.
+     */
+    public static ConfigurationSource fromEnvironment() {
+        return fromEnvironment("");
+    }
+
+    /**
+     * Create a source overriding values from the environment variables, with a prefix, with 'APP_' as prefix, the key
+     * 'database.host' is read from the variable 'APP_DATABASE_HOST'.
+     * @param prefix Prefix of the variables.
+     * @return The created source.
+     */
+    public static ConfigurationSource fromEnvironment(String prefix) {
+        Objects.requireNonNull(prefix);
+        return fromEnvironment(prefix, System.getenv());
+    }
+
+    static ConfigurationSource fromEnvironment(String prefix, Map<String, String> environment) {
+        return new OverrideSource("environment") {
+            @Override
+            public String get(String key) {
+                return environment.get(prefix + toVariableName(key));
+            }
+        };
+    }
+
+    /**
+     * Create a source overriding values from the system properties.
+     * @param prefix Prefix of the system properties, with 'app.' as prefix, the key 'database.host' is read from the
+     *               system property 'app.database.host'.
+     * @return The created source.
+     */
+    public static ConfigurationSource fromSystemProperties(String prefix) {
+        Objects.requireNonNull(prefix);
+        return new OverrideSource("system properties") {
+            @Override
+            public String get(String key) {
+                return System.getProperty(prefix + key);
+            }
+        };
+    }
+
+    /**
+     * Create a source overriding values from the application arguments, the argument 'database.host=localhost'
+     * overrides the key 'database.host'.
+     * @param args Application arguments.
+     * @return The created source.
+     */
+    public static ConfigurationSource fromArgs(ApplicationArgs args) {
+        Objects.requireNonNull(args);
+        return new OverrideSource("application arguments") {
+            @Override
+            public String get(String key) {
+                return args.getArg(key).orElse(null);
+            }
+        };
+    }
+
+    private static String toVariableName(String key) {
+        StringBuilder builder = new StringBuilder(key.length());
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            builder.append(Character.isLetterOrDigit(c) ? Character.toUpperCase(c) : '_');
+        }
+        return builder.toString();
+    }
+
+    private static final class PropertiesSource implements ConfigurationSource {
+
+        private final String name;
+
+        private final Map<String, String> values;
+
+        private PropertiesSource(String name, Map<String, String> values) {
+            super();
+            this.name = Objects.requireNonNull(name);
+            this.values = Map.copyOf(values);
+        }
+
+        @Override
+        public String getName() {
+            return this.name;
+        }
+
+        @Override
+        public String get(String key) {
+            return this.values.get(key);
+        }
+
+        @Override
+        public Set<String> getKeys() {
+            return this.values.keySet();
+        }
+    }
+
+    private abstract static class OverrideSource implements ConfigurationSource {
+
+        private final String name;
+
+        private OverrideSource(String name) {
+            super();
+            this.name = name;
+        }
+
+        @Override
+        public final String getName() {
+            return this.name;
+        }
+
+        @Override
+        public final Set<String> getKeys() {
+            return Set.of();
+        }
+    }
+}
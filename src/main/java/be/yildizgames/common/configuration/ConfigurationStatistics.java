@@ -0,0 +1,202 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics collecting the configuration activity in striped counters and histograms, to be read with JMX or directly.
+ * The same instance can be shared by a configuration and its retriever.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class ConfigurationStatistics implements ConfigurationMetrics, ConfigurationStatisticsMXBean {
+
+    private final Map<String, LongAdder> reads = new ConcurrentHashMap<>();
+
+    private final LatencyHistogram load = new LatencyHistogram();
+
+    private final LatencyHistogram store = new LatencyHistogram();
+
+    private final LatencyHistogram reload = new LatencyHistogram();
+
+    private final LongAdder listenerDispatches = new LongAdder();
+
+    private final LongAdder listenerFailures = new LongAdder();
+
+    private ObjectName objectName;
+
+    public ConfigurationStatistics() {
+        super();
+    }
+
+    /**
+     * Register these statistics in the platform MBean server.
+     * @param name Name of the configuration, to distinguish several configurations in the same JVM.
+     * @throws IllegalStateException If the registration failed, for example if the name is already used.
+     */
+    public synchronized void registerMBean(String name) {
+        Objects.requireNonNull(name);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName on = new ObjectName("be.yildizgames.common.configuration:type=Configuration,name=" + ObjectName.quote(name));
+            server.registerMBean(this, on);
+            this.objectName = on;
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register configuration statistics MBean: " + name, e);
+        }
+    }
+
+    /**
+     * Remove these statistics from the platform MBean server, does nothing if not registered.
+     */
+    public synchronized void unregisterMBean() {
+        if (this.objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.objectName);
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot unregister configuration statistics MBean: " + this.objectName, e);
+        } finally {
+            this.objectName = null;
+        }
+    }
+
+    @Override
+    public void onRead(String key) {
+        LongAdder counter = this.reads.get(key);
+        if (counter == null) {
+            counter = this.reads.computeIfAbsent(key, k -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    @Override
+    public void onLoad(long nanos) {
+        this.load.record(nanos);
+    }
+
+    @Override
+    public void onStore(long nanos) {
+        this.store.record(nanos);
+    }
+
+    @Override
+    public void onReload(long nanos, int changedKeys) {
+        this.reload.record(nanos);
+    }
+
+    @Override
+    public void onListenerDispatch(String key) {
+        this.listenerDispatches.increment();
+    }
+
+    @Override
+    public void onListenerFailure(String key, Throwable failure) {
+        this.listenerFailures.increment();
+    }
+
+    @Override
+    public Map<String, Long> getReadCounts() {
+        Map<String, Long> result = new HashMap<>();
+        this.reads.forEach((k, v) -> result.put(k, v.sum()));
+        return result;
+    }
+
+    /**
+     * Provide the number of reads of a key.
+     * @param key Key to check.
+     * @return The number of reads since creation or last reset.
+     */
+    public long getReadCount(String key) {
+        LongAdder counter = this.reads.get(key);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    @Override
+    public long getLoadCount() {
+        return this.load.count();
+    }
+
+    @Override
+    public long getLoadMeanNanos() {
+        return this.load.mean();
+    }
+
+    @Override
+    public long getLoadP99Nanos() {
+        return this.load.percentile(0.99);
+    }
+
+    @Override
+    public long getStoreCount() {
+        return this.store.count();
+    }
+
+    @Override
+    public long getStoreMeanNanos() {
+        return this.store.mean();
+    }
+
+    @Override
+    public long getStoreP99Nanos() {
+        return this.store.percentile(0.99);
+    }
+
+    @Override
+    public long getReloadCount() {
+        return this.reload.count();
+    }
+
+    @Override
+    public long getReloadMeanNanos() {
+        return this.reload.mean();
+    }
+
+    @Override
+    public long getReloadP99Nanos() {
+        return this.reload.percentile(0.99);
+    }
+
+    @Override
+    public long getListenerDispatchCount() {
+        return this.listenerDispatches.sum();
+    }
+
+    @Override
+    public long getListenerFailureCount() {
+        return this.listenerFailures.sum();
+    }
+
+    @Override
+    public void reset() {
+        this.reads.clear();
+        this.load.reset();
+        this.store.reset();
+        this.reload.reset();
+        this.listenerDispatches.reset();
+        this.listenerFailures.reset();
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import java.util.Map;
+
+/**
+ * JMX view of the configuration metrics collected by ConfigurationStatistics.
+ * Durations are in nanoseconds, percentiles are approximated.
+ *
+ * @author Grégory Van den Borre
+ */
+public interface ConfigurationStatisticsMXBean {
+
+    /**
+     * @return The number of reads, by key.
+     */
+    Map<String, Long> getReadCounts();
+
+    long getLoadCount();
+
+    long getLoadMeanNanos();
+
+    long getLoadP99Nanos();
+
+    long getStoreCount();
+
+    long getStoreMeanNanos();
+
+    long getStoreP99Nanos();
+
+    long getReloadCount();
+
+    long getReloadMeanNanos();
+
+    long getReloadP99Nanos();
+
+    long getListenerDispatchCount();
+
+    long getListenerFailureCount();
+
+    /**
+     * Reset all the metrics.
+     */
+    void reset();
+}
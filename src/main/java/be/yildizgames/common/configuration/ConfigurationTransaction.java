@@ -0,0 +1,63 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Changes to apply together to a configuration, see BaseConfiguration.update.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class ConfigurationTransaction {
+
+    /**
+     * New value by key, in the order they were set, setting a key twice keeps the last value.
+     */
+    private final Map<String, String> changes = new LinkedHashMap<>();
+
+    ConfigurationTransaction() {
+        super();
+    }
+
+    /**
+     * Set a value.
+     * @param key Key of the value.
+     * @param value New value.
+     * @return This transaction.
+     */
+    public ConfigurationTransaction set(String key, String value) {
+        this.changes.put(Objects.requireNonNull(key), Objects.requireNonNull(value));
+        return this;
+    }
+
+    /**
+     * Set a value.
+     * @param key Key of the value.
+     * @param value New value.
+     * @return This transaction.
+     */
+    public ConfigurationTransaction set(ConfigKey<?> key, String value) {
+        return this.set(key.name(), value);
+    }
+
+    Map<String, String> getChanges() {
+        return Collections.unmodifiableMap(this.changes);
+    }
+}
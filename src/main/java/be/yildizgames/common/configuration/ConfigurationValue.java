@@ -0,0 +1,270 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A configuration value, holding its raw text and the typed values parsed from it.
+ * Each typed form is parsed once, on first access, and then cached for the lifetime of the value.
+ * A value is immutable from the outside, the caches are idempotent: if two threads parse concurrently, they compute
+ * and publish the same result.
+ *
+ * @author Grégory Van den Borre
+ */
+final class ConfigurationValue {
+
+    /**
+     * Key of the value, only used for error messages.
+     */
+    final String key;
+
+    /**
+     * Raw text of the value.
+     */
+    final String raw;
+
+    private long longValue;
+
+    private volatile boolean longParsed;
+
+    private double doubleValue;
+
+    private volatile boolean doubleParsed;
+
+    private long sizeValue;
+
+    private volatile boolean sizeParsed;
+
+    /**
+     * 0 when not parsed, 1 for false, 2 for true.
+     */
+    private volatile byte booleanValue;
+
+    private volatile Duration durationValue;
+
+    private volatile List<String> listValue;
+
+    /**
+     * Other object values parsed, by enum type or converter, replaced as a whole when a value is added.
+     */
+    private volatile Map<Object, Object> converted = Map.of();
+
+    ConfigurationValue(String key, String raw) {
+        super();
+        this.key = Objects.requireNonNull(key);
+        this.raw = Objects.requireNonNull(raw);
+    }
+
+    int asInt() {
+        long value = this.asLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw this.invalid("int", null);
+        }
+        return (int) value;
+    }
+
+    long asLong() {
+        if (!this.longParsed) {
+            try {
+                this.longValue = Long.parseLong(this.raw.trim());
+            } catch (NumberFormatException e) {
+                throw this.invalid("long", e);
+            }
+            this.longParsed = true;
+        }
+        return this.longValue;
+    }
+
+    double asDouble() {
+        if (!this.doubleParsed) {
+            try {
+                this.doubleValue = Double.parseDouble(this.raw.trim());
+            } catch (NumberFormatException e) {
+                throw this.invalid("double", e);
+            }
+            this.doubleParsed = true;
+        }
+        return this.doubleValue;
+    }
+
+    boolean asBoolean() {
+        byte value = this.booleanValue;
+        if (value == 0) {
+            value = Boolean.parseBoolean(this.raw.trim()) ? (byte) 2 : (byte) 1;
+            this.booleanValue = value;
+        }
+        return value == 2;
+    }
+
+    /**
+     * Parse the value as a size in bytes, accepted suffixes are B, KB, MB, GB and TB (case insensitive), using 1024
+     * multiples. A value without suffix is in bytes.
+     * @return The size in bytes.
+     */
+    long asSize() {
+        if (!this.sizeParsed) {
+            this.sizeValue = this.parseSize();
+            this.sizeParsed = true;
+        }
+        return this.sizeValue;
+    }
+
+    /**
+     * Parse the value as a duration, accepted formats are ISO-8601 (PT10S) or a number followed by ms, s, m, h or d.
+     * A value without unit is in milliseconds.
+     * @return The parsed duration.
+     */
+    Duration asDuration() {
+        Duration value = this.durationValue;
+        if (value == null) {
+            value = this.parseDuration();
+            this.durationValue = value;
+        }
+        return value;
+    }
+
+    <E extends Enum<E>> E asEnum(Class<E> type) {
+        return type.cast(this.convert(type, v -> {
+            try {
+                return Enum.valueOf(type, v.raw.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw v.invalid(type.getSimpleName(), e);
+            }
+        }));
+    }
+
+    /**
+     * Parse the value as a comma separated list, each element is trimmed and empty elements are ignored.
+     * @return An immutable list of the elements.
+     */
+    List<String> asList() {
+        List<String> value = this.listValue;
+        if (value == null) {
+            value = this.parseList();
+            this.listValue = value;
+        }
+        return value;
+    }
+
+    /**
+     * Convert the value, the result is cached for the converter instance.
+     * @param converter Conversion to apply, expected to be a shared instance.
+     * @param <T> Converted type.
+     * @return The converted value.
+     */
+    @SuppressWarnings("unchecked")
+    <T> T as(Function<ConfigurationValue, T> converter) {
+        return (T) this.convert(converter, converter);
+    }
+
+    /**
+     * Convert the value once per kind of conversion, so reading the value as different types keeps every result.
+     * @param kind Kind of conversion, the enum type or the converter.
+     * @param conversion Conversion to apply when not cached yet.
+     * @return The converted value.
+     */
+    private Object convert(Object kind, Function<ConfigurationValue, ?> conversion) {
+        Map<Object, Object> current = this.converted;
+        Object value = current.get(kind);
+        if (value == null) {
+            value = conversion.apply(this);
+            if (value != null) {
+                Map<Object, Object> next = new HashMap<>(current);
+                next.put(kind, value);
+                this.converted = Map.copyOf(next);
+            }
+        }
+        return value;
+    }
+
+    private long parseSize() {
+        String value = this.raw.trim().toUpperCase(Locale.ROOT);
+        int end = value.length();
+        if (end > 0 && value.charAt(end - 1) == 'B') {
+            end--;
+        }
+        long multiplier = switch (end > 0 ? value.charAt(end - 1) : ' ') {
+            case 'K' -> 1L << 10;
+            case 'M' -> 1L << 20;
+            case 'G' -> 1L << 30;
+            case 'T' -> 1L << 40;
+            default -> 1L;
+        };
+        if (multiplier != 1L) {
+            end--;
+        }
+        try {
+            return Math.multiplyExact(Long.parseLong(value.substring(0, end).trim()), multiplier);
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw this.invalid("size", e);
+        }
+    }
+
+    private Duration parseDuration() {
+        String value = this.raw.trim();
+        try {
+            if (value.startsWith("P") || value.startsWith("p")) {
+                return Duration.parse(value);
+            }
+            int unitStart = value.length();
+            while (unitStart > 0 && Character.isLetter(value.charAt(unitStart - 1))) {
+                unitStart--;
+            }
+            long amount = Long.parseLong(value.substring(0, unitStart).trim());
+            return switch (value.substring(unitStart).toLowerCase(Locale.ROOT)) {
+                case "", "ms" -> Duration.ofMillis(amount);
+                case "s" -> Duration.ofSeconds(amount);
+                case "m" -> Duration.ofMinutes(amount);
+                case "h" -> Duration.ofHours(amount);
+                case "d" -> Duration.ofDays(amount);
+                default -> throw this.invalid("duration", null);
+            };
+        } catch (NumberFormatException | DateTimeParseException | ArithmeticException e) {
+            throw this.invalid("duration", e);
+        }
+    }
+
+    private List<String> parseList() {
+        List<String> result = new ArrayList<>();
+        int start = 0;
+        while (start <= this.raw.length()) {
+            int end = this.raw.indexOf(',', start);
+            if (end == -1) {
+                end = this.raw.length();
+            }
+            String element = this.raw.substring(start, end).trim();
+            if (!element.isEmpty()) {
+                result.add(element);
+            }
+            start = end + 1;
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private IllegalStateException invalid(String type, Exception cause) {
+        return new IllegalStateException("Invalid " + type + " value for configuration property '" + this.key + "': " + this.raw, cause);
+    }
+}
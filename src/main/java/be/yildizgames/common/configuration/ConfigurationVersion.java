@@ -0,0 +1,78 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Read only view of a past or current version of a configuration.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class ConfigurationVersion {
+
+    private final ConfigurationSnapshot snapshot;
+
+    ConfigurationVersion(ConfigurationSnapshot snapshot) {
+        super();
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * @return The version number.
+     */
+    public long version() {
+        return this.snapshot.version();
+    }
+
+    /**
+     * Provide a value of this version.
+     * @param key Key of the value.
+     * @return The value with its placeholders resolved, null if not found.
+     */
+    public String get(String key) {
+        return this.snapshot.get(key);
+    }
+
+    /**
+     * Provide a value of this version as stored.
+     * @param key Key of the value.
+     * @return The value with its placeholders, null if not found.
+     */
+    public String getRaw(String key) {
+        return this.snapshot.raw(key);
+    }
+
+    /**
+     * @return The keys of this version.
+     */
+    public Set<String> getKeys() {
+        return this.snapshot.keys();
+    }
+
+    /**
+     * @return The raw values of this version, in a new properties object.
+     */
+    public Properties toProperties() {
+        return this.snapshot.toProperties();
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigurationVersion " + this.snapshot.version();
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystem;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Watch many configuration files with a bounded number of threads.
+ * A single watch service and dispatcher thread are used per file system, whatever the number of watched files, the
+ * events are dispatched to the registrations by file name.
+ * Bursts of events are debounced by a single shared scheduler thread and the callbacks are run by the callback
+ * executor, by default one virtual thread per callback.
+ * Callbacks of the same registration are never run concurrently.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class ConfigurationWatchRegistry {
+
+    private static final System.Logger LOGGER = System.getLogger(ConfigurationWatchRegistry.class.getName());
+
+    private static final ConfigurationWatchRegistry DEFAULT = new ConfigurationWatchRegistry(Executors.newVirtualThreadPerTaskExecutor());
+
+    private final Executor callbackExecutor;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "configuration-watch-debounce"));
+
+    private final Map<FileSystem, Dispatcher> dispatchers = new ConcurrentHashMap<>();
+
+    /**
+     * Create a new registry.
+     * @param callbackExecutor Executor running the reload callbacks.
+     */
+    public ConfigurationWatchRegistry(Executor callbackExecutor) {
+        super();
+        this.callbackExecutor = Objects.requireNonNull(callbackExecutor);
+    }
+
+    /**
+     * @return The registry shared by the whole process, running the callbacks on virtual threads.
+     */
+    public static ConfigurationWatchRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Invoke a callback when the content of a file changed.
+     * @param file File to watch, its directory must exist.
+     * @param quietWindow Time without event to wait before checking the file content.
+     * @param callback Callback to invoke.
+     * @return The handle to stop watching the file.
+     * @throws IllegalStateException If the file directory cannot be watched.
+     */
+    public ConfigurationWatch watch(Path file, Duration quietWindow, Runnable callback) {
+        Path absolute = file.toAbsolutePath().normalize();
+        Registration registration = new Registration(absolute, quietWindow.toMillis(), Objects.requireNonNull(callback));
+        this.dispatchers.computeIfAbsent(absolute.getFileSystem(), this::createDispatcher).register(registration);
+        return registration;
+    }
+
+    private Dispatcher createDispatcher(FileSystem fileSystem) {
+        try {
+            return new Dispatcher(fileSystem.newWatchService());
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot create watch service", e);
+        }
+    }
+
+    private static Thread daemon(Runnable r, String name) {
+        Thread t = new Thread(r, name);
+        t.setDaemon(true);
+        return t;
+    }
+
+    /**
+     * Wait for the events of a watch service and forward them to the registrations.
+     */
+    private final class Dispatcher implements Runnable {
+
+        private final WatchService service;
+
+        /**
+         * Watched directories, by watch key.
+         */
+        private final Map<WatchKey, Map<Path, List<Registration>>> directories = new ConcurrentHashMap<>();
+
+        private Dispatcher(WatchService service) {
+            super();
+            this.service = service;
+            daemon(this, "configuration-watch-dispatcher").start();
+        }
+
+        private synchronized void register(Registration registration) {
+            WatchKey key;
+            try {
+                // The configuration is replaced atomically by a rename, which is reported as a creation.
+                key = registration.file.getParent().register(this.service, ENTRY_CREATE, ENTRY_MODIFY);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot watch " + registration.file, e);
+            }
+            this.directories.computeIfAbsent(key, k -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(registration.file.getFileName(), n -> new CopyOnWriteArrayList<>())
+                    .add(registration);
+            registration.dispatcher = this;
+            registration.key = key;
+        }
+
+        private synchronized void unregister(Registration registration) {
+            Map<Path, List<Registration>> files = this.directories.get(registration.key);
+            if (files == null) {
+                return;
+            }
+            List<Registration> registrations = files.get(registration.file.getFileName());
+            if (registrations != null) {
+                registrations.remove(registration);
+                if (registrations.isEmpty()) {
+                    files.remove(registration.file.getFileName());
+                }
+            }
+            if (files.isEmpty()) {
+                this.directories.remove(registration.key);
+                registration.key.cancel();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    WatchKey key = this.service.take();
+                    Map<Path, List<Registration>> files = this.directories.get(key);
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (files == null) {
+                            continue;
+                        }
+                        if (event.kind() == OVERFLOW) {
+                            files.values().forEach(l -> l.forEach(Registration::schedule));
+                        } else {
+                            List<Registration> registrations = files.get((Path) event.context());
+                            if (registrations != null) {
+                                registrations.forEach(Registration::schedule);
+                            }
+                        }
+                    }
+                    key.reset();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ClosedWatchServiceException e) {
+                // Service closed, nothing more to dispatch.
+            }
+        }
+    }
+
+    /**
+     * A watched file with its callback.
+     */
+    private final class Registration implements ConfigurationWatch {
+
+        private final Path file;
+
+        private final long quietWindowMillis;
+
+        private final Runnable callback;
+
+        private Dispatcher dispatcher;
+
+        private WatchKey key;
+
+        private FileFingerprint fingerprint;
+
+        private ScheduledFuture<?> pending;
+
+        private boolean closed;
+
+        private Registration(Path file, long quietWindowMillis, Runnable callback) {
+            super();
+            this.file = file;
+            this.quietWindowMillis = quietWindowMillis;
+            this.callback = callback;
+            this.fingerprint = FileFingerprint.of(file);
+        }
+
+        /**
+         * Check the file once no event was received during the quiet window.
+         */
+        private synchronized void schedule() {
+            if (this.closed) {
+                return;
+            }
+            if (this.pending != null) {
+                this.pending.cancel(false);
+            }
+            this.pending = scheduler.schedule(() -> callbackExecutor.execute(this::check), this.quietWindowMillis, TimeUnit.MILLISECONDS);
+        }
+
+        private synchronized void check() {
+            if (this.closed) {
+                return;
+            }
+            FileFingerprint next = this.fingerprint.refresh(this.file);
+            if (next == this.fingerprint) {
+                return;
+            }
+            this.fingerprint = next;
+            try {
+                this.callback.run();
+            } catch (RuntimeException e) {
+                LOGGER.log(System.Logger.Level.ERROR, "Error reloading " + this.file, e);
+            }
+        }
+
+        @Override
+        public void close() {
+            synchronized (this) {
+                if (this.closed) {
+                    return;
+                }
+                this.closed = true;
+                if (this.pending != null) {
+                    this.pending.cancel(false);
+                }
+            }
+            this.dispatcher.unregister(this);
+        }
+    }
+}
@@ -24,32 +24,84 @@ import java.io.Reader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * @author Grégory Van den Borre
  */
 class FileConfigurationRetriever implements ConfigurationRetriever {
 
+    /**
+     * Name of the default values source.
+     */
+    private static final String DEFAULTS = "defaults";
+
     private final PreLogger preLogger = new PreLogger();
 
     private final ConfigurationNotFoundStrategy notFoundStrategy;
+
+    /**
+     * True to read and write a binary snapshot next to the configuration file, see BinarySnapshot.
+     */
+    private final boolean useSnapshot;
+
+    /**
+     * True to read the configuration file through a memory mapping, see MappedPropertiesSource.
+     */
+    private final boolean mapped;
+
     private Path configPath;
 
     FileConfigurationRetriever(ConfigurationNotFoundStrategy strategy) {
+        this(strategy, false);
+    }
+
+    FileConfigurationRetriever(ConfigurationNotFoundStrategy strategy, boolean useSnapshot) {
+        this(strategy, useSnapshot, false);
+    }
+
+    FileConfigurationRetriever(ConfigurationNotFoundStrategy strategy, boolean useSnapshot, boolean mapped) {
         super();
         Objects.requireNonNull(strategy);
         this.notFoundStrategy = strategy;
+        this.useSnapshot = useSnapshot;
+        this.mapped = mapped;
     }
 
+    /**
+     * Load the values as retrieveLayers does, the values overridden by the application arguments are not written in
+     * the configuration file by the configuration using them, the file values are written instead.
+     * @param args Application arguments.
+     * @return The resolved values.
+     */
     @Override
     public Properties retrieveFromArgs(ApplicationArgs args) {
+        LayeredConfiguration stored = this.retrieveStoredLayers(args);
+        return OverriddenProperties.of(stored, stored.with(ConfigurationSources.fromArgs(args)));
+    }
+
+    /**
+     * Load the default values and the configuration file, the application arguments override the values of the file
+     * but are not persisted in it.
+     * @param args Application arguments.
+     * @return The defaults, file and application arguments layers.
+     */
+    @Override
+    public LayeredConfiguration retrieveLayers(ApplicationArgs args) {
+        return this.retrieveStoredLayers(args).with(ConfigurationSources.fromArgs(args));
+    }
+
+    /**
+     * Load the default values and the configuration file.
+     * @param args Application arguments.
+     * @return The defaults and file layers.
+     */
+    private LayeredConfiguration retrieveStoredLayers(ApplicationArgs args) {
         this.preLogger.info("Loading configuration file...");
         Optional<String> path = args.getArg(DefaultArgName.CONFIGURATION_FILE);
         if(path.isEmpty()) {
@@ -58,87 +110,207 @@ class FileConfigurationRetriever implements ConfigurationRetriever {
             this.configPath = defaultConfigFile;
             if(Files.notExists(defaultConfigFile)) {
                 this.preLogger.warn("Configuration file not found, default configuration file 'config/configuration.properties' was not found and no application arg provider with '" + DefaultArgName.CONFIGURATION_FILE + "' key");
-                return this.storeConfiguration(this.notFoundStrategy.notFound());
+                Properties defaults = this.notFoundStrategy.notFound();
+                sanitize(defaults);
+                this.storeConfiguration(defaults);
+                return LayeredConfiguration.of(ConfigurationSources.fromProperties(DEFAULTS, defaults));
             }
         }
-        Properties properties;
-        Properties result = new Properties();
-
         try {
             this.configPath = Paths.get(path.get());
-            properties = getPropertiesFromFile(this.configPath);
+            Optional<Properties> snapshot = this.readSnapshot();
+            Properties properties = snapshot.orElseGet(() -> this.readConfigFile(this.configPath));
             this.preLogger.info("Loading configuration file success.");
-            Properties[] p = {this.notFoundStrategy.getProperties(), properties};
-            Arrays.stream(p).forEach(result::putAll);
-            return this.storeConfiguration(result);
-            //FileReloadableConfiguration reloadableConfiguration = new FileReloadableConfiguration(this.configPath);
+            Properties defaults = new Properties();
+            defaults.putAll(this.notFoundStrategy.getProperties());
+            boolean sanitized = sanitize(defaults) | sanitize(properties);
+            Properties merged = new Properties();
+            merged.putAll(defaults);
+            merged.putAll(properties);
+            // Only rewrite the file when the defaults added values or some values were sanitized.
+            if (sanitized || !merged.equals(properties)) {
+                this.storeConfiguration(merged);
+            } else if (this.useSnapshot && snapshot.isEmpty()) {
+                this.writeSnapshot(properties);
+            }
+            return LayeredConfiguration.of(
+                    ConfigurationSources.fromProperties(DEFAULTS, defaults),
+                    ConfigurationSources.fromProperties(this.configPath.toString(), properties));
         } catch (IllegalStateException e) {
             this.preLogger.error("Configuration file not found", e);
-            return this.notFoundStrategy.notFound();
+            return LayeredConfiguration.of(ConfigurationSources.fromProperties(DEFAULTS, this.notFoundStrategy.notFound()));
         }
     }
 
-    private Properties storeConfiguration(final Properties result) {
-        try {
-            List<String> invalid = new ArrayList<>();
-            result.forEach((k, v) -> {
-                if(v.toString().contains("\t")
-                        || v.toString().contains("\r")
-                        || v.toString().contains("\n")
-                        || v.toString().contains("\b")
-                        || v.toString().contains("\f")
-                        || v.toString().contains("\\")
-                ) {
-                    invalid.add(k.toString());
+    /**
+     * Check the configuration files without writing them nor their snapshot.
+     * The files to check are the values of the configuration-check argument, or the configuration file if it has
+     * no value. Every file is loaded as it would be by retrieveLayers, with the default values and the application
+     * arguments, a missing file is an error.
+     * @param args Application arguments.
+     * @param schema Schema to check.
+     * @return The check result of all the files.
+     */
+    @Override
+    public ValidationReport check(ApplicationArgs args, ConfigurationSchema schema) {
+        List<Path> files = new ArrayList<>();
+        args.getArgValues(DefaultArgName.CONFIGURATION_CHECK).stream()
+                .filter(v -> !v.isBlank())
+                .forEach(v -> files.add(Paths.get(v.trim())));
+        if (files.isEmpty()) {
+            files.add(Paths.get(args.getArg(DefaultArgName.CONFIGURATION_FILE).orElse("config/configuration.properties")));
+        }
+        Properties defaults = new Properties();
+        defaults.putAll(this.notFoundStrategy.getProperties());
+        sanitize(defaults);
+        ConfigurationSource defaultsSource = ConfigurationSources.fromProperties(DEFAULTS, defaults);
+        ConfigurationSource argsSource = ConfigurationSources.fromArgs(args);
+        List<ConfigurationSchema.Input> inputs = new ArrayList<>(files.size());
+        for (Path file : files) {
+            inputs.add(new ConfigurationSchema.Input(file.toString(), () -> {
+                if (Files.notExists(file)) {
+                    throw new IllegalStateException("Configuration file not found: " + file.toAbsolutePath());
                 }
-                    });
-            invalid.forEach(k -> {
-                String v = result.getProperty(k);
-                result.setProperty(k, v
-                        .replace("\t", "/t")
-                        .replace("\r", "/r")
-                        .replace("\n", "/n")
-                        .replace("\b", "/b")
-                        .replace("\f", "/f")
-                        .replace("\\", "/")
-                );
-            });
-            Path dir = Path.of("config");
-            if(Files.notExists(dir) || !Files.isDirectory(dir)) {
-                Files.createDirectory(dir);
+                Properties properties = this.readConfigFile(file);
+                sanitize(properties);
+                return LayeredConfiguration.of(defaultsSource, ConfigurationSources.fromProperties(file.toString(), properties), argsSource);
+            }));
+        }
+        return schema.validate(inputs, ForkJoinPool.commonPool());
+    }
+
+    private void storeConfiguration(final Properties result) {
+        try {
+            Path dir = this.configPath.toAbsolutePath().getParent();
+            if(dir != null && Files.notExists(dir)) {
+                Files.createDirectories(dir);
             }
-            result.store(Files.newBufferedWriter(this.configPath,
-                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE), "Properties");
+            AtomicPropertiesWriter.write(this.configPath, result, "Properties", false);
         } catch (IOException e) {
             this.preLogger.error("Error writing configuration file", e);
+            return;
+        }
+        if (this.useSnapshot) {
+            this.writeSnapshot(result);
         }
-        return result;
+    }
+
+    /**
+     * Read the binary snapshot of the configuration file, if enabled.
+     * @return The snapshot content, empty if disabled, missing, stale or corrupted, the text file must then be read.
+     */
+    private Optional<Properties> readSnapshot() {
+        if (!this.useSnapshot) {
+            return Optional.empty();
+        }
+        try {
+            Optional<Properties> result = BinarySnapshot.read(this.configPath);
+            if (result.isEmpty()) {
+                this.preLogger.info("Configuration snapshot missing or outdated, loading text file.");
+            }
+            return result;
+        } catch (IOException e) {
+            this.preLogger.warn("Error reading configuration snapshot, loading text file: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void writeSnapshot(Properties properties) {
+        try {
+            BinarySnapshot.write(this.configPath, properties);
+        } catch (IOException e) {
+            this.preLogger.warn("Error writing configuration snapshot: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replace the escape characters in the values, as they would be altered when writing and reading the file.
+     * @param properties Properties to sanitize, modified by this function.
+     * @return True if at least one value was modified.
+     */
+    private static boolean sanitize(final Properties properties) {
+        boolean modified = false;
+        for (String key : properties.stringPropertyNames()) {
+            String value = properties.getProperty(key);
+            String sanitized = sanitize(value);
+            if (sanitized != value) {
+                properties.setProperty(key, sanitized);
+                modified = true;
+            }
+        }
+        return modified;
+    }
+
+    /**
+     * Replace the escape characters of a value in a single pass.
+     * @param value Value to sanitize.
+     * @return The same instance if there is nothing to replace, a new sanitized value otherwise.
+     */
+    static String sanitize(final String value) {
+        StringBuilder builder = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String replacement = switch (c) {
+                case '\t' -> "/t";
+                case '\r' -> "/r";
+                case '\n' -> "/n";
+                case '\b' -> "/b";
+                case '\f' -> "/f";
+                case '\\' -> "/";
+                default -> null;
+            };
+            if (replacement != null) {
+                if (builder == null) {
+                    builder = new StringBuilder(value.length() + 8).append(value, 0, i);
+                }
+                builder.append(replacement);
+            } else if (builder != null) {
+                builder.append(c);
+            }
+        }
+        return builder == null ? value : builder.toString();
     }
 
     @Override
     public final void onReload(ConfigurationReloadedBehavior behavior) {
-        Optional.ofNullable(configPath)
-                .ifPresent(path -> new FileReloadableConfiguration(this.configPath, behavior).inspect());
+        this.watch(behavior);
+    }
+
+    @Override
+    public final ConfigurationWatch watch(ConfigurationReloadedBehavior behavior) {
+        if (this.configPath == null) {
+            return () -> {};
+        }
+        FileReloadableConfiguration watch = new FileReloadableConfiguration(this.configPath, behavior);
+        watch.inspect();
+        return watch;
+    }
+
+    /**
+     * Read a configuration file, through a memory mapping if enabled.
+     * @param file File to read.
+     * @return The file content.
+     * @throws IllegalStateException If the file cannot be read.
+     */
+    private Properties readConfigFile(final Path file) {
+        if (!this.mapped) {
+            return getPropertiesFromFile(file);
+        }
+        ConfigurationSource source = MappedPropertiesSource.map(file);
+        Properties properties = new Properties();
+        for (String key : source.getKeys()) {
+            properties.setProperty(key, source.get(key));
+        }
+        return properties;
     }
 
-    private static Properties getPropertiesFromFile(final Path file, final String... args) {
+    private static Properties getPropertiesFromFile(final Path file) {
         final Properties properties = new Properties();
         try (Reader reader = Files.newBufferedReader(file)) {
             properties.load(reader);
         } catch (IOException ioe) {
             throw new IllegalStateException("Error while reading property file: " + file.toAbsolutePath().toString(), ioe);
         }
-        if (args == null) {
-            return properties;
-        }
-        for (String pair : args) {
-            if (pair != null && pair.contains("=")) {
-                String[] values = pair.split("=");
-                if (properties.containsKey(values[0])) {
-                    properties.setProperty(values[0], values[1]);
-                }
-            }
-        }
         return properties;
     }
 }
@@ -0,0 +1,91 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32C;
+
+/**
+ * Identify the content of a file by its size and content hash.
+ *
+ * @author Grégory Van den Borre
+ */
+final class FileFingerprint {
+
+    /**
+     * Fingerprint of a missing or unreadable file.
+     */
+    static final FileFingerprint MISSING = new FileFingerprint(-1, -1);
+
+    private final long size;
+
+    private final long hash;
+
+    private FileFingerprint(long size, long hash) {
+        super();
+        this.size = size;
+        this.hash = hash;
+    }
+
+    /**
+     * Compute the fingerprint of a file.
+     * @param file File to read.
+     * @return The file fingerprint, MISSING if the file cannot be read.
+     */
+    static FileFingerprint of(Path file) {
+        try {
+            return new FileFingerprint(Files.size(file), hash(file));
+        } catch (IOException e) {
+            return MISSING;
+        }
+    }
+
+    /**
+     * Compute the fingerprint of the file if it changed.
+     * The content is always hashed, an unchanged modification time does not prove an unchanged content, as a same size
+     * rewrite can happen within the file system timestamp granularity. A file touched without content change keeps its
+     * fingerprint.
+     * @param file File to read.
+     * @return This instance if the content is unchanged or the file is missing, a new fingerprint otherwise.
+     */
+    FileFingerprint refresh(Path file) {
+        try {
+            long newSize = Files.size(file);
+            long newHash = hash(file);
+            if (newSize == this.size && newHash == this.hash) {
+                return this;
+            }
+            return new FileFingerprint(newSize, newHash);
+        } catch (IOException e) {
+            return this;
+        }
+    }
+
+    private static long hash(Path file) throws IOException {
+        CRC32C crc = new CRC32C();
+        byte[] buffer = new byte[8192];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+            }
+        }
+        return crc.getValue();
+    }
+}
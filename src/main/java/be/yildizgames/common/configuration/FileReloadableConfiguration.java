@@ -15,66 +15,94 @@
 
 package be.yildizgames.common.configuration;
 
-import java.io.IOException;
-import java.nio.file.FileSystems;
 import java.nio.file.Path;
-import java.nio.file.WatchEvent;
-import java.nio.file.WatchKey;
-import java.nio.file.WatchService;
-
-import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
+ * Watch a configuration file and invoke a behavior when its content changed.
+ * Only the events for the watched file are considered, a burst of events, as produced by an editor saving the file,
+ * triggers a single reload once no event was received during the quiet window.
+ * The reload is skipped if the file content did not change.
+ * The file is watched through a ConfigurationWatchRegistry, so watching many files does not create more threads.
+ *
  * @author Grégory Van den Borre
  */
-public class FileReloadableConfiguration {
+public class FileReloadableConfiguration implements ConfigurationWatch {
+
+    /**
+     * Default time without event to wait before reloading.
+     */
+    public static final Duration DEFAULT_QUIET_WINDOW = Duration.ofMillis(200);
 
     private final Path path;
 
     private final ConfigurationReloadedBehavior behavior;
 
+    private final Duration quietWindow;
+
+    private final ConfigurationWatchRegistry registry;
+
+    private final AtomicInteger reloaded = new AtomicInteger();
+
+    private volatile boolean closed;
+
+    private volatile ConfigurationWatch watch;
+
     public FileReloadableConfiguration(Path configPath, ConfigurationReloadedBehavior behavior) {
-        super();
-        this.path = configPath;
-        this.behavior = behavior;
+        this(configPath, behavior, DEFAULT_QUIET_WINDOW);
     }
 
-    void inspect() {
-        inspect(Integer.MAX_VALUE);
+    public FileReloadableConfiguration(Path configPath, ConfigurationReloadedBehavior behavior, Duration quietWindow) {
+        this(configPath, behavior, quietWindow, ConfigurationWatchRegistry.getDefault());
     }
 
-    void inspect(int max) {
-        new Thread(new Reloader(max)).start();
+    public FileReloadableConfiguration(Path configPath, ConfigurationReloadedBehavior behavior, Duration quietWindow, ConfigurationWatchRegistry registry) {
+        super();
+        this.path = configPath.toAbsolutePath();
+        this.behavior = Objects.requireNonNull(behavior);
+        this.quietWindow = Objects.requireNonNull(quietWindow);
+        this.registry = Objects.requireNonNull(registry);
     }
 
-    private class Reloader implements Runnable {
-
-        private final int max;
+    void inspect() {
+        inspect(Integer.MAX_VALUE);
+    }
 
-        public Reloader(int max) {
-            this.max = max;
+    /**
+     * Start watching the file.
+     * @param max Maximum number of reloads before stopping.
+     */
+    synchronized void inspect(int max) {
+        if (this.watch != null) {
+            throw new IllegalStateException("Already inspecting " + this.path);
         }
-
-        @Override
-        public void run() {
-            try {
-                int current = 0;
-                WatchService watcher = FileSystems.getDefault().newWatchService();
-                path.getParent().register(watcher, ENTRY_MODIFY);
-                try {
-                    WatchKey key;
-                    while (current < this.max && (key = watcher.take()) != null) {
-                        for (WatchEvent<?> event : key.pollEvents()) {
-                            behavior.reload();
-                        }
-                        key.reset();
-                        current++;
-                    }
-                } catch (InterruptedException x) {
+        if (this.closed) {
+            return;
+        }
+        this.watch = this.registry.watch(this.path, this.quietWindow, () -> {
+            if (this.reloaded.get() < max) {
+                this.behavior.reload();
+                if (this.reloaded.incrementAndGet() >= max) {
+                    this.close();
                 }
-            } catch(IOException e){
-                e.printStackTrace();
             }
+        });
+        if (this.closed) {
+            this.watch.close();
+        }
+    }
+
+    /**
+     * Stop watching the file, a reload in progress is completed.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        ConfigurationWatch w = this.watch;
+        if (w != null) {
+            w.close();
         }
     }
 }
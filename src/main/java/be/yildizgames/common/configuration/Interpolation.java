@@ -0,0 +1,331 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * Compiled placeholders of a configuration snapshot.
+ * A value can contain ${other.key}, ${env:VARIABLE} and ${sys:property} placeholders, replaced by the value of the
+ * other key, environment variable or system property. $${ is a literal ${. A placeholder that cannot be resolved is
+ * kept as is.
+ * Only the values containing placeholders are parsed, once, into templates, and the reverse references are kept as a
+ * dependency graph: when keys change, only the templates depending on them, directly or not, are resolved again.
+ * An instance is immutable, an update produces a new instance sharing the unchanged templates.
+ *
+ * @author Grégory Van den Borre
+ */
+final class Interpolation {
+
+    static final Interpolation EMPTY = new Interpolation(Map.of(), Map.of(), System::getenv, System::getProperty);
+
+    private static final String START = "${";
+
+    private static final String ENV = "env:";
+
+    private static final String SYS = "sys:";
+
+    /**
+     * Template by key, only for the values containing placeholders.
+     */
+    private final Map<String, Template> templates;
+
+    /**
+     * Keys of the templates referencing a key, by referenced key.
+     */
+    private final Map<String, Set<String>> dependents;
+
+    private final UnaryOperator<String> environment;
+
+    private final UnaryOperator<String> system;
+
+    private Interpolation(Map<String, Template> templates, Map<String, Set<String>> dependents,
+                          UnaryOperator<String> environment, UnaryOperator<String> system) {
+        super();
+        this.templates = templates;
+        this.dependents = dependents;
+        this.environment = environment;
+        this.system = system;
+    }
+
+    /**
+     * Create an empty interpolation reading the environment and system properties from the given functions.
+     */
+    static Interpolation of(UnaryOperator<String> environment, UnaryOperator<String> system) {
+        return new Interpolation(Map.of(), Map.of(), environment, system);
+    }
+
+    /**
+     * @return True if no value contains placeholders.
+     */
+    boolean isEmpty() {
+        return this.templates.isEmpty();
+    }
+
+    /**
+     * @param key Key to check.
+     * @return True if the value of the key contains placeholders.
+     */
+    boolean isTemplate(String key) {
+        return this.templates.containsKey(key);
+    }
+
+    /**
+     * Compile the changed values.
+     * @param values Raw values, after the changes.
+     * @param changed Keys added, removed or whose raw value changed.
+     * @return The updated interpolation, this one if no template was added nor removed.
+     */
+    Interpolation update(PersistentMap<ConfigurationValue> values, Collection<String> changed) {
+        Map<String, Template> t = null;
+        Map<String, Set<String>> d = null;
+        for (String key : changed) {
+            ConfigurationValue value = values.get(key);
+            Template previous = this.templates.get(key);
+            Template next = value == null ? null : Template.parse(value.raw);
+            if (previous == null && next == null) {
+                continue;
+            }
+            if (t == null) {
+                t = new HashMap<>(this.templates);
+                d = new HashMap<>(this.dependents);
+            }
+            if (previous != null) {
+                t.remove(key);
+                for (String reference : previous.keys()) {
+                    Set<String> set = new HashSet<>(d.get(reference));
+                    set.remove(key);
+                    if (set.isEmpty()) {
+                        d.remove(reference);
+                    } else {
+                        d.put(reference, set);
+                    }
+                }
+            }
+            if (next != null) {
+                t.put(key, next);
+                for (String reference : next.keys()) {
+                    Set<String> set = new HashSet<>(d.getOrDefault(reference, Set.of()));
+                    set.add(key);
+                    d.put(reference, set);
+                }
+            }
+        }
+        return t == null ? this : new Interpolation(t, d, this.environment, this.system);
+    }
+
+    /**
+     * Compute the keys to resolve again after some keys changed.
+     * @param changed Changed keys.
+     * @return The changed keys and all the keys depending on them, directly or not.
+     */
+    Set<String> affected(Collection<String> changed) {
+        Set<String> result = new HashSet<>(changed);
+        if (this.dependents.isEmpty()) {
+            return result;
+        }
+        Deque<String> queue = new ArrayDeque<>(changed);
+        while (!queue.isEmpty()) {
+            for (String dependent : this.dependents.getOrDefault(queue.poll(), Set.of())) {
+                if (result.add(dependent)) {
+                    queue.add(dependent);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Resolve the templates of some keys.
+     * @param keys Keys to resolve, the keys without template are ignored.
+     * @param values Raw values.
+     * @param resolved Resolved values of the keys not to resolve again, only read for template keys.
+     * @return The resolved value of every template key in keys.
+     * @throws IllegalStateException If the placeholders contain a cycle.
+     */
+    Map<String, String> resolve(Set<String> keys, PersistentMap<ConfigurationValue> values, PersistentMap<ConfigurationValue> resolved) {
+        Map<String, String> result = new HashMap<>();
+        Set<String> visiting = new LinkedHashSet<>();
+        for (String key : keys) {
+            if (this.templates.containsKey(key)) {
+                this.resolve(key, keys, values, resolved, result, visiting);
+            }
+        }
+        return result;
+    }
+
+    private String resolve(String key, Set<String> keys, PersistentMap<ConfigurationValue> values,
+                           PersistentMap<ConfigurationValue> resolved, Map<String, String> result, Set<String> visiting) {
+        String done = result.get(key);
+        if (done != null) {
+            return done;
+        }
+        if (!visiting.add(key)) {
+            List<String> cycle = new ArrayList<>(visiting);
+            cycle = cycle.subList(cycle.indexOf(key), cycle.size());
+            throw new IllegalStateException("Circular placeholder reference: " + String.join(" -> ", cycle) + " -> " + key);
+        }
+        Template template = this.templates.get(key);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < template.parts.length; i++) {
+            String part = template.parts[i];
+            String value = switch (template.kinds[i]) {
+                case Template.LITERAL -> part;
+                case Template.ENV -> this.environment.apply(part);
+                case Template.SYS -> this.system.apply(part);
+                default -> {
+                    if (this.templates.containsKey(part)) {
+                        if (keys.contains(part)) {
+                            yield this.resolve(part, keys, values, resolved, result, visiting);
+                        }
+                        ConfigurationValue current = resolved.get(part);
+                        yield current == null ? null : current.raw;
+                    }
+                    ConfigurationValue current = values.get(part);
+                    yield current == null ? null : current.raw;
+                }
+            };
+            builder.append(value == null ? template.placeholder(i) : value);
+        }
+        visiting.remove(key);
+        String value = builder.toString();
+        result.put(key, value);
+        return value;
+    }
+
+    /**
+     * A value split in literal parts and placeholders.
+     */
+    private static final class Template {
+
+        private static final byte LITERAL = 0;
+
+        private static final byte KEY = 1;
+
+        private static final byte ENV = 2;
+
+        private static final byte SYS = 3;
+
+        /**
+         * Literal text or placeholder name, without prefix.
+         */
+        private final String[] parts;
+
+        private final byte[] kinds;
+
+        private Template(String[] parts, byte[] kinds) {
+            super();
+            this.parts = parts;
+            this.kinds = kinds;
+        }
+
+        /**
+         * Parse a raw value.
+         * @param raw Raw value.
+         * @return The template, null if the value has no placeholder.
+         */
+        private static Template parse(String raw) {
+            int start = raw.indexOf(START);
+            if (start == -1) {
+                return null;
+            }
+            List<String> parts = new ArrayList<>();
+            List<Byte> kinds = new ArrayList<>();
+            StringBuilder literal = new StringBuilder();
+            boolean placeholder = false;
+            int position = 0;
+            while (start != -1) {
+                int end = raw.indexOf('}', start + 2);
+                if (end == -1) {
+                    break;
+                }
+                if (start > 0 && raw.charAt(start - 1) == '$') {
+                    literal.append(raw, position, start - 1).append(START);
+                    position = start + 2;
+                } else {
+                    literal.append(raw, position, start);
+                    if (!literal.isEmpty()) {
+                        parts.add(literal.toString());
+                        kinds.add(LITERAL);
+                        literal.setLength(0);
+                    }
+                    String name = raw.substring(start + 2, end);
+                    if (name.startsWith(Interpolation.ENV)) {
+                        parts.add(name.substring(Interpolation.ENV.length()));
+                        kinds.add(ENV);
+                    } else if (name.startsWith(Interpolation.SYS)) {
+                        parts.add(name.substring(Interpolation.SYS.length()));
+                        kinds.add(SYS);
+                    } else {
+                        parts.add(name);
+                        kinds.add(KEY);
+                    }
+                    placeholder = true;
+                    position = end + 1;
+                }
+                start = raw.indexOf(START, position);
+            }
+            literal.append(raw, position, raw.length());
+            if (!literal.isEmpty()) {
+                parts.add(literal.toString());
+                kinds.add(LITERAL);
+            }
+            if (!placeholder && literal.toString().equals(raw)) {
+                return null;
+            }
+            byte[] k = new byte[kinds.size()];
+            for (int i = 0; i < k.length; i++) {
+                k[i] = kinds.get(i);
+            }
+            return new Template(parts.toArray(String[]::new), k);
+        }
+
+        /**
+         * @return The referenced keys, without duplicates.
+         */
+        private Set<String> keys() {
+            Set<String> result = new HashSet<>(4);
+            for (int i = 0; i < this.parts.length; i++) {
+                if (this.kinds[i] == KEY) {
+                    result.add(this.parts[i]);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * @return The original text of a placeholder, used when it cannot be resolved.
+         */
+        private String placeholder(int index) {
+            String prefix = switch (this.kinds[index]) {
+                case ENV -> Interpolation.ENV;
+                case SYS -> Interpolation.SYS;
+                default -> "";
+            };
+            return START + prefix + this.parts[index] + "}";
+        }
+    }
+}
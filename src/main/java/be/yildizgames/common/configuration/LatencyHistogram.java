@@ -0,0 +1,100 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations with power of two buckets, recording only increments striped counters.
+ * The percentiles are approximated by the upper bound of their bucket, so they are at most twice the real value.
+ *
+ * @author Grégory Van den Borre
+ */
+final class LatencyHistogram {
+
+    private final LongAdder[] buckets = new LongAdder[Long.SIZE + 1];
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder total = new LongAdder();
+
+    private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+    LatencyHistogram() {
+        super();
+        for (int i = 0; i < this.buckets.length; i++) {
+            this.buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Record a duration.
+     * @param nanos Duration, in nanoseconds, negative values are recorded as 0.
+     */
+    void record(long nanos) {
+        long value = Math.max(0, nanos);
+        this.buckets[Long.SIZE - Long.numberOfLeadingZeros(value)].increment();
+        this.count.increment();
+        this.total.add(value);
+        this.max.accumulate(value);
+    }
+
+    long count() {
+        return this.count.sum();
+    }
+
+    long mean() {
+        long c = this.count.sum();
+        return c == 0 ? 0 : this.total.sum() / c;
+    }
+
+    long max() {
+        return this.max.get();
+    }
+
+    /**
+     * Approximate a percentile.
+     * @param percentile Percentile, between 0 and 1.
+     * @return The upper bound of the bucket containing the percentile, 0 if nothing was recorded.
+     */
+    long percentile(double percentile) {
+        long[] counts = new long[this.buckets.length];
+        long c = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = this.buckets[i].sum();
+            c += counts[i];
+        }
+        long target = (long) Math.ceil(c * percentile);
+        long cumulated = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulated += counts[i];
+            if (cumulated >= target && cumulated > 0) {
+                return Math.min(i == 0 ? 0 : i == Long.SIZE ? Long.MAX_VALUE : (1L << i) - 1, this.max.get());
+            }
+        }
+        return 0;
+    }
+
+    void reset() {
+        for (LongAdder bucket : this.buckets) {
+            bucket.reset();
+        }
+        this.count.reset();
+        this.total.reset();
+        this.max.reset();
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stack of configuration sources ordered by precedence, a value defined in a source hides the values of the sources
+ * below it.
+ * The sources are not copied nor merged: a key is resolved, on first access, by asking the sources from the highest
+ * to the lowest, and the resolution is then cached.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class LayeredConfiguration {
+
+    /**
+     * Marker for the keys defined by none of the sources.
+     */
+    private static final ResolvedValue MISSING = new ResolvedValue("", "", "");
+
+    /**
+     * Sources, from the lowest to the highest precedence.
+     */
+    private final List<ConfigurationSource> sources;
+
+    private final Map<String, ResolvedValue> resolved = new ConcurrentHashMap<>();
+
+    private volatile Set<String> keys;
+
+    private LayeredConfiguration(List<ConfigurationSource> sources) {
+        super();
+        this.sources = List.copyOf(sources);
+    }
+
+    /**
+     * Create a new layered configuration.
+     * @param sources Sources, from the lowest to the highest precedence.
+     * @return The created configuration.
+     */
+    public static LayeredConfiguration of(ConfigurationSource... sources) {
+        return new LayeredConfiguration(List.of(sources));
+    }
+
+    /**
+     * Create a new configuration with an additional source on top of the existing ones.
+     * @param source Source to add, with the highest precedence.
+     * @return The created configuration, this one is not modified.
+     */
+    public LayeredConfiguration with(ConfigurationSource source) {
+        Objects.requireNonNull(source);
+        List<ConfigurationSource> list = new ArrayList<>(this.sources);
+        list.add(source);
+        return new LayeredConfiguration(list);
+    }
+
+    /**
+     * @return The sources, from the lowest to the highest precedence.
+     */
+    public List<ConfigurationSource> getSources() {
+        return this.sources;
+    }
+
+    /**
+     * Provide a value.
+     * @param key Key of the value.
+     * @return The value from the highest source defining it, null if none does.
+     */
+    public String get(String key) {
+        ResolvedValue value = this.lookup(key);
+        return value == MISSING ? null : value.value();
+    }
+
+    /**
+     * Provide a value with the source it comes from.
+     * @param key Key of the value.
+     * @return The resolved value, empty if no source defines it.
+     */
+    public Optional<ResolvedValue> resolve(String key) {
+        ResolvedValue value = this.lookup(key);
+        return value == MISSING ? Optional.empty() : Optional.of(value);
+    }
+
+    /**
+     * @return The keys defined by at least one source.
+     */
+    public Set<String> getKeys() {
+        Set<String> result = this.keys;
+        if (result == null) {
+            Set<String> all = new HashSet<>();
+            this.sources.forEach(s -> all.addAll(s.getKeys()));
+            result = Collections.unmodifiableSet(all);
+            this.keys = result;
+        }
+        return result;
+    }
+
+    /**
+     * Resolve all the keys in a new properties object.
+     * @return The properties with the resolved values.
+     */
+    public Properties toProperties() {
+        Properties properties = new Properties();
+        for (String key : this.getKeys()) {
+            properties.setProperty(key, this.get(key));
+        }
+        return properties;
+    }
+
+    private ResolvedValue lookup(String key) {
+        ResolvedValue value = this.resolved.get(key);
+        if (value == null) {
+            value = MISSING;
+            for (int i = this.sources.size() - 1; i >= 0; i--) {
+                ConfigurationSource source = this.sources.get(i);
+                String raw = source.get(key);
+                if (raw != null) {
+                    value = new ResolvedValue(key, raw, source.getName());
+                    break;
+                }
+            }
+            this.resolved.put(key, value);
+        }
+        return value;
+    }
+}
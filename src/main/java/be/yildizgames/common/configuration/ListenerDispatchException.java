@@ -0,0 +1,52 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import java.util.List;
+
+/**
+ * Thrown when one or more listeners failed while being notified of a configuration change.
+ * The first listener failure is the cause, the following ones are suppressed exceptions, the other listeners were
+ * still notified.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class ListenerDispatchException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ListenerDispatchException(String message, List<Throwable> failures) {
+        super(message + ": " + failures.size() + " failure(s)", failures.isEmpty() ? null : failures.get(0));
+        for (int i = 1; i < failures.size(); i++) {
+            this.addSuppressed(failures.get(i));
+        }
+    }
+
+    /**
+     * @return The failures of the listeners.
+     */
+    public List<Throwable> getFailures() {
+        Throwable first = this.getCause();
+        if (first == null) {
+            return List.of();
+        }
+        Throwable[] others = this.getSuppressed();
+        Throwable[] failures = new Throwable[others.length + 1];
+        failures[0] = first;
+        System.arraycopy(others, 0, failures, 1, others.length);
+        return List.of(failures);
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Configuration source reading a properties file through a memory mapping.
+ * Loading only scans the file to index the position of every key, the values are decoded on first access, so a very
+ * large file does not need to be copied in the heap as strings to only read some values.
+ * The file is read as UTF-8 and follows the properties file syntax: comments, separators, escapes, unicode escapes and
+ * line continuations.
+ * The file must not be modified in place while mapped, replacing it, as AtomicPropertiesWriter does, is safe.
+ *
+ * @author Grégory Van den Borre
+ */
+final class MappedPropertiesSource implements ConfigurationSource {
+
+    private final String name;
+
+    private final MappedByteBuffer buffer;
+
+    /**
+     * Entry index by key, the last occurrence of a key wins, like in Properties.
+     */
+    private final Map<String, Integer> index;
+
+    /**
+     * Start and end offset of the raw values, by entry index.
+     */
+    private final int[] valueStart;
+
+    private final int[] valueEnd;
+
+    /**
+     * Decoded values, by entry index, filled on first access.
+     * Strings being immutable, a race only decodes the same value twice.
+     */
+    private final String[] decoded;
+
+    private MappedPropertiesSource(String name, MappedByteBuffer buffer) {
+        super();
+        this.name = name;
+        this.buffer = buffer;
+        Indexer indexer = new Indexer(buffer);
+        indexer.run();
+        this.index = indexer.index;
+        this.valueStart = Arrays.copyOf(indexer.starts, indexer.size);
+        this.valueEnd = Arrays.copyOf(indexer.ends, indexer.size);
+        this.decoded = new String[indexer.size];
+    }
+
+    /**
+     * Map and index a properties file.
+     * @param file File to map.
+     * @return The created source.
+     * @throws IllegalStateException If the file cannot be read or is larger than 2GB.
+     */
+    static MappedPropertiesSource map(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Property file too large to be mapped: " + file.toAbsolutePath());
+            }
+            return new MappedPropertiesSource(file.toString(), channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        } catch (IOException e) {
+            throw new IllegalStateException("Error while reading property file: " + file.toAbsolutePath(), e);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    @Override
+    public String get(String key) {
+        Integer entry = this.index.get(key);
+        if (entry == null) {
+            return null;
+        }
+        String value = this.decoded[entry];
+        if (value == null) {
+            value = decode(this.buffer, this.valueStart[entry], this.valueEnd[entry]);
+            this.decoded[entry] = value;
+        }
+        return value;
+    }
+
+    @Override
+    public Set<String> getKeys() {
+        return Collections.unmodifiableSet(this.index.keySet());
+    }
+
+    /**
+     * Decode a raw key or value: UTF-8 bytes, escapes and line continuations.
+     * @param buffer Mapped file.
+     * @param from First byte, inclusive.
+     * @param to Last byte, exclusive.
+     * @return The decoded string.
+     */
+    static String decode(MappedByteBuffer buffer, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        buffer.get(from, bytes);
+        String raw = new String(bytes, StandardCharsets.UTF_8);
+        int escape = raw.indexOf('\\');
+        if (escape < 0) {
+            return raw;
+        }
+        StringBuilder builder = new StringBuilder(raw.length()).append(raw, 0, escape);
+        int i = escape;
+        while (i < raw.length()) {
+            char c = raw.charAt(i++);
+            if (c != '\\') {
+                builder.append(c);
+                continue;
+            }
+            if (i == raw.length()) {
+                break;
+            }
+            c = raw.charAt(i++);
+            switch (c) {
+                case 't' -> builder.append('\t');
+                case 'n' -> builder.append('\n');
+                case 'r' -> builder.append('\r');
+                case 'f' -> builder.append('\f');
+                case 'u' -> {
+                    if (i + 4 > raw.length()) {
+                        throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+                    }
+                    builder.append((char) Integer.parseInt(raw, i, i + 4, 16));
+                    i += 4;
+                }
+                case '\r', '\n' -> {
+                    if (c == '\r' && i < raw.length() && raw.charAt(i) == '\n') {
+                        i++;
+                    }
+                    while (i < raw.length() && isWhitespace(raw.charAt(i))) {
+                        i++;
+                    }
+                }
+                default -> builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\t' || c == '\f';
+    }
+
+    /**
+     * Single pass over the mapped bytes, the syntax characters being ASCII, they cannot be part of a multibyte UTF-8
+     * sequence.
+     */
+    private static final class Indexer {
+
+        private final MappedByteBuffer buffer;
+
+        private final int limit;
+
+        private final Map<String, Integer> index = new HashMap<>();
+
+        private int[] starts = new int[64];
+
+        private int[] ends = new int[64];
+
+        private int size;
+
+        private Indexer(MappedByteBuffer buffer) {
+            super();
+            this.buffer = buffer;
+            this.limit = buffer.limit();
+        }
+
+        private void run() {
+            int p = 0;
+            while (p < this.limit) {
+                int c = this.buffer.get(p);
+                if (isWhitespace(c) || c == '\r' || c == '\n') {
+                    p++;
+                } else if (c == '#' || c == '!') {
+                    p = this.lineEnd(p);
+                } else {
+                    p = this.entry(p);
+                }
+            }
+        }
+
+        private int entry(int keyStart) {
+            int p = keyStart;
+            while (p < this.limit) {
+                int c = this.buffer.get(p);
+                if (c == '\\') {
+                    p = this.afterEscape(p);
+                } else if (c == '=' || c == ':' || isWhitespace(c) || c == '\r' || c == '\n') {
+                    break;
+                } else {
+                    p++;
+                }
+            }
+            int keyEnd = p;
+            p = this.skipWhitespace(p);
+            if (p < this.limit && (this.buffer.get(p) == '=' || this.buffer.get(p) == ':')) {
+                p = this.skipWhitespace(p + 1);
+            }
+            int valueStart = p;
+            while (p < this.limit) {
+                int c = this.buffer.get(p);
+                if (c == '\\') {
+                    p = this.afterEscape(p);
+                } else if (c == '\r' || c == '\n') {
+                    break;
+                } else {
+                    p++;
+                }
+            }
+            this.add(decode(this.buffer, keyStart, keyEnd), valueStart, Math.min(p, this.limit));
+            return p;
+        }
+
+        private void add(String key, int start, int end) {
+            Integer existing = this.index.get(key);
+            int entry = existing == null ? this.size++ : existing;
+            if (entry == this.starts.length) {
+                this.starts = Arrays.copyOf(this.starts, entry * 2);
+                this.ends = Arrays.copyOf(this.ends, entry * 2);
+            }
+            this.starts[entry] = start;
+            this.ends[entry] = end;
+            this.index.put(key, entry);
+        }
+
+        private int afterEscape(int p) {
+            int next = p + 1;
+            if (next >= this.limit) {
+                return this.limit;
+            }
+            int c = this.buffer.get(next);
+            if (c != '\r' && c != '\n') {
+                return next + 1;
+            }
+            next++;
+            if (c == '\r' && next < this.limit && this.buffer.get(next) == '\n') {
+                next++;
+            }
+            return this.skipWhitespace(next);
+        }
+
+        private int skipWhitespace(int p) {
+            while (p < this.limit && isWhitespace(this.buffer.get(p))) {
+                p++;
+            }
+            return p;
+        }
+
+        private int lineEnd(int p) {
+            while (p < this.limit && this.buffer.get(p) != '\r' && this.buffer.get(p) != '\n') {
+                p++;
+            }
+            return p;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * Properties where some values come from a source that must not be written in the configuration file, like the
+ * application arguments, they keep the values those overrides hide, to be written instead.
+ *
+ * @author Grégory Van den Borre
+ */
+final class OverriddenProperties extends Properties {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Hidden value by overridden key, null if no stored source defines the key.
+     */
+    private final HashMap<String, String> hidden = new HashMap<>();
+
+    private OverriddenProperties() {
+        super();
+    }
+
+    /**
+     * Resolve the values of a configuration, keeping the stored values hidden by the overrides.
+     * @param stored Layers written in the configuration file.
+     * @param layers Stored layers with the overrides on top.
+     * @return The resolved values of all the layers.
+     */
+    static OverriddenProperties of(LayeredConfiguration stored, LayeredConfiguration layers) {
+        OverriddenProperties properties = new OverriddenProperties();
+        for (String key : layers.getKeys()) {
+            String value = layers.get(key);
+            String storedValue = stored.get(key);
+            properties.setProperty(key, value);
+            if (!Objects.equals(value, storedValue)) {
+                properties.hidden.put(key, storedValue);
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Provide the hidden values of properties.
+     * @param properties Properties to check.
+     * @return The hidden value by overridden key, null if no stored source defines the key, empty if the properties do
+     * not come from layers with overrides.
+     */
+    static Map<String, String> hiddenValues(Properties properties) {
+        if (properties instanceof OverriddenProperties overridden) {
+            return Collections.unmodifiableMap(new HashMap<>(overridden.hidden));
+        }
+        return Map.of();
+    }
+}
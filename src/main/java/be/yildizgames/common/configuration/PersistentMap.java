@@ -0,0 +1,456 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable map from String keys, implemented as a hash array mapped trie.
+ * Adding or removing a key copies only the path from the root to the key, at most 7 small arrays, and shares all the
+ * other nodes with the previous map, so many versions of a large map can be kept for the cost of their differences.
+ * Two maps derived from each other can also be compared by skipping the shared nodes.
+ *
+ * @param <V> Type of the values.
+ * @author Grégory Van den Borre
+ */
+final class PersistentMap<V> {
+
+    private static final PersistentMap<?> EMPTY = new PersistentMap<>(null, 0);
+
+    private static final int BITS = 5;
+
+    private static final int MASK = (1 << BITS) - 1;
+
+    /**
+     * Root node, null for an empty map.
+     */
+    private final Node root;
+
+    private final int size;
+
+    private PersistentMap(Node root, int size) {
+        super();
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> PersistentMap<V> empty() {
+        return (PersistentMap<V>) EMPTY;
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * @param key Key to find.
+     * @return The value of the key, null if absent.
+     */
+    @SuppressWarnings("unchecked")
+    V get(String key) {
+        Node node = this.root;
+        if (node == null) {
+            return null;
+        }
+        int hash = hash(key);
+        int shift = 0;
+        while (true) {
+            if (node instanceof CollisionNode c) {
+                return (V) c.get(key);
+            }
+            BitmapNode b = (BitmapNode) node;
+            int bit = bit(hash, shift);
+            if ((b.bitmap & bit) == 0) {
+                return null;
+            }
+            int i = b.index(bit);
+            Object k = b.array[2 * i];
+            if (k == null) {
+                node = (Node) b.array[2 * i + 1];
+                shift += BITS;
+            } else {
+                return k.equals(key) ? (V) b.array[2 * i + 1] : null;
+            }
+        }
+    }
+
+    boolean containsKey(String key) {
+        return this.get(key) != null;
+    }
+
+    /**
+     * Create a map with a value added or replaced, this map is not modified.
+     * @param key Key of the value.
+     * @param value Value, not null.
+     * @return The new map, this one if the key already has this exact value.
+     */
+    PersistentMap<V> with(String key, V value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        int hash = hash(key);
+        if (this.root == null) {
+            return new PersistentMap<>(new BitmapNode(bit(hash, 0), new Object[]{key, value}), 1);
+        }
+        boolean[] added = new boolean[1];
+        Node node = this.root.with(0, hash, key, value, added);
+        return node == this.root ? this : new PersistentMap<>(node, added[0] ? this.size + 1 : this.size);
+    }
+
+    /**
+     * Create a map with a key removed, this map is not modified.
+     * @param key Key to remove.
+     * @return The new map, this one if the key is absent.
+     */
+    PersistentMap<V> without(String key) {
+        if (this.root == null) {
+            return this;
+        }
+        Node node = this.root.without(0, hash(key), key);
+        if (node == this.root) {
+            return this;
+        }
+        return node == null ? empty() : new PersistentMap<>(node, this.size - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    void forEach(BiConsumer<String, V> action) {
+        if (this.root != null) {
+            this.root.forEach((BiConsumer<String, Object>) action);
+        }
+    }
+
+    /**
+     * Visit the keys whose value differ between two maps, by identity, the nodes shared by both maps are skipped.
+     * @param previous First map.
+     * @param next Second map.
+     * @param action Receive the key, its value in the first map and in the second one, null when absent.
+     * @param <V> Type of the values.
+     */
+    @SuppressWarnings("unchecked")
+    static <V> void diff(PersistentMap<V> previous, PersistentMap<V> next, DiffAction<V> action) {
+        diffNodes(previous.root, next.root, (DiffAction<Object>) action);
+    }
+
+    private static void diffNodes(Object previous, Object next, DiffAction<Object> action) {
+        if (previous == next) {
+            return;
+        }
+        if (previous instanceof BitmapNode p && next instanceof BitmapNode n) {
+            int all = p.bitmap | n.bitmap;
+            while (all != 0) {
+                int bit = Integer.lowestOneBit(all);
+                all &= ~bit;
+                Object pk = null;
+                Object pv = null;
+                Object nk = null;
+                Object nv = null;
+                boolean inPrevious = (p.bitmap & bit) != 0;
+                boolean inNext = (n.bitmap & bit) != 0;
+                if (inPrevious) {
+                    int i = p.index(bit);
+                    pk = p.array[2 * i];
+                    pv = p.array[2 * i + 1];
+                }
+                if (inNext) {
+                    int i = n.index(bit);
+                    nk = n.array[2 * i];
+                    nv = n.array[2 * i + 1];
+                }
+                if (inPrevious && inNext && pk == null && nk == null) {
+                    diffNodes(pv, nv, action);
+                } else if (inPrevious && inNext && pk != null && pk.equals(nk)) {
+                    if (pv != nv) {
+                        action.accept((String) pk, pv, nv);
+                    }
+                } else {
+                    diffEntries(entries(pk, pv), entries(nk, nv), action);
+                }
+            }
+        } else {
+            diffEntries(entries(null, previous), entries(null, next), action);
+        }
+    }
+
+    /**
+     * Collect the entries of a slot, an empty map if the slot is absent.
+     */
+    private static Map<String, Object> entries(Object key, Object value) {
+        Map<String, Object> result = new HashMap<>();
+        if (key != null) {
+            result.put((String) key, value);
+        } else if (value != null) {
+            ((Node) value).forEach(result::put);
+        }
+        return result;
+    }
+
+    private static void diffEntries(Map<String, Object> previous, Map<String, Object> next, DiffAction<Object> action) {
+        previous.forEach((k, v) -> {
+            Object n = next.get(k);
+            if (n != v) {
+                action.accept(k, v, n);
+            }
+        });
+        next.forEach((k, v) -> {
+            if (!previous.containsKey(k)) {
+                action.accept(k, null, v);
+            }
+        });
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    /**
+     * Receive a difference between two maps.
+     *
+     * @param <V> Type of the values.
+     */
+    @FunctionalInterface
+    interface DiffAction<V> {
+
+        /**
+         * @param key Key whose value differs.
+         * @param previous Value in the first map, null if absent.
+         * @param next Value in the second map, null if absent.
+         */
+        void accept(String key, V previous, V next);
+    }
+
+    private sealed interface Node permits BitmapNode, CollisionNode {
+
+        Node with(int shift, int hash, String key, Object value, boolean[] added);
+
+        /**
+         * @return The node without the key, this node if absent, null if the node is now empty.
+         */
+        Node without(int shift, int hash, String key);
+
+        void forEach(BiConsumer<String, Object> action);
+    }
+
+    /**
+     * Node with up to 32 slots, a bitmap tells which slots are present, the array holds two cells per present slot:
+     * the key and the value, or null and a child node.
+     */
+    private static final class BitmapNode implements Node {
+
+        private final int bitmap;
+
+        private final Object[] array;
+
+        private BitmapNode(int bitmap, Object[] array) {
+            super();
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(this.bitmap & (bit - 1));
+        }
+
+        @Override
+        public Node with(int shift, int hash, String key, Object value, boolean[] added) {
+            int bit = bit(hash, shift);
+            int i = this.index(bit);
+            if ((this.bitmap & bit) == 0) {
+                Object[] copy = new Object[this.array.length + 2];
+                System.arraycopy(this.array, 0, copy, 0, 2 * i);
+                copy[2 * i] = key;
+                copy[2 * i + 1] = value;
+                System.arraycopy(this.array, 2 * i, copy, 2 * i + 2, this.array.length - 2 * i);
+                added[0] = true;
+                return new BitmapNode(this.bitmap | bit, copy);
+            }
+            Object k = this.array[2 * i];
+            Object v = this.array[2 * i + 1];
+            if (k == null) {
+                Node child = ((Node) v).with(shift + BITS, hash, key, value, added);
+                return child == v ? this : this.replace(i, null, child);
+            }
+            if (k.equals(key)) {
+                return v == value ? this : this.replace(i, key, value);
+            }
+            added[0] = true;
+            return this.replace(i, null, merge(shift + BITS, (String) k, v, hash, key, value));
+        }
+
+        @Override
+        public Node without(int shift, int hash, String key) {
+            int bit = bit(hash, shift);
+            if ((this.bitmap & bit) == 0) {
+                return this;
+            }
+            int i = this.index(bit);
+            Object k = this.array[2 * i];
+            Object v = this.array[2 * i + 1];
+            if (k == null) {
+                Node child = ((Node) v).without(shift + BITS, hash, key);
+                if (child == v) {
+                    return this;
+                }
+                if (child == null) {
+                    return this.remove(i, bit);
+                }
+                if (child instanceof BitmapNode b && b.array.length == 2 && b.array[0] != null) {
+                    // A single entry is moved up, so equal contents keep the same shape.
+                    return this.replace(i, b.array[0], b.array[1]);
+                }
+                return this.replace(i, null, child);
+            }
+            return k.equals(key) ? this.remove(i, bit) : this;
+        }
+
+        @Override
+        public void forEach(BiConsumer<String, Object> action) {
+            for (int i = 0; i < this.array.length; i += 2) {
+                if (this.array[i] == null) {
+                    ((Node) this.array[i + 1]).forEach(action);
+                } else {
+                    action.accept((String) this.array[i], this.array[i + 1]);
+                }
+            }
+        }
+
+        private BitmapNode replace(int index, Object key, Object value) {
+            Object[] copy = this.array.clone();
+            copy[2 * index] = key;
+            copy[2 * index + 1] = value;
+            return new BitmapNode(this.bitmap, copy);
+        }
+
+        private BitmapNode remove(int index, int bit) {
+            if (this.bitmap == bit) {
+                return null;
+            }
+            Object[] copy = new Object[this.array.length - 2];
+            System.arraycopy(this.array, 0, copy, 0, 2 * index);
+            System.arraycopy(this.array, 2 * index + 2, copy, 2 * index, copy.length - 2 * index);
+            return new BitmapNode(this.bitmap & ~bit, copy);
+        }
+    }
+
+    /**
+     * Create the node holding two entries whose hashes are equal up to the given shift.
+     */
+    private static Node merge(int shift, String key1, Object value1, int hash2, String key2, Object value2) {
+        int hash1 = hash(key1);
+        if (hash1 == hash2) {
+            return new CollisionNode(hash1, new String[]{key1, key2}, new Object[]{value1, value2});
+        }
+        int bit1 = bit(hash1, shift);
+        int bit2 = bit(hash2, shift);
+        if (bit1 == bit2) {
+            return new BitmapNode(bit1, new Object[]{null, merge(shift + BITS, key1, value1, hash2, key2, value2)});
+        }
+        return Integer.compareUnsigned(bit1, bit2) < 0
+                ? new BitmapNode(bit1 | bit2, new Object[]{key1, value1, key2, value2})
+                : new BitmapNode(bit1 | bit2, new Object[]{key2, value2, key1, value1});
+    }
+
+    /**
+     * Entries whose keys have the same full hash.
+     */
+    private static final class CollisionNode implements Node {
+
+        private final int hash;
+
+        private final String[] keys;
+
+        private final Object[] values;
+
+        private CollisionNode(int hash, String[] keys, Object[] values) {
+            super();
+            this.hash = hash;
+            this.keys = keys;
+            this.values = values;
+        }
+
+        private Object get(String key) {
+            for (int i = 0; i < this.keys.length; i++) {
+                if (this.keys[i].equals(key)) {
+                    return this.values[i];
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public Node with(int shift, int hash, String key, Object value, boolean[] added) {
+            if (hash != this.hash) {
+                return new BitmapNode(bit(this.hash, shift), new Object[]{null, this}).with(shift, hash, key, value, added);
+            }
+            for (int i = 0; i < this.keys.length; i++) {
+                if (this.keys[i].equals(key)) {
+                    if (this.values[i] == value) {
+                        return this;
+                    }
+                    Object[] v = this.values.clone();
+                    v[i] = value;
+                    return new CollisionNode(this.hash, this.keys, v);
+                }
+            }
+            added[0] = true;
+            String[] k = Arrays.copyOf(this.keys, this.keys.length + 1);
+            Object[] v = Arrays.copyOf(this.values, this.values.length + 1);
+            k[this.keys.length] = key;
+            v[this.values.length] = value;
+            return new CollisionNode(this.hash, k, v);
+        }
+
+        @Override
+        public Node without(int shift, int hash, String key) {
+            for (int i = 0; i < this.keys.length; i++) {
+                if (this.keys[i].equals(key)) {
+                    if (this.keys.length == 2) {
+                        int other = 1 - i;
+                        return new BitmapNode(bit(this.hash, shift), new Object[]{this.keys[other], this.values[other]});
+                    }
+                    String[] k = new String[this.keys.length - 1];
+                    Object[] v = new Object[this.values.length - 1];
+                    System.arraycopy(this.keys, 0, k, 0, i);
+                    System.arraycopy(this.keys, i + 1, k, i, k.length - i);
+                    System.arraycopy(this.values, 0, v, 0, i);
+                    System.arraycopy(this.values, i + 1, v, i, v.length - i);
+                    return new CollisionNode(this.hash, k, v);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        public void forEach(BiConsumer<String, Object> action) {
+            for (int i = 0; i < this.keys.length; i++) {
+                action.accept(this.keys[i], this.values[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Constraints on a configuration property, checked by a ConfigurationSchema.
+ * The value type is the type of the key: a value that cannot be read by the key is invalid.
+ * A rule is immutable, every constraint method returns a new rule.
+ *
+ * @param <T> Type of the value.
+ * @author Grégory Van den Borre
+ */
+public final class PropertyRule<T> {
+
+    private final ConfigKey<T> key;
+
+    private final boolean required;
+
+    private final T min;
+
+    private final T max;
+
+    private final Pattern pattern;
+
+    private final Set<String> allowedValues;
+
+    private PropertyRule(ConfigKey<T> key, boolean required, T min, T max, Pattern pattern, Set<String> allowedValues) {
+        super();
+        this.key = key;
+        this.required = required;
+        this.min = min;
+        this.max = max;
+        this.pattern = pattern;
+        this.allowedValues = allowedValues;
+    }
+
+    /**
+     * Create a rule only checking the type of a property, when it is present.
+     * @param key Key of the property, its type is the expected type of the value.
+     * @param <T> Type of the value.
+     * @return The created rule.
+     */
+    public static <T> PropertyRule<T> of(ConfigKey<T> key) {
+        Objects.requireNonNull(key);
+        return new PropertyRule<>(key, false, null, null, null, null);
+    }
+
+    /**
+     * @return A copy of this rule failing when the property is missing, even if the key has a default value.
+     */
+    public PropertyRule<T> required() {
+        return new PropertyRule<>(this.key, true, this.min, this.max, this.pattern, this.allowedValues);
+    }
+
+    /**
+     * Create a copy of this rule checking the value is in a range.
+     * @param min Minimum value, inclusive, null for no minimum.
+     * @param max Maximum value, inclusive, null for no maximum.
+     * @return The created rule.
+     * @throws IllegalStateException If the values of this type cannot be compared.
+     */
+    public PropertyRule<T> range(T min, T max) {
+        if ((min != null && !(min instanceof Comparable)) || (max != null && !(max instanceof Comparable))) {
+            throw new IllegalStateException("Range is not supported for property " + this.key.name());
+        }
+        return new PropertyRule<>(this.key, this.required, min, max, this.pattern, this.allowedValues);
+    }
+
+    /**
+     * Create a copy of this rule checking the raw value matches a regular expression.
+     * @param regex Expression the whole value must match.
+     * @return The created rule.
+     */
+    public PropertyRule<T> matching(String regex) {
+        return new PropertyRule<>(this.key, this.required, this.min, this.max, Pattern.compile(regex), this.allowedValues);
+    }
+
+    /**
+     * Create a copy of this rule checking the raw value is one of the allowed ones.
+     * @param values Allowed raw values.
+     * @return The created rule.
+     */
+    public PropertyRule<T> allowedValues(String... values) {
+        return new PropertyRule<>(this.key, this.required, this.min, this.max, this.pattern, Set.of(values));
+    }
+
+    /**
+     * @return The property name.
+     */
+    public String name() {
+        return this.key.name();
+    }
+
+    /**
+     * Check a value against this rule.
+     * @param source Name of the checked configuration, for the errors.
+     * @param raw Value to check, null if the property is missing.
+     * @return The errors, empty if the value is valid.
+     */
+    List<ValidationError> validate(String source, String raw) {
+        String name = this.key.name();
+        if (raw == null) {
+            return this.required
+                    ? List.of(new ValidationError(source, name, null, "Missing required property"))
+                    : List.of();
+        }
+        List<ValidationError> errors = new ArrayList<>(1);
+        T value = null;
+        try {
+            value = new ConfigurationValue(name, raw).as(this.key.converter);
+        } catch (IllegalStateException e) {
+            errors.add(new ValidationError(source, name, raw, e.getMessage()));
+        }
+        if (value != null) {
+            if (this.min != null && compare(this.min, value) > 0) {
+                errors.add(new ValidationError(source, name, raw, "Value is lower than the minimum " + this.min));
+            }
+            if (this.max != null && compare(this.max, value) < 0) {
+                errors.add(new ValidationError(source, name, raw, "Value is greater than the maximum " + this.max));
+            }
+        }
+        if (this.pattern != null && !this.pattern.matcher(raw).matches()) {
+            errors.add(new ValidationError(source, name, raw, "Value does not match " + this.pattern.pattern()));
+        }
+        if (this.allowedValues != null && !this.allowedValues.contains(raw)) {
+            List<String> sorted = new ArrayList<>(this.allowedValues);
+            Collections.sort(sorted);
+            errors.add(new ValidationError(source, name, raw, "Value is not one of " + sorted));
+        }
+        return errors;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> int compare(T bound, T value) {
+        return ((Comparable<T>) bound).compareTo(value);
+    }
+}
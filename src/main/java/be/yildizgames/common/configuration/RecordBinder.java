@@ -0,0 +1,250 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Build records from the configuration values.
+ * Every record component is read from the property named after the prefix and the component name, the camel case
+ * being replaced by dots: the component maxSize with the prefix cache is read from cache.max.size.
+ * Supported component types are String, int, long, double, boolean and their wrappers, Duration, List of String,
+ * enums, and records, bound with the component property name as prefix.
+ * The record structure is introspected once per type, binding then reads the values through compiled keys and calls
+ * the canonical constructor with a method handle.
+ *
+ * @param <T> Record type.
+ * @author Grégory Van den Borre
+ */
+final class RecordBinder<T extends Record> {
+
+    /**
+     * Structure of a record type, computed once per type.
+     */
+    private static final ClassValue<Plan> PLANS = new ClassValue<>() {
+        @Override
+        protected Plan computeValue(Class<?> type) {
+            return Plan.of(type);
+        }
+    };
+
+    private final Class<T> type;
+
+    private final MethodHandle constructor;
+
+    private final Component[] components;
+
+    private final List<String> keys;
+
+    private RecordBinder(Class<T> type, MethodHandle constructor, Component[] components, List<String> keys) {
+        super();
+        this.type = type;
+        this.constructor = constructor;
+        this.components = components;
+        this.keys = keys;
+    }
+
+    /**
+     * Create a binder.
+     * @param type Record to build.
+     * @param prefix Prefix of the properties, empty for none.
+     * @param <T> Record type.
+     * @return The created binder.
+     * @throws IllegalStateException If the type is not a record, is not accessible, or has a component of an
+     * unsupported type.
+     */
+    static <T extends Record> RecordBinder<T> of(Class<T> type, String prefix) {
+        Objects.requireNonNull(type);
+        Objects.requireNonNull(prefix);
+        Plan plan = PLANS.get(type);
+        Component[] components = new Component[plan.names.length];
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < components.length; i++) {
+            String name = prefix.isEmpty() ? plan.names[i] : prefix + "." + plan.names[i];
+            components[i] = component(name, plan.types[i], plan.genericTypes[i]);
+            keys.addAll(components[i].keys());
+        }
+        return new RecordBinder<>(type, plan.constructor, components, Collections.unmodifiableList(keys));
+    }
+
+    /**
+     * @return The names of all the properties read by this binder.
+     */
+    List<String> keys() {
+        return this.keys;
+    }
+
+    /**
+     * Build the record.
+     * @param snapshot Configuration values.
+     * @return The built record.
+     * @throws IllegalStateException If a value is missing or cannot be converted.
+     */
+    T bind(ConfigurationSnapshot snapshot) {
+        Object[] values = new Object[this.components.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = this.components[i].read(snapshot);
+        }
+        try {
+            return this.type.cast((Object) this.constructor.invokeExact(values));
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Cannot create " + this.type.getName(), t);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Component component(String name, Class<?> type, Type genericType) {
+        ConfigKey<?> key;
+        if (type == String.class) {
+            key = ConfigKey.ofString(name);
+        } else if (type == int.class || type == Integer.class) {
+            key = ConfigKey.ofInt(name);
+        } else if (type == long.class || type == Long.class) {
+            key = ConfigKey.ofLong(name);
+        } else if (type == double.class || type == Double.class) {
+            key = ConfigKey.ofDouble(name);
+        } else if (type == boolean.class || type == Boolean.class) {
+            key = ConfigKey.ofBoolean(name);
+        } else if (type == Duration.class) {
+            key = ConfigKey.ofDuration(name);
+        } else if (type == List.class) {
+            if (genericType instanceof ParameterizedType parameterized && parameterized.getActualTypeArguments()[0] != String.class) {
+                throw new IllegalStateException("Unsupported type " + genericType.getTypeName() + " for configuration property: " + name + ", only List<String> is supported.");
+            }
+            key = ConfigKey.ofList(name);
+        } else if (type.isEnum()) {
+            key = ConfigKey.ofEnum(name, type.asSubclass(Enum.class));
+        } else if (type.isRecord()) {
+            RecordBinder<?> nested = of((Class<? extends Record>) type, name);
+            return new Component() {
+                @Override
+                public Object read(ConfigurationSnapshot snapshot) {
+                    return nested.bind(snapshot);
+                }
+
+                @Override
+                public List<String> keys() {
+                    return nested.keys();
+                }
+            };
+        } else {
+            throw new IllegalStateException("Unsupported type " + type.getName() + " for configuration property: " + name);
+        }
+        List<String> keys = List.of(name);
+        return new Component() {
+            @Override
+            public Object read(ConfigurationSnapshot snapshot) {
+                return key.read(snapshot);
+            }
+
+            @Override
+            public List<String> keys() {
+                return keys;
+            }
+        };
+    }
+
+    /**
+     * Convert a component name to a property name, the camel case is replaced by dots.
+     * @param component Component name.
+     * @return The property name.
+     */
+    static String propertyName(String component) {
+        StringBuilder builder = new StringBuilder(component.length() + 4);
+        for (int i = 0; i < component.length(); i++) {
+            char c = component.charAt(i);
+            if (Character.isUpperCase(c)) {
+                if (i > 0) {
+                    builder.append('.');
+                }
+                builder.append(Character.toLowerCase(c));
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    private interface Component {
+
+        Object read(ConfigurationSnapshot snapshot);
+
+        List<String> keys();
+    }
+
+    /**
+     * Property names, component types with their generic form, and canonical constructor taking an Object array, of a record type.
+     */
+    private static final class Plan {
+
+        private final String[] names;
+
+        private final Class<?>[] types;
+
+        private final Type[] genericTypes;
+
+        private final MethodHandle constructor;
+
+        private Plan(String[] names, Class<?>[] types, Type[] genericTypes, MethodHandle constructor) {
+            super();
+            this.names = names;
+            this.types = types;
+            this.genericTypes = genericTypes;
+            this.constructor = constructor;
+        }
+
+        private static Plan of(Class<?> type) {
+            if (!type.isRecord()) {
+                throw new IllegalStateException("Not a record: " + type.getName());
+            }
+            RecordComponent[] recordComponents = type.getRecordComponents();
+            String[] names = new String[recordComponents.length];
+            Class<?>[] types = new Class<?>[recordComponents.length];
+            Type[] genericTypes = new Type[recordComponents.length];
+            for (int i = 0; i < recordComponents.length; i++) {
+                names[i] = propertyName(recordComponents[i].getName());
+                types[i] = recordComponents[i].getType();
+                genericTypes[i] = recordComponents[i].getGenericType();
+            }
+            try {
+                MethodHandles.Lookup lookup = Modifier.isPublic(type.getModifiers()) && type.getModule().isExported(type.getPackageName())
+                        ? MethodHandles.publicLookup()
+                        : MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+                MethodHandle constructor = lookup.findConstructor(type, MethodType.methodType(void.class, types));
+                constructor = constructor
+                        .asSpreader(Object[].class, types.length)
+                        .asType(MethodType.methodType(Object.class, Object[].class));
+                return new Plan(names, types, genericTypes, constructor);
+            } catch (ReflectiveOperationException | SecurityException | IllegalArgumentException e) {
+                throw new IllegalStateException("Cannot access the canonical constructor of " + type.getName()
+                        + ", the record and its constructor must be public, or its package opened to this module.", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import java.util.List;
+
+/**
+ * Result of a configuration check, gathering all the errors of all the checked configurations.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class ValidationReport {
+
+    /**
+     * Number of checked configurations.
+     */
+    private final int checked;
+
+    private final List<ValidationError> errors;
+
+    ValidationReport(int checked, List<ValidationError> errors) {
+        super();
+        this.checked = checked;
+        this.errors = List.copyOf(errors);
+    }
+
+    /**
+     * @return True if no error was found.
+     */
+    public boolean isValid() {
+        return this.errors.isEmpty();
+    }
+
+    /**
+     * @return The errors, in the order of the checked configurations and of the schema rules.
+     */
+    public List<ValidationError> getErrors() {
+        return this.errors;
+    }
+
+    /**
+     * @return The number of checked configurations.
+     */
+    public int getCheckedCount() {
+        return this.checked;
+    }
+
+    /**
+     * Provide the report as a JSON object, for example:
+     * {"valid":false,"checked":1,"errors":[{"source":"a.properties","key":"port","value":"x","message":"..."}]}
+     * @return The JSON text, on a single line.
+     */
+    public String toJson() {
+        StringBuilder builder = new StringBuilder(64 + this.errors.size() * 96)
+                .append("{\"valid\":").append(this.isValid())
+                .append(",\"checked\":").append(this.checked)
+                .append(",\"errors\":[");
+        for (int i = 0; i < this.errors.size(); i++) {
+            ValidationError error = this.errors.get(i);
+            builder.append(i == 0 ? "{" : ",{");
+            appendField(builder, "source", error.source()).append(',');
+            appendField(builder, "key", error.key()).append(',');
+            appendField(builder, "value", error.value()).append(',');
+            appendField(builder, "message", error.message()).append('}');
+        }
+        return builder.append("]}").toString();
+    }
+
+    @Override
+    public String toString() {
+        return this.toJson();
+    }
+
+    private static StringBuilder appendField(StringBuilder builder, String name, String value) {
+        builder.append('"').append(name).append("\":");
+        if (value == null) {
+            return builder.append("null");
+        }
+        builder.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+        return builder.append('"');
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Persist the configuration asynchronously, coalescing all the write requests received during an interval in a
+ * single write.
+ * The writes are done by a dedicated daemon thread, pending changes are written on flush, on close and when the JVM
+ * shuts down.
+ *
+ * @author Grégory Van den Borre
+ */
+final class WriteBehindStore implements AutoCloseable {
+
+    private final Runnable write;
+
+    private final long intervalNanos;
+
+    private final ScheduledExecutorService executor;
+
+    /**
+     * True when a change has not been written yet.
+     */
+    private final AtomicBoolean pending = new AtomicBoolean();
+
+    private final Thread shutdownHook;
+
+    /**
+     * Guard the scheduling of a write and the shutdown of the executor, so a request cannot reach a stopped executor.
+     */
+    private final Object lifecycle = new Object();
+
+    /**
+     * True once closed, guarded by the lifecycle lock.
+     */
+    private boolean closed;
+
+    /**
+     * Create and start a new instance.
+     * @param write Action writing the current configuration, must be thread safe.
+     * @param interval Time to wait after a first change before writing, to coalesce the following changes.
+     */
+    WriteBehindStore(Runnable write, Duration interval) {
+        super();
+        this.write = Objects.requireNonNull(write);
+        this.intervalNanos = interval.toNanos();
+        if (this.intervalNanos < 0) {
+            throw new IllegalArgumentException("Negative write behind interval: " + interval);
+        }
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "configuration-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        this.shutdownHook = new Thread(this::flush, "configuration-writer-shutdown");
+        Runtime.getRuntime().addShutdownHook(this.shutdownHook);
+    }
+
+    /**
+     * Request the configuration to be written, the write happens after the interval, subsequent requests before it are
+     * merged with this one.
+     * A request received after closing, by a caller racing with it, is written immediately on the calling thread.
+     * @throws IllegalStateException If the store is closed and the write failed.
+     */
+    void requestWrite() {
+        synchronized (this.lifecycle) {
+            if (!this.closed) {
+                if (this.pending.compareAndSet(false, true)) {
+                    this.executor.schedule(this::writePending, this.intervalNanos, TimeUnit.NANOSECONDS);
+                }
+                return;
+            }
+        }
+        this.write.run();
+    }
+
+    /**
+     * Write the pending changes immediately on the calling thread, does nothing if there is none.
+     * @throws IllegalStateException If the write failed.
+     */
+    void flush() {
+        if (this.pending.getAndSet(false)) {
+            this.write.run();
+        }
+    }
+
+    private void writePending() {
+        try {
+            this.flush();
+        } catch (IllegalStateException e) {
+            System.getLogger(WriteBehindStore.class.getName()).log(System.Logger.Level.ERROR, "Error writing configuration", e);
+        }
+    }
+
+    /**
+     * Write the pending changes and stop the writer thread.
+     */
+    @Override
+    public void close() {
+        try {
+            Runtime.getRuntime().removeShutdownHook(this.shutdownHook);
+        } catch (IllegalStateException e) {
+            // Shutdown in progress, the hook will flush.
+        }
+        synchronized (this.lifecycle) {
+            this.closed = true;
+            this.executor.shutdownNow();
+        }
+        this.flush();
+    }
+}
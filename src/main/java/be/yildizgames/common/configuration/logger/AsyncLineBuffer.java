@@ -0,0 +1,144 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration.logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Bounded ring buffer of log lines, drained by a daemon thread.
+ * The drained lines stay in the ring until overwritten, so the most recent ones can be replayed.
+ * When the ring is full of lines not yet drained, the producers wait for the drainer.
+ *
+ * @author Grégory Van den Borre
+ */
+final class AsyncLineBuffer {
+
+    private final LogLine[] slots;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notEmpty = this.lock.newCondition();
+
+    private final Condition notFull = this.lock.newCondition();
+
+    private final Thread drainer;
+
+    /**
+     * Sequence number of the next line to write.
+     */
+    private long written;
+
+    /**
+     * Sequence number of the next line to drain.
+     */
+    private long drained;
+
+    private boolean closed;
+
+    AsyncLineBuffer(int capacity, Consumer<LogLine> output) {
+        super();
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.slots = new LogLine[capacity];
+        this.drainer = Thread.ofPlatform().daemon().name("prelogger").unstarted(() -> this.drain(output));
+        this.drainer.start();
+    }
+
+    /**
+     * Add a line, waiting if the ring is full.
+     * @param line Line to add.
+     * @return False if the buffer is closed, the line was not added.
+     */
+    boolean add(LogLine line) {
+        this.lock.lock();
+        try {
+            while (!this.closed && this.written - this.drained == this.slots.length) {
+                this.notFull.awaitUninterruptibly();
+            }
+            if (this.closed) {
+                return false;
+            }
+            this.slots[(int) (this.written % this.slots.length)] = line;
+            this.written++;
+            this.notEmpty.signal();
+            return true;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Stop accepting lines, wait for the pending ones to be drained.
+     * @return The lines still in the ring, from the oldest to the newest.
+     */
+    List<LogLine> close() {
+        this.lock.lock();
+        try {
+            this.closed = true;
+            this.notEmpty.signal();
+            this.notFull.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+        try {
+            this.drainer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.lock.lock();
+        try {
+            List<LogLine> result = new ArrayList<>();
+            for (long i = Math.max(0, this.written - this.slots.length); i < this.written; i++) {
+                result.add(this.slots[(int) (i % this.slots.length)]);
+            }
+            return result;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void drain(Consumer<LogLine> output) {
+        LogLine[] batch = new LogLine[this.slots.length];
+        while (true) {
+            int count = 0;
+            this.lock.lock();
+            try {
+                while (!this.closed && this.drained == this.written) {
+                    this.notEmpty.awaitUninterruptibly();
+                }
+                if (this.drained == this.written) {
+                    return;
+                }
+                while (this.drained < this.written) {
+                    batch[count++] = this.slots[(int) (this.drained % this.slots.length)];
+                    this.drained++;
+                }
+                this.notFull.signalAll();
+            } finally {
+                this.lock.unlock();
+            }
+            for (int i = 0; i < count; i++) {
+                output.accept(batch[i]);
+                batch[i] = null;
+            }
+        }
+    }
+}
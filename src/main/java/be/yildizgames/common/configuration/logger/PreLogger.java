@@ -15,13 +15,18 @@
 
 package be.yildizgames.common.configuration.logger;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * This class is used to display message before the logging is configured.
  * The displayed message is time [level] message.
+ * All the instances share the same state: the level, the optional asynchronous output, and the logger the lines are
+ * handed off to once the logging is configured.
+ * The level is checked before any formatting, and the formatting reuses a buffer per thread.
  *
  * @author Grégory Van den Borre
  */
@@ -30,14 +35,44 @@ public class PreLogger {
     /**
      * To format the time displayed with the message.
      */
-    private final DateFormat dateFormat = new SimpleDateFormat("yyyy/MM/dd HH:mm:ss");
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    private static final String NAME = " be.yildizgames.common.application.Prelogger | ";
+
+    /**
+     * Buffers bigger than this are not kept for reuse, not to retain memory after logging a huge message.
+     */
+    private static final int MAX_BUFFER_SIZE = 8192;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    /**
+     * Last formatted time, the time is displayed to the second, so it is only formatted once per second.
+     */
+    private static volatile FormattedTime formattedTime = new FormattedTime(Long.MIN_VALUE, "");
+
+    private static volatile System.Logger.Level level = System.Logger.Level.INFO;
+
+    private static volatile AsyncLineBuffer async;
+
+    /**
+     * Logger receiving the messages once handed off, null before.
+     */
+    private static volatile System.Logger delegate;
+
+    /**
+     * Create a new PreLogger, all the instances share the same output.
+     */
+    public PreLogger() {
+        super();
+    }
 
     /**
      * Display an information message.
      * @param message Message to display.
      */
     public final void info(final String message) {
-        this.print(" | INFO | be.yildizgames.common.application.Prelogger | " + message);
+        log(System.Logger.Level.INFO, message, null);
     }
 
     /**
@@ -45,7 +80,7 @@ public class PreLogger {
      * @param message Message to display.
      */
     public final void warn(final String message) {
-        this.print(" | WARN | be.yildizgames.common.application.Prelogger | " + message);
+        log(System.Logger.Level.WARNING, message, null);
     }
 
     /**
@@ -53,7 +88,7 @@ public class PreLogger {
      * @param message Message to display.
      */
     public final void error(final String message) {
-        this.print(" | ERROR| be.yildizgames.common.application.Prelogger | " + message);
+        log(System.Logger.Level.ERROR, message, null);
     }
 
     /**
@@ -62,18 +97,134 @@ public class PreLogger {
      * @param e Exception to print stacktrace.
      */
     public final void error(final String message, final Exception e) {
-        this.print(" | ERROR| be.yildizgames.common.application.Prelogger | " + message);
-        this.print(" | ERROR| be.yildizgames.common.application.Prelogger | " + e.getMessage());
-        e.printStackTrace(System.out);
+        log(System.Logger.Level.ERROR, message, e);
+    }
+
+    /**
+     * Set the minimum level of the displayed messages, INFO by default.
+     * @param minimum Minimum level.
+     */
+    public static void setLevel(final System.Logger.Level minimum) {
+        level = Objects.requireNonNull(minimum);
+    }
+
+    /**
+     * Display the messages from a daemon thread, the callers only add them to a bounded ring buffer.
+     * The lines remaining in the buffer are replayed in the logger given to handoff.
+     * @param capacity Number of lines in the buffer, when full of lines not yet displayed, the callers wait.
+     */
+    public static synchronized void enableAsync(final int capacity) {
+        if (delegate != null) {
+            return;
+        }
+        AsyncLineBuffer previous = async;
+        async = new AsyncLineBuffer(capacity, PreLogger::print);
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    /**
+     * To call once the logging is configured: the pending asynchronous lines are displayed, the buffered lines are
+     * replayed in the logger, and all the following messages are sent to it.
+     * @param logger Logger to send the messages to.
+     */
+    public static synchronized void handoff(final System.Logger logger) {
+        Objects.requireNonNull(logger);
+        AsyncLineBuffer buffer = async;
+        async = null;
+        delegate = logger;
+        if (buffer != null) {
+            List<LogLine> lines = buffer.close();
+            for (LogLine line : lines) {
+                if (logger.isLoggable(line.level())) {
+                    logger.log(line.level(), formatTime(line.time()) + " | " + line.message(), line.thrown());
+                }
+            }
+        }
+    }
+
+    /**
+     * Go back to the initial state, for tests.
+     */
+    static synchronized void reset() {
+        AsyncLineBuffer buffer = async;
+        async = null;
+        if (buffer != null) {
+            buffer.close();
+        }
+        delegate = null;
+        level = System.Logger.Level.INFO;
+    }
+
+    private static void log(final System.Logger.Level lineLevel, final String message, final Throwable thrown) {
+        System.Logger logger = delegate;
+        if (logger != null) {
+            logger.log(lineLevel, message, thrown);
+            return;
+        }
+        if (lineLevel.getSeverity() < level.getSeverity()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        AsyncLineBuffer buffer = async;
+        if (buffer != null) {
+            LogLine line = new LogLine(lineLevel, now, message, thrown);
+            if (buffer.add(line)) {
+                return;
+            }
+            // Handed off or replaced meanwhile, the line is logged as if it was synchronous.
+            logger = delegate;
+            if (logger != null) {
+                logger.log(lineLevel, message, thrown);
+                return;
+            }
+        }
+        print(lineLevel, now, message, thrown);
+    }
+
+    private static void print(final LogLine line) {
+        print(line.level(), line.time(), line.message(), line.thrown());
     }
 
     /**
      * Print the message on the console.
-     * @param s Message to print.
      */
-    private void print(final String s) {
-        Date date = new Date();
-        System.out.println(dateFormat.format(date) + s);
+    private static void print(final System.Logger.Level lineLevel, final long time, final String message, final Throwable thrown) {
+        String label = label(lineLevel);
+        StringBuilder builder = BUFFER.get();
+        builder.setLength(0);
+        builder.append(formatTime(time)).append(label).append(NAME).append(message);
+        if (thrown != null) {
+            builder.append(System.lineSeparator()).append(formatTime(time)).append(label).append(NAME).append(thrown.getMessage());
+        }
+        System.out.println(builder);
+        if (thrown != null) {
+            thrown.printStackTrace(System.out);
+        }
+        if (builder.capacity() > MAX_BUFFER_SIZE) {
+            BUFFER.remove();
+        }
     }
 
+    private static String label(final System.Logger.Level lineLevel) {
+        return switch (lineLevel) {
+            case ERROR -> " | ERROR|";
+            case WARNING -> " | WARN |";
+            default -> " | INFO |";
+        };
+    }
+
+    private static String formatTime(final long time) {
+        long second = Math.floorDiv(time, 1000L);
+        FormattedTime current = formattedTime;
+        if (current.second != second) {
+            current = new FormattedTime(second, DATE_FORMAT.format(Instant.ofEpochSecond(second)));
+            formattedTime = current;
+        }
+        return current.text;
+    }
+
+    private record FormattedTime(long second, String text) {
+    }
 }
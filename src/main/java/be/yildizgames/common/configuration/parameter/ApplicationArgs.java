@@ -19,11 +19,18 @@ import be.yildizgames.common.configuration.logger.PreLogger;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
 
 /**
  * Argument received when starting the application, expected format is key=value.
+ * The value is everything after the first '=', so it can contain '=' characters.
+ * Keys are case insensitive, a key can be repeated.
  * Any argument without key value pattern can be also retrieved anyway.
  * @author Grégory Van den Borre
  */
@@ -34,6 +41,11 @@ public class ApplicationArgs {
      */
     private final List<Arg> args = new ArrayList<>();
 
+    /**
+     * Values of the key value arguments, by lower case key, in the order they were received.
+     */
+    private final Map<String, List<String>> index = new HashMap<>();
+
     /**
      * List of values only arguments received.
      */
@@ -49,11 +61,14 @@ public class ApplicationArgs {
             new PreLogger().info("No arg parameters passed to the application.");
         } else {
             for (String arg : args) {
-                String[] value = arg.split("=");
-                if (value.length == 2) {
-                    this.args.add(new Arg(value[0], value[1]));
-                } else {
+                int separator = arg.indexOf('=');
+                if (separator == -1) {
                     this.noKeyArgs.add(arg);
+                } else {
+                    String key = arg.substring(0, separator);
+                    String value = arg.substring(separator + 1);
+                    this.args.add(new Arg(key, value));
+                    this.index.computeIfAbsent(normalize(key), k -> new ArrayList<>(1)).add(value);
                 }
             }
         }
@@ -82,11 +97,72 @@ public class ApplicationArgs {
      * @return The value matching the key.
      */
     public final Optional<String> getArg(String key) {
-        return args
-                .stream()
-                .filter(arg -> arg.key.equalsIgnoreCase(key))
-                .map(arg -> arg.value)
-                .findFirst();
+        List<String> values = this.index.get(normalize(key));
+        return values == null ? Optional.empty() : Optional.of(values.get(0));
+    }
+
+    /**
+     * Provide all the values of a repeated argument.
+     * @param key Argument key.
+     * @return The values matching the key, in the order they were received, empty if none.
+     */
+    public final List<String> getArgValues(String key) {
+        List<String> values = this.index.get(normalize(key));
+        return values == null ? List.of() : Collections.unmodifiableList(values);
+    }
+
+    /**
+     * Provide an argument as an int.
+     * @param key Argument key.
+     * @return The value matching the key, empty if there is none.
+     * @throws IllegalStateException If the value is not a valid int.
+     */
+    public final OptionalInt getArgAsInt(String key) {
+        Optional<String> value = this.getArg(key);
+        if (value.isEmpty()) {
+            return OptionalInt.empty();
+        }
+        try {
+            return OptionalInt.of(Integer.parseInt(value.get().trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Invalid int value for argument '" + key + "': " + value.get(), e);
+        }
+    }
+
+    /**
+     * Provide an argument as a long.
+     * @param key Argument key.
+     * @return The value matching the key, empty if there is none.
+     * @throws IllegalStateException If the value is not a valid long.
+     */
+    public final OptionalLong getArgAsLong(String key) {
+        Optional<String> value = this.getArg(key);
+        if (value.isEmpty()) {
+            return OptionalLong.empty();
+        }
+        try {
+            return OptionalLong.of(Long.parseLong(value.get().trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Invalid long value for argument '" + key + "': " + value.get(), e);
+        }
+    }
+
+    /**
+     * Provide an argument as a boolean.
+     * @param key Argument key.
+     * @return True if the value is 'true' ignoring case, false for any other value, empty if there is none.
+     */
+    public final Optional<Boolean> getArgAsBoolean(String key) {
+        return this.getArg(key).map(v -> Boolean.parseBoolean(v.trim()));
+    }
+
+    /**
+     * Check if an argument is present, with or without value.
+     * @param key Argument key, or value of an argument without key.
+     * @return true if the argument was passed.
+     */
+    public final boolean hasArg(String key) {
+        return this.index.containsKey(normalize(key)) || this.noKeyArgs.stream().anyMatch(key::equalsIgnoreCase);
     }
 
     /**
@@ -96,4 +172,8 @@ public class ApplicationArgs {
     public final boolean isEmpty() {
         return this.args.isEmpty();
     }
+
+    private static String normalize(String key) {
+        return key.toLowerCase(Locale.ROOT);
+    }
 }
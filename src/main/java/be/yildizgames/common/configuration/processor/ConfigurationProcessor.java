@@ -0,0 +1,377 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration.processor;
+
+import be.yildizgames.common.configuration.ConfigKey;
+import be.yildizgames.common.configuration.annotation.DefaultValue;
+import be.yildizgames.common.configuration.annotation.GenerateConfiguration;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Generate the configuration classes for the interfaces annotated with GenerateConfiguration.
+ * Every property becomes a static ConfigKey constant, so the key slot is resolved once when the class is loaded, and
+ * the accessors read through it without any reflection.
+ * The default values are checked and converted to Java literals at compile time, and returned by the accessors when a
+ * property is missing, they are not added to the properties so they are never written in the configuration file.
+ * They are also gathered in a static defaultProperties method, usable with ConfigurationNotFoundDefault.fromDefault.
+ *
+ * @author Grégory Van den Borre
+ */
+@SupportedAnnotationTypes("be.yildizgames.common.configuration.annotation.GenerateConfiguration")
+public final class ConfigurationProcessor extends AbstractProcessor {
+
+    private static final String BASE = "be.yildizgames.common.configuration.BaseConfiguration";
+
+    private static final String KEY = ConfigKey.class.getName();
+
+    public ConfigurationProcessor() {
+        super();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenerateConfiguration.class)) {
+            if (element.getKind() != ElementKind.INTERFACE) {
+                this.error(element, "@GenerateConfiguration can only be used on an interface.");
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            if (!type.getTypeParameters().isEmpty()) {
+                this.error(type, "@GenerateConfiguration interface cannot be generic.");
+                continue;
+            }
+            this.properties(type).ifPresent(p -> this.generate(type, p));
+        }
+        return true;
+    }
+
+    /**
+     * Build the properties of every abstract method of an interface, errors are reported on the faulty methods.
+     * @param type Annotated interface.
+     * @return The properties, empty if any method is invalid.
+     */
+    private Optional<List<Property>> properties(TypeElement type) {
+        Set<String> reserved = new HashSet<>();
+        TypeElement base = this.processingEnv.getElementUtils().getTypeElement(BASE);
+        if (base != null) {
+            for (ExecutableElement method : ElementFilter.methodsIn(this.processingEnv.getElementUtils().getAllMembers(base))) {
+                if (method.getParameters().isEmpty()) {
+                    reserved.add(method.getSimpleName().toString());
+                }
+            }
+        }
+        List<Property> result = new ArrayList<>();
+        Set<String> keys = new HashSet<>();
+        boolean valid = true;
+        for (ExecutableElement method : ElementFilter.methodsIn(this.processingEnv.getElementUtils().getAllMembers(type))) {
+            if (!method.getModifiers().contains(Modifier.ABSTRACT)) {
+                continue;
+            }
+            be.yildizgames.common.configuration.annotation.ConfigKey key = method.getAnnotation(be.yildizgames.common.configuration.annotation.ConfigKey.class);
+            String name = method.getSimpleName().toString();
+            if (key == null) {
+                this.error(method, "Method " + name + " must be annotated with @ConfigKey.");
+                valid = false;
+            } else if (!method.getParameters().isEmpty() || !method.getTypeParameters().isEmpty()) {
+                this.error(method, "Method " + name + " cannot have parameters.");
+                valid = false;
+            } else if (reserved.contains(name)) {
+                this.error(method, "Method " + name + " clashes with a BaseConfiguration method.");
+                valid = false;
+            } else if (key.value().isBlank()) {
+                this.error(method, "Property name of " + name + " cannot be empty.");
+                valid = false;
+            } else if (!keys.add(key.value())) {
+                this.error(method, "Property " + key.value() + " is already used by another method.");
+                valid = false;
+            } else {
+                DefaultValue defaultValue = method.getAnnotation(DefaultValue.class);
+                Property property = this.property(method, key.value(), defaultValue == null ? null : defaultValue.value());
+                if (property == null) {
+                    valid = false;
+                } else {
+                    result.add(property);
+                }
+            }
+        }
+        return valid ? Optional.of(result) : Optional.empty();
+    }
+
+    /**
+     * Build the property read by a method.
+     * @param method Annotated method.
+     * @param key Property name.
+     * @param defaultValue Raw default value, null if none.
+     * @return The property, null if the return type or the default value is invalid, the error is reported.
+     */
+    private Property property(ExecutableElement method, String key, String defaultValue) {
+        TypeMirror type = method.getReturnType();
+        String name = method.getSimpleName().toString();
+        String constant = constantName(name);
+        String literal = literal(key);
+        try {
+            return switch (type.getKind()) {
+                case INT -> new Property(name, key, constant, "int", "Integer", KEY + ".ofInt(" + literal + ")",
+                        defaultValue, defaultValue == null ? null : String.valueOf(ConfigKey.ofInt(key).parse(defaultValue)));
+                case LONG -> new Property(name, key, constant, "long", "Long", KEY + ".ofLong(" + literal + ")",
+                        defaultValue, defaultValue == null ? null : ConfigKey.ofLong(key).parse(defaultValue) + "L");
+                case DOUBLE -> new Property(name, key, constant, "double", "Double", KEY + ".ofDouble(" + literal + ")",
+                        defaultValue, defaultValue == null ? null : doubleLiteral(ConfigKey.ofDouble(key).parse(defaultValue)));
+                case BOOLEAN -> new Property(name, key, constant, "boolean", "Boolean", KEY + ".ofBoolean(" + literal + ")",
+                        defaultValue, defaultValue == null ? null : String.valueOf(ConfigKey.ofBoolean(key).parse(defaultValue)));
+                case DECLARED -> this.declaredProperty(method, (DeclaredType) type, name, key, constant, defaultValue);
+                default -> this.unsupported(method);
+            };
+        } catch (IllegalStateException e) {
+            this.error(method, "Invalid default value '" + defaultValue + "' for " + name + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private Property declaredProperty(ExecutableElement method, DeclaredType type, String name, String key, String constant, String defaultValue) {
+        TypeElement element = (TypeElement) type.asElement();
+        String qualified = element.getQualifiedName().toString();
+        String literal = literal(key);
+        return switch (qualified) {
+            case "java.lang.String" -> new Property(name, key, constant, qualified, qualified, KEY + ".ofString(" + literal + ")",
+                    defaultValue, defaultValue == null ? null : literal(defaultValue));
+            case "java.lang.Integer" -> new Property(name, key, constant, qualified, qualified, KEY + ".ofInt(" + literal + ")",
+                    defaultValue, defaultValue == null ? null : String.valueOf(ConfigKey.ofInt(key).parse(defaultValue)));
+            case "java.lang.Long" -> new Property(name, key, constant, qualified, qualified, KEY + ".ofLong(" + literal + ")",
+                    defaultValue, defaultValue == null ? null : ConfigKey.ofLong(key).parse(defaultValue) + "L");
+            case "java.lang.Double" -> new Property(name, key, constant, qualified, qualified, KEY + ".ofDouble(" + literal + ")",
+                    defaultValue, defaultValue == null ? null : doubleLiteral(ConfigKey.ofDouble(key).parse(defaultValue)));
+            case "java.lang.Boolean" -> new Property(name, key, constant, qualified, qualified, KEY + ".ofBoolean(" + literal + ")",
+                    defaultValue, defaultValue == null ? null : String.valueOf(ConfigKey.ofBoolean(key).parse(defaultValue)));
+            case "java.time.Duration" -> new Property(name, key, constant, qualified, qualified, KEY + ".ofDuration(" + literal + ")",
+                    defaultValue, defaultValue == null ? null : durationLiteral(ConfigKey.ofDuration(key).parse(defaultValue)));
+            case "java.util.List" -> this.listProperty(method, type, name, key, constant, defaultValue);
+            default -> element.getKind() == ElementKind.ENUM
+                    ? this.enumProperty(method, element, name, key, constant, defaultValue)
+                    : this.unsupported(method);
+        };
+    }
+
+    private Property listProperty(ExecutableElement method, DeclaredType type, String name, String key, String constant, String defaultValue) {
+        if (type.getTypeArguments().size() != 1
+                || !this.processingEnv.getTypeUtils().isSameType(type.getTypeArguments().get(0),
+                this.processingEnv.getElementUtils().getTypeElement("java.lang.String").asType())) {
+            return this.unsupported(method);
+        }
+        String literal = null;
+        if (defaultValue != null) {
+            StringBuilder builder = new StringBuilder("java.util.List.of(");
+            boolean first = true;
+            for (String element : ConfigKey.ofList(key).parse(defaultValue)) {
+                builder.append(first ? "" : ", ").append(literal(element));
+                first = false;
+            }
+            literal = builder.append(')').toString();
+        }
+        return new Property(name, key, constant, "java.util.List<java.lang.String>", "java.util.List<java.lang.String>",
+                KEY + ".ofList(" + literal(key) + ")", defaultValue, literal);
+    }
+
+    private Property enumProperty(ExecutableElement method, TypeElement type, String name, String key, String constant, String defaultValue) {
+        String qualified = type.getQualifiedName().toString();
+        String literal = null;
+        if (defaultValue != null) {
+            String expected = defaultValue.trim().toUpperCase(Locale.ROOT);
+            for (Element element : type.getEnclosedElements()) {
+                if (element.getKind() == ElementKind.ENUM_CONSTANT && element.getSimpleName().contentEquals(expected)) {
+                    literal = qualified + "." + expected;
+                }
+            }
+            if (literal == null) {
+                this.error(method, "Invalid default value '" + defaultValue + "' for " + name + ": not a constant of " + qualified);
+                return null;
+            }
+        }
+        return new Property(name, key, constant, qualified, qualified,
+                KEY + ".ofEnum(" + literal(key) + ", " + qualified + ".class)", defaultValue, literal);
+    }
+
+    private Property unsupported(ExecutableElement method) {
+        this.error(method, "Unsupported configuration type " + method.getReturnType() + " for " + method.getSimpleName()
+                + ", expected String, int, long, double, boolean, their wrapper, Duration, List<String> or an enum.");
+        return null;
+    }
+
+    private void generate(TypeElement type, List<Property> properties) {
+        String packageName = this.processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String className = type.getAnnotation(GenerateConfiguration.class).value();
+        if (className.isEmpty()) {
+            className = type.getSimpleName() + "Configuration";
+        }
+        if (!SourceVersion.isIdentifier(className) || SourceVersion.isKeyword(className)) {
+            this.error(type, "Invalid generated class name: " + className);
+            return;
+        }
+        String qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+        try (Writer writer = this.processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+            writer.write(source(packageName, className, type.getQualifiedName().toString(), properties));
+        } catch (IOException e) {
+            this.error(type, "Cannot generate " + qualifiedName + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Build the generated class source, all the types are fully qualified to avoid clashing with the user types.
+     */
+    static String source(String packageName, String className, String interfaceName, List<Property> properties) {
+        StringBuilder s = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            s.append("package ").append(packageName).append(";\n\n");
+        }
+        s.append("/**\n * Configuration generated from ").append(interfaceName)
+                .append(" by be.yildizgames.common.configuration.processor.ConfigurationProcessor, do not edit.\n */\n");
+        s.append("public class ").append(className).append(" extends ").append(BASE).append(" implements ")
+                .append(interfaceName).append(" {\n");
+        for (Property p : properties) {
+            s.append("\n    public static final ").append(KEY).append('<').append(p.keyType).append("> ").append(p.constant)
+                    .append(" = ").append(p.factory);
+            if (p.defaultLiteral != null) {
+                s.append(".withDefault(").append(p.defaultLiteral).append(')');
+            }
+            s.append(";\n");
+        }
+        s.append("\n    public ").append(className).append("(java.util.Properties properties) {\n")
+                .append("        super(properties);\n    }\n");
+        s.append("\n    public ").append(className)
+                .append("(java.util.Properties properties, java.util.List<java.util.Locale> supportedLocales) {\n")
+                .append("        super(properties, supportedLocales);\n    }\n");
+        s.append("\n    /**\n     * @return A new instance of the default values, in the configuration file format.\n     */\n")
+                .append("    public static java.util.Properties defaultProperties() {\n")
+                .append("        java.util.Properties properties = new java.util.Properties();\n");
+        for (Property p : properties) {
+            if (p.defaultRaw != null) {
+                s.append("        properties.setProperty(").append(literal(p.key)).append(", ").append(literal(p.defaultRaw)).append(");\n");
+            }
+        }
+        s.append("        return properties;\n    }\n");
+        s.append("\n    /**\n     * @return A strategy falling back to the default values when the configuration file is not found.\n     */\n")
+                .append("    public static be.yildizgames.common.configuration.ConfigurationNotFoundStrategy notFoundStrategy() {\n")
+                .append("        return be.yildizgames.common.configuration.ConfigurationNotFoundDefault.fromDefault(defaultProperties());\n")
+                .append("    }\n");
+        for (Property p : properties) {
+            s.append("\n    @Override\n    public ").append(p.returnType).append(' ').append(p.method).append("() {\n")
+                    .append("        return this.get(").append(p.constant).append(");\n    }\n");
+        }
+        return s.append("}\n").toString();
+    }
+
+    /**
+     * Convert a method name to a constant name, maxSize becomes MAX_SIZE.
+     */
+    static String constantName(String method) {
+        StringBuilder builder = new StringBuilder(method.length() + 4);
+        for (int i = 0; i < method.length(); i++) {
+            char c = method.charAt(i);
+            if (Character.isUpperCase(c) && i > 0) {
+                builder.append('_');
+            }
+            builder.append(Character.toUpperCase(c));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Java string literal of a value.
+     */
+    static String literal(String value) {
+        StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20 || c > 0x7E) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    private static String doubleLiteral(double value) {
+        if (Double.isNaN(value)) {
+            return "Double.NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "Double.POSITIVE_INFINITY" : "Double.NEGATIVE_INFINITY";
+        }
+        return Double.toString(value);
+    }
+
+    private static String durationLiteral(Duration value) {
+        return "java.time.Duration.ofSeconds(" + value.getSeconds() + "L, " + value.getNano() + "L)";
+    }
+
+    private void error(Element element, String message) {
+        this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    /**
+     * Property read by a method of the annotated interface.
+     *
+     * @param method         Method name.
+     * @param key            Property name.
+     * @param constant       Name of the generated ConfigKey constant.
+     * @param returnType     Method return type.
+     * @param keyType        ConfigKey type argument, the wrapper for a primitive.
+     * @param factory        Expression creating the key.
+     * @param defaultRaw     Default value as written in the annotation, null if none.
+     * @param defaultLiteral Default value as a Java expression, null if none.
+     */
+    record Property(String method, String key, String constant, String returnType, String keyType, String factory,
+                    String defaultRaw, String defaultLiteral) {
+    }
+}
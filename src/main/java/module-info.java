@@ -15,7 +15,14 @@
 
 open module be.yildizgames.common.configuration {
 
+    requires java.management;
+    requires static java.compiler;
+
     exports be.yildizgames.common.configuration;
     exports be.yildizgames.common.configuration.parameter;
+    exports be.yildizgames.common.configuration.logger;
+    exports be.yildizgames.common.configuration.annotation;
+
+    provides javax.annotation.processing.Processor with be.yildizgames.common.configuration.processor.ConfigurationProcessor;
 }
 
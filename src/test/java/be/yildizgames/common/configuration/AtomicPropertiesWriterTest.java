@@ -0,0 +1,151 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class AtomicPropertiesWriterTest {
+
+    private static Properties generate(String prefix, int size) {
+        Properties properties = new Properties();
+        for (int i = 0; i < size; i++) {
+            properties.setProperty("key" + i, prefix + i);
+        }
+        return properties;
+    }
+
+    private static Properties load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+        return properties;
+    }
+
+    private static long countFiles(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    @Nested
+    class Write {
+
+        @Test
+        void newFile() throws IOException {
+            Path file = Files.createTempDirectory("atomic").resolve("config.properties");
+            Properties properties = generate("value", 10);
+            AtomicPropertiesWriter.write(file, properties, "test", false);
+            Assertions.assertEquals(properties, load(file));
+            Assertions.assertEquals(1, countFiles(file.getParent()));
+        }
+
+        @Test
+        void replaceFile() throws IOException {
+            Path file = Files.createTempDirectory("atomic").resolve("config.properties");
+            AtomicPropertiesWriter.write(file, generate("old", 10), "test", false);
+            Properties properties = generate("new", 5);
+            AtomicPropertiesWriter.write(file, properties, "test", true);
+            Assertions.assertEquals(properties, load(file));
+            Assertions.assertEquals(1, countFiles(file.getParent()));
+        }
+
+        @Test
+        void concurrentReaderSeesCompleteFiles() throws Exception {
+            Path file = Files.createTempDirectory("atomic").resolve("config.properties");
+            Properties first = generate("first", 300);
+            Properties second = generate("second", 100);
+            AtomicPropertiesWriter.write(file, first, "test", false);
+            Thread writer = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 200; i++) {
+                        AtomicPropertiesWriter.write(file, i % 2 == 0 ? second : first, "test", false);
+                    }
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            writer.start();
+            while (writer.isAlive()) {
+                Properties read = load(file);
+                Assertions.assertTrue(read.equals(first) || read.equals(second));
+            }
+            writer.join();
+        }
+
+        /**
+         * Kill the writer at random byte offsets, the target must always contain the complete previous content.
+         */
+        @Test
+        void killedAtRandomOffset() throws IOException {
+            Path file = Files.createTempDirectory("atomic").resolve("config.properties");
+            Properties old = generate("old", 200);
+            AtomicPropertiesWriter.write(file, old, "test", false);
+            long size = Files.size(file);
+            Random random = new Random(42);
+            for (int i = 0; i < 100; i++) {
+                long offset = random.nextInt((int) size);
+                Assertions.assertThrows(IOException.class,
+                        () -> AtomicPropertiesWriter.write(file, generate("new", 200), "test", false, out -> new KillingStream(out, offset)));
+                Assertions.assertEquals(old, load(file));
+                Assertions.assertEquals(1, countFiles(file.getParent()));
+            }
+        }
+    }
+
+    /**
+     * Stream failing once a given number of bytes has been written.
+     */
+    private static class KillingStream extends FilterOutputStream {
+
+        private long remaining;
+
+        private KillingStream(OutputStream out, long offset) {
+            super(out);
+            this.remaining = offset;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (this.remaining-- <= 0) {
+                throw new IOException("Writer killed");
+            }
+            super.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            for (int i = 0; i < len; i++) {
+                this.write(b[off + i]);
+            }
+        }
+    }
+}
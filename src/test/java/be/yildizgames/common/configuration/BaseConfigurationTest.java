@@ -0,0 +1,816 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import be.yildizgames.common.configuration.parameter.ApplicationArgs;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class BaseConfigurationTest {
+
+    @Nested
+    class Get {
+
+        @Test
+        void happyFlow() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("test", "value");
+            Assertions.assertEquals("value", configuration.get("test"));
+        }
+
+        @Test
+        void afterUpdate() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("test", "value");
+            configuration.updateValue("test", "changed");
+            Assertions.assertEquals("changed", configuration.get("test"));
+        }
+    }
+
+    @Nested
+    class GetInt {
+
+        @Test
+        void happyFlow() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("test", "12");
+            Assertions.assertEquals(12, configuration.getInt("test"));
+        }
+
+        @Test
+        void afterUpdate() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("test", "12");
+            Assertions.assertEquals(12, configuration.getInt("test"));
+            configuration.updateValue("test", "13");
+            Assertions.assertEquals(13, configuration.getInt("test"));
+        }
+
+        @Test
+        void missing() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("test", "12");
+            Assertions.assertThrows(IllegalStateException.class, () -> configuration.getInt("other"));
+        }
+
+        @Test
+        void missingWithDefault() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("test", "12");
+            Assertions.assertEquals(5, configuration.getInt("other", 5));
+        }
+    }
+
+    @Nested
+    class GetLocale {
+
+        @Test
+        void supported() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of(BaseConfiguration.LANGUAGE, "fr");
+            Assertions.assertEquals(Locale.FRENCH, configuration.getLocale());
+        }
+
+        @Test
+        void cached() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of(BaseConfiguration.LANGUAGE, "fr");
+            Assertions.assertSame(configuration.getLocale(), configuration.getLocale());
+        }
+
+        @Test
+        void notSetUseDefault() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("other", "value");
+            Assertions.assertEquals(Locale.FRENCH, configuration.getLocale());
+        }
+
+        @Test
+        void sameLanguageFallback() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of(BaseConfiguration.LANGUAGE, "fr-BE");
+            Assertions.assertEquals(Locale.FRENCH, configuration.getLocale());
+        }
+
+        @Test
+        void unsupportedFallbackToFirst() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of(BaseConfiguration.LANGUAGE, "tr");
+            Assertions.assertEquals(Locale.ENGLISH, configuration.getLocale());
+        }
+
+        @Test
+        void noSupportedLocale() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of(BaseConfiguration.LANGUAGE, "tr", List.of());
+            Assertions.assertEquals(Locale.forLanguageTag("tr"), configuration.getLocale());
+        }
+
+        @Test
+        void afterSetLocale() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of(BaseConfiguration.LANGUAGE, "fr");
+            Assertions.assertEquals(Locale.FRENCH, configuration.getLocale());
+            configuration.setLocale(Locale.ENGLISH);
+            Assertions.assertEquals(Locale.ENGLISH, configuration.getLocale());
+        }
+
+        @Test
+        void afterReload() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of(BaseConfiguration.LANGUAGE, "fr");
+            Assertions.assertEquals(Locale.FRENCH, configuration.getLocale());
+            Properties properties = new Properties();
+            properties.setProperty(BaseConfiguration.LANGUAGE, "en");
+            configuration.reload(properties);
+            Assertions.assertEquals(Locale.ENGLISH, configuration.getLocale());
+        }
+    }
+
+    @Nested
+    class SetLocaleAsync {
+
+        @Test
+        void happyFlow() throws Exception {
+            TestConfiguration configuration = TestConfiguration.of(BaseConfiguration.LANGUAGE, "fr");
+            List<Locale> notified = new CopyOnWriteArrayList<>();
+            configuration.addLocaleChangedListener(notified::add);
+            configuration.addLocaleChangedListener(notified::add);
+            CompletableFuture<Void> future = configuration.setLocaleAsync(Locale.ENGLISH);
+            Assertions.assertEquals(Locale.ENGLISH, configuration.getLocale());
+            future.get(5, TimeUnit.SECONDS);
+            Assertions.assertEquals(List.of(Locale.ENGLISH, Locale.ENGLISH), notified);
+            Assertions.assertEquals("en", load(configuration.getConfigFile()).getProperty(BaseConfiguration.LANGUAGE));
+        }
+
+        @Test
+        void listenersRunConcurrently() throws Exception {
+            TestConfiguration configuration = TestConfiguration.of(BaseConfiguration.LANGUAGE, "fr");
+            CountDownLatch latch = new CountDownLatch(2);
+            LocaleChangedListener listener = l -> {
+                latch.countDown();
+                try {
+                    if (!latch.await(5, TimeUnit.SECONDS)) {
+                        throw new IllegalStateException("Not concurrent");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            };
+            configuration.addLocaleChangedListener(listener);
+            configuration.addLocaleChangedListener(listener);
+            configuration.setLocaleAsync(Locale.ENGLISH).get(10, TimeUnit.SECONDS);
+        }
+
+        @Test
+        void failureIsolatedAndReported() throws IOException, InterruptedException {
+            TestConfiguration configuration = TestConfiguration.of(BaseConfiguration.LANGUAGE, "fr");
+            List<Locale> notified = new CopyOnWriteArrayList<>();
+            configuration.addLocaleChangedListener(l -> {
+                throw new IllegalStateException("failure");
+            });
+            configuration.addLocaleChangedListener(notified::add);
+            configuration.setListenerExecutor(Runnable::run);
+            ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> configuration.setLocaleAsync(Locale.ENGLISH).get());
+            Assertions.assertTrue(e.getCause() instanceof ListenerDispatchException);
+            Assertions.assertEquals(1, ((ListenerDispatchException) e.getCause()).getFailures().size());
+            Assertions.assertEquals(List.of(Locale.ENGLISH), notified);
+        }
+
+        @Test
+        void failuresReportedOnce() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of(BaseConfiguration.LANGUAGE, "fr");
+            IllegalStateException first = new IllegalStateException("first");
+            IllegalStateException second = new IllegalStateException("second");
+            configuration.addLocaleChangedListener(l -> {
+                throw first;
+            });
+            configuration.addLocaleChangedListener(l -> {
+                throw second;
+            });
+            configuration.setListenerExecutor(Runnable::run);
+            ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> configuration.setLocaleAsync(Locale.ENGLISH).get());
+            ListenerDispatchException dispatch = (ListenerDispatchException) e.getCause();
+            Assertions.assertEquals(List.of(first, second), dispatch.getFailures());
+            Assertions.assertSame(first, dispatch.getCause());
+            Assertions.assertEquals(List.of(second), List.of(dispatch.getSuppressed()));
+        }
+    }
+
+    @Nested
+    class WriteBehind {
+
+        @Test
+        void changesNotWrittenBeforeFlush() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("test", "value");
+            configuration.enableWriteBehind(Duration.ofHours(1));
+            configuration.updateValue("test", "changed");
+            Assertions.assertEquals(0, Files.size(configuration.getConfigFile()));
+            configuration.disableWriteBehind();
+        }
+
+        @Test
+        void flushWritesLastValues() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("test", "value");
+            configuration.enableWriteBehind(Duration.ofHours(1));
+            configuration.updateValue("test", "changed1");
+            configuration.updateValue("test", "changed2");
+            configuration.flush();
+            Assertions.assertEquals("changed2", load(configuration.getConfigFile()).getProperty("test"));
+            configuration.disableWriteBehind();
+        }
+
+        @Test
+        void writtenAfterInterval() throws IOException, InterruptedException {
+            TestConfiguration configuration = TestConfiguration.of("test", "value");
+            configuration.enableWriteBehind(Duration.ofMillis(10));
+            configuration.updateValue("test", "changed");
+            Thread.sleep(500);
+            Assertions.assertEquals("changed", load(configuration.getConfigFile()).getProperty("test"));
+            configuration.disableWriteBehind();
+        }
+
+        @Test
+        void disableWritesPendingChanges() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("test", "value");
+            configuration.enableWriteBehind(Duration.ofHours(1));
+            configuration.updateValue("test", "changed");
+            configuration.disableWriteBehind();
+            Assertions.assertEquals("changed", load(configuration.getConfigFile()).getProperty("test"));
+        }
+    }
+
+    @Nested
+    class Reload {
+
+        @Test
+        void diff() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("test", "value");
+            configuration.updateValue("removed", "value");
+            configuration.updateValue("unchanged", "value");
+            Properties properties = new Properties();
+            properties.setProperty("test", "changed");
+            properties.setProperty("unchanged", "value");
+            properties.setProperty("added", "value");
+            ConfigurationDiff diff = configuration.reload(properties);
+            Assertions.assertEquals(Set.of("test", "removed", "added"), diff.getChangedKeys());
+            Assertions.assertEquals("changed", diff.getChanges().get("test"));
+            Assertions.assertNull(diff.getChanges().get("removed"));
+            Assertions.assertEquals("changed", configuration.get("test"));
+            Assertions.assertNull(configuration.get("removed"));
+        }
+
+        @Test
+        void onlyConcernedListenersNotified() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("test", "value");
+            configuration.updateValue("other", "value");
+            List<String> notified = new ArrayList<>();
+            configuration.addConfigurationChangedListener(new TestListener("test", notified));
+            configuration.addConfigurationChangedListener(new TestListener("other", notified));
+            Properties properties = new Properties();
+            properties.setProperty("test", "changed");
+            properties.setProperty("other", "value");
+            configuration.reload(properties);
+            Assertions.assertEquals(List.of("test=changed"), notified);
+        }
+
+        @Test
+        void failingListenerDoesNotStopOthers() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("test", "value");
+            List<String> notified = new ArrayList<>();
+            configuration.addConfigurationChangedListener(new ConfigurationChangeListener() {
+                @Override
+                public List<String> getUsedConfigurationProperties() {
+                    return List.of("test");
+                }
+
+                @Override
+                public void onChange(String property, String newValue) {
+                    throw new IllegalStateException("failure");
+                }
+            });
+            configuration.addConfigurationChangedListener(new TestListener("test", notified));
+            Properties properties = new Properties();
+            properties.setProperty("test", "changed");
+            ListenerDispatchException e = Assertions.assertThrows(ListenerDispatchException.class, () -> configuration.reload(properties));
+            Assertions.assertEquals(1, e.getFailures().size());
+            Assertions.assertEquals(List.of("test=changed"), notified);
+            Assertions.assertEquals("changed", configuration.get("test"));
+        }
+
+        @Test
+        void removedListenerNotNotified() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("test", "value");
+            List<String> notified = new ArrayList<>();
+            TestListener listener = new TestListener("test", notified);
+            configuration.addConfigurationChangedListener(listener);
+            configuration.removeConfigurationChangedListener(listener);
+            configuration.addConfigurationChangedListener(new TestListener("test", notified));
+            Properties properties = new Properties();
+            properties.setProperty("test", "changed");
+            configuration.reload(properties);
+            Assertions.assertEquals(List.of("test=changed"), notified);
+        }
+
+        @Test
+        void localeListenerNotified() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of(BaseConfiguration.LANGUAGE, "en");
+            List<Locale> notified = new ArrayList<>();
+            configuration.addLocaleChangedListener(notified::add);
+            Properties properties = new Properties();
+            properties.setProperty(BaseConfiguration.LANGUAGE, "fr");
+            configuration.reload(properties);
+            Assertions.assertEquals(List.of(Locale.FRENCH), notified);
+        }
+
+        @Test
+        void noChange() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("test", "value");
+            Properties properties = new Properties();
+            properties.setProperty("test", "value");
+            Assertions.assertTrue(configuration.reload(properties).isEmpty());
+        }
+
+        @Test
+        void onChangeWithRetrieverOnlyImplementingOnReload() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("test", "value");
+            List<ConfigurationReloadedBehavior> behaviors = new ArrayList<>();
+            Properties properties = new Properties();
+            properties.setProperty("test", "changed");
+            ConfigurationRetriever retriever = new ConfigurationRetriever() {
+                @Override
+                public Properties retrieveFromArgs(ApplicationArgs args) {
+                    return properties;
+                }
+
+                @Override
+                public void onReload(ConfigurationReloadedBehavior behavior) {
+                    behaviors.add(behavior);
+                }
+            };
+            Assertions.assertNotNull(configuration.reloadOnChange(retriever, ApplicationArgs.of()));
+            Assertions.assertEquals(1, behaviors.size());
+            behaviors.get(0).reload();
+            Assertions.assertEquals("changed", configuration.get("test"));
+        }
+    }
+
+    @Nested
+    class UpdateValue {
+
+        @Test
+        void onlyConcernedListenersNotified() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("test", "value");
+            List<String> notified = new ArrayList<>();
+            configuration.addConfigurationChangedListener(new TestListener("test", notified));
+            configuration.addConfigurationChangedListener(new TestListener("other", notified));
+            configuration.updateValue("test", "changed");
+            Assertions.assertEquals(List.of("test=changed"), notified);
+        }
+
+        @Test
+        void placeholderDependentsNotified() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("host", "db");
+            configuration.updateValue("url", "jdbc://${host}/app");
+            List<String> notified = new ArrayList<>();
+            configuration.addConfigurationChangedListener(new TestListener("host", notified));
+            configuration.addConfigurationChangedListener(new TestListener("url", notified));
+            configuration.updateValue("host", "db2");
+            Assertions.assertEquals(List.of("host=db2", "url=jdbc://db2/app"), notified);
+            Assertions.assertEquals("jdbc://db2/app", configuration.get("url"));
+            Assertions.assertEquals("jdbc://${host}/app", load(configuration.getConfigFile()).getProperty("url"));
+        }
+
+        @Test
+        void placeholderCycleRejected() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("a", "${b}");
+            Assertions.assertThrows(IllegalStateException.class, () -> configuration.updateValue("b", "${a}"));
+            Assertions.assertNull(configuration.get("b"));
+        }
+    }
+
+    @Nested
+    class Update {
+
+        @Test
+        void listenerNotifiedOnceWithAllChanges() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("a", "1");
+            List<Map<String, String>> notified = new ArrayList<>();
+            configuration.addConfigurationChangedListener(new ConfigurationChangeListener() {
+                @Override
+                public List<String> getUsedConfigurationProperties() {
+                    return List.of("a", "b");
+                }
+
+                @Override
+                public void onChange(String property, String newValue) {
+                    Assertions.fail("onChanges expected");
+                }
+
+                @Override
+                public void onChanges(Map<String, String> changes) {
+                    notified.add(Map.copyOf(changes));
+                }
+            });
+            configuration.update(tx -> tx.set("a", "2").set("b", "3").set("c", "4"));
+            Assertions.assertEquals(List.of(Map.of("a", "2", "b", "3")), notified);
+            Assertions.assertEquals("2", configuration.get("a"));
+            Assertions.assertEquals("4", configuration.get("c"));
+        }
+
+        @Test
+        void defaultOnChangesCallsOnChange() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("a", "1");
+            List<String> notified = new ArrayList<>();
+            configuration.addConfigurationChangedListener(new TestListener("a", notified));
+            configuration.update(tx -> tx.set("a", "2").set("b", "3"));
+            Assertions.assertEquals(List.of("a=2"), notified);
+        }
+
+        @Test
+        void storedOnce() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("a", "1");
+            ConfigurationStatistics statistics = new ConfigurationStatistics();
+            configuration.setMetrics(statistics);
+            configuration.update(tx -> tx.set("a", "2").set("b", "3"));
+            Assertions.assertEquals(1, statistics.getStoreCount());
+            Properties stored = load(configuration.getConfigFile());
+            Assertions.assertEquals("2", stored.getProperty("a"));
+            Assertions.assertEquals("3", stored.getProperty("b"));
+        }
+
+        @Test
+        void unchangedValuesIgnored() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("a", "1");
+            ConfigurationStatistics statistics = new ConfigurationStatistics();
+            configuration.setMetrics(statistics);
+            Assertions.assertTrue(configuration.update(tx -> tx.set("a", "1")).isEmpty());
+            Assertions.assertEquals(0, statistics.getStoreCount());
+        }
+
+        @Test
+        void localeListenerNotified() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of(BaseConfiguration.LANGUAGE, "en");
+            List<Locale> notified = new ArrayList<>();
+            configuration.addLocaleChangedListener(notified::add);
+            configuration.update(tx -> tx.set(BaseConfiguration.LANGUAGE_KEY, "fr"));
+            Assertions.assertEquals(List.of(Locale.FRENCH), notified);
+        }
+    }
+
+    @Nested
+    class Versions {
+
+        @Test
+        void versionIncrementedOnChange() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("a", "1");
+            Assertions.assertEquals(0, configuration.version());
+            configuration.updateValue("a", "2");
+            Assertions.assertEquals(1, configuration.version());
+            configuration.update(tx -> tx.set("a", "2"));
+            Assertions.assertEquals(1, configuration.version());
+            configuration.update(tx -> tx.set("a", "3").set("b", "4"));
+            Assertions.assertEquals(2, configuration.version());
+        }
+
+        @Test
+        void noOpReloadKeepsVersionAndHistory() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("a", "1");
+            configuration.setHistorySize(2);
+            configuration.updateValue("a", "2");
+            Properties properties = new Properties();
+            properties.setProperty("a", "2");
+            for (int i = 0; i < 3; i++) {
+                Assertions.assertTrue(configuration.reload(properties).isEmpty());
+            }
+            Assertions.assertEquals(1, configuration.version());
+            Assertions.assertEquals("1", configuration.at(0).orElseThrow().get("a"));
+            Assertions.assertTrue(configuration.at(2).isEmpty());
+        }
+
+        @Test
+        void at() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("a", "1");
+            configuration.updateValue("a", "2");
+            ConfigurationVersion version = configuration.at(0).orElseThrow();
+            Assertions.assertEquals(0, version.version());
+            Assertions.assertEquals("1", version.get("a"));
+            Assertions.assertEquals("2", configuration.at(1).orElseThrow().get("a"));
+            Assertions.assertTrue(configuration.at(2).isEmpty());
+        }
+
+        @Test
+        void diff() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("a", "1");
+            configuration.updateValue("b", "2");
+            configuration.updateValue("a", "3");
+            Assertions.assertEquals(Map.of("a", "3", "b", "2"), configuration.diff(0, 2).getChanges());
+            Assertions.assertEquals(Collections.singletonMap("b", null), configuration.diff(1, 0).getChanges());
+        }
+
+        @Test
+        void rollbackNotifiesOnlyDifferences() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("a", "1");
+            configuration.updateValue("b", "1");
+            long good = configuration.version();
+            configuration.updateValue("a", "2");
+            configuration.updateValue("a", "3");
+            List<String> notified = new ArrayList<>();
+            configuration.addConfigurationChangedListener(new TestListener("a", notified));
+            configuration.addConfigurationChangedListener(new TestListener("b", notified));
+            ConfigurationDiff diff = configuration.rollback(good);
+            Assertions.assertEquals(Map.of("a", "1"), diff.getChanges());
+            Assertions.assertEquals(List.of("a=1"), notified);
+            Assertions.assertEquals(good, configuration.version());
+            Assertions.assertEquals("1", configuration.get("a"));
+            Assertions.assertEquals("1", load(configuration.getConfigFile()).getProperty("a"));
+        }
+
+        @Test
+        void rollbackCanBeUndone() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("a", "1");
+            configuration.updateValue("a", "2");
+            configuration.rollback(0);
+            configuration.rollback(1);
+            Assertions.assertEquals("2", configuration.get("a"));
+            configuration.updateValue("a", "3");
+            Assertions.assertEquals(2, configuration.version());
+        }
+
+        @Test
+        void rollbackSharesSnapshot() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("a", "1");
+            ConfigKey<Integer> key = ConfigKey.ofInt("a");
+            Integer parsed = configuration.get(key);
+            configuration.updateValue("a", "2");
+            configuration.rollback(0);
+            Assertions.assertSame(parsed, configuration.get(key));
+        }
+
+        @Test
+        void historyLimited() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("a", "0");
+            configuration.setHistorySize(3);
+            for (int i = 1; i <= 5; i++) {
+                configuration.updateValue("a", String.valueOf(i));
+            }
+            Assertions.assertTrue(configuration.at(2).isEmpty());
+            Assertions.assertEquals("3", configuration.at(3).orElseThrow().get("a"));
+            Assertions.assertThrows(IllegalStateException.class, () -> configuration.rollback(1));
+            Assertions.assertThrows(IllegalStateException.class, () -> configuration.diff(0, 5));
+        }
+
+        @Test
+        void reloadCreatesVersion() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("a", "1");
+            Properties properties = new Properties();
+            properties.setProperty("a", "bad");
+            configuration.reload(properties);
+            Assertions.assertEquals(1, configuration.version());
+            configuration.rollback(0);
+            Assertions.assertEquals("1", configuration.get("a"));
+        }
+    }
+
+    @Nested
+    class Journal {
+
+        @Test
+        void changesSharedBetweenConfigurations() throws IOException, InterruptedException {
+            Path file = Files.createTempFile("configuration", ".properties");
+            Files.writeString(file, "test=value\n");
+            TestConfiguration writer = TestConfiguration.of(file);
+            TestConfiguration reader = TestConfiguration.of(file);
+            List<String> notified = new CopyOnWriteArrayList<>();
+            reader.addConfigurationChangedListener(new TestListener("test", notified));
+            ConfigurationWatch writerJournal = writer.enableJournal(Duration.ofMillis(10), Duration.ofHours(1));
+            ConfigurationWatch readerJournal = reader.enableJournal(Duration.ofMillis(10), Duration.ofHours(1));
+            try {
+                writer.updateValue("test", "changed");
+                Assertions.assertEquals("value", load(file).getProperty("test"));
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                // The value is visible before the listeners are notified.
+                while (notified.isEmpty() && System.nanoTime() < deadline) {
+                    Thread.sleep(10);
+                }
+                Assertions.assertEquals("changed", reader.get("test"));
+                Assertions.assertEquals(List.of("test=changed"), notified);
+            } finally {
+                writerJournal.close();
+                readerJournal.close();
+            }
+            Assertions.assertEquals("changed", load(file).getProperty("test"));
+        }
+
+        @Test
+        void overridesKeptWhenFileReloaded() throws IOException, InterruptedException {
+            Path file = Files.createTempFile("configuration", ".properties");
+            Files.writeString(file, "test=value\nblock=0\n");
+            LayeredConfiguration stored = LayeredConfiguration.of(ConfigurationSources.fromProperties("file", load(file)));
+            TestConfiguration reader = TestConfiguration.of(OverriddenProperties.of(stored, stored.with(ConfigurationSources.fromArgs(ApplicationArgs.of("test=arg")))), file);
+            TestConfiguration writer = TestConfiguration.of(file);
+            CountDownLatch polled = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            // Keep the reader busy, so the writer compacts the journal before the reader reads the next change.
+            reader.addConfigurationChangedListener(new ConfigurationChangeListener() {
+                @Override
+                public List<String> getUsedConfigurationProperties() {
+                    return List.of("block");
+                }
+
+                @Override
+                public void onChange(String property, String newValue) {
+                    polled.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            ConfigurationWatch readerJournal = reader.enableJournal(Duration.ofMillis(10), Duration.ofHours(1));
+            try {
+                ConfigurationWatch writerJournal = writer.enableJournal(Duration.ofHours(1), Duration.ofHours(1));
+                writer.updateValue("block", "1");
+                Assertions.assertTrue(polled.await(5, TimeUnit.SECONDS));
+                writer.updateValue("other", "changed");
+                writerJournal.close();
+                release.countDown();
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (reader.get("other") == null && System.nanoTime() < deadline) {
+                    Thread.sleep(10);
+                }
+                Assertions.assertEquals("changed", reader.get("other"));
+                Assertions.assertEquals("arg", reader.get("test"));
+            } finally {
+                release.countDown();
+                readerJournal.close();
+            }
+            Assertions.assertEquals("value", load(file).getProperty("test"));
+        }
+
+        @Test
+        void alreadyEnabled() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("test", "value");
+            ConfigurationWatch watch = configuration.enableJournal(Duration.ofSeconds(1), Duration.ofHours(1));
+            try {
+                Assertions.assertThrows(IllegalStateException.class, () -> configuration.enableJournal(Duration.ofSeconds(1), Duration.ofHours(1)));
+            } finally {
+                watch.close();
+            }
+        }
+    }
+
+    @Nested
+    class Bind {
+
+        record Server(String host, int port) {
+        }
+
+        @Test
+        void reboundOnlyWhenUsedKeyChanges() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("server.host", "localhost");
+            configuration.updateValue("server.port", "80");
+            List<Server> configured = new ArrayList<>();
+            ConfigurationWatch watch = configuration.bind(Server.class, "server", configured::add);
+            configuration.updateValue("other", "value");
+            configuration.update(tx -> tx.set("server.host", "remote").set("server.port", "8080"));
+            watch.close();
+            configuration.updateValue("server.port", "9090");
+            Assertions.assertEquals(List.of(new Server("localhost", 80), new Server("remote", 8080)), configured);
+        }
+    }
+
+    @Nested
+    class Metrics {
+
+        @Test
+        void readsCounted() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("test", "1");
+            ConfigurationStatistics statistics = new ConfigurationStatistics();
+            configuration.setMetrics(statistics);
+            configuration.get("test");
+            configuration.getInt("test");
+            configuration.getInt("missing", 2);
+            Assertions.assertEquals(2, statistics.getReadCount("test"));
+            Assertions.assertEquals(1, statistics.getReadCount("missing"));
+        }
+
+        @Test
+        void missingLocaleReadCountedOnce() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("test", "value");
+            ConfigurationStatistics statistics = new ConfigurationStatistics();
+            configuration.setMetrics(statistics);
+            Assertions.assertEquals(Locale.FRENCH, configuration.getLocale());
+            Assertions.assertEquals(1, statistics.getReadCount(BaseConfiguration.LANGUAGE));
+        }
+
+        @Test
+        void storeAndReloadMeasured() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("test", "value");
+            ConfigurationStatistics statistics = new ConfigurationStatistics();
+            configuration.setMetrics(statistics);
+            configuration.updateValue("test", "changed");
+            configuration.reload(new Properties());
+            Assertions.assertEquals(1, statistics.getStoreCount());
+            Assertions.assertEquals(1, statistics.getReloadCount());
+        }
+
+        @Test
+        void listenerFailureCounted() throws IOException {
+            TestConfiguration configuration = TestConfiguration.of("test", "value");
+            ConfigurationStatistics statistics = new ConfigurationStatistics();
+            configuration.setMetrics(statistics);
+            configuration.addConfigurationChangedListener(new TestListener("test", new ArrayList<>()));
+            configuration.addConfigurationChangedListener(new ConfigurationChangeListener() {
+                @Override
+                public List<String> getUsedConfigurationProperties() {
+                    return List.of("test");
+                }
+
+                @Override
+                public void onChange(String property, String newValue) {
+                    throw new IllegalStateException("failure");
+                }
+            });
+            Assertions.assertThrows(IllegalStateException.class, () -> configuration.updateValue("test", "changed"));
+            Assertions.assertEquals(2, statistics.getListenerDispatchCount());
+            Assertions.assertEquals(1, statistics.getListenerFailureCount());
+        }
+    }
+
+    private record TestListener(String property, List<String> notified) implements ConfigurationChangeListener {
+
+        @Override
+        public List<String> getUsedConfigurationProperties() {
+            return List.of(this.property);
+        }
+
+        @Override
+        public void onChange(String property, String newValue) {
+            this.notified.add(property + "=" + newValue);
+        }
+    }
+
+    private static Properties load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+        return properties;
+    }
+
+    static class TestConfiguration extends BaseConfiguration {
+
+        private final Path file;
+
+        private TestConfiguration(Properties properties, List<Locale> supportedLocales, Path file) {
+            super(properties, supportedLocales);
+            this.file = file;
+        }
+
+        static TestConfiguration of(String key, String value) throws IOException {
+            return of(key, value, List.of(Locale.ENGLISH, Locale.FRENCH));
+        }
+
+        static TestConfiguration of(Path file) throws IOException {
+            return new TestConfiguration(load(file), List.of(Locale.ENGLISH, Locale.FRENCH), file);
+        }
+
+        static TestConfiguration of(Properties properties, Path file) {
+            return new TestConfiguration(properties, List.of(Locale.ENGLISH, Locale.FRENCH), file);
+        }
+
+        static TestConfiguration of(String key, String value, List<Locale> supportedLocales) throws IOException {
+            Properties properties = new Properties();
+            properties.setProperty(key, value);
+            return new TestConfiguration(properties, supportedLocales, Files.createTempFile("configuration", ".properties"));
+        }
+
+        @Override
+        protected Path getConfigFile() {
+            return this.file;
+        }
+    }
+}
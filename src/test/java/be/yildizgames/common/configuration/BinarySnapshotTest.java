@@ -0,0 +1,125 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Properties;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class BinarySnapshotTest {
+
+    private static Properties properties() {
+        Properties properties = new Properties();
+        properties.setProperty("key", "value");
+        properties.setProperty("other", "value");
+        properties.setProperty("utf8", "éèç");
+        properties.setProperty("empty", "");
+        return properties;
+    }
+
+    @Nested
+    class Decode {
+
+        @Test
+        void happyFlow() throws IOException {
+            byte[] content = BinarySnapshot.encode(properties(), 10, 20);
+            Assertions.assertEquals(properties(), BinarySnapshot.decode(content, 10, 20).orElseThrow());
+        }
+
+        @Test
+        void stale() throws IOException {
+            byte[] content = BinarySnapshot.encode(properties(), 10, 20);
+            Assertions.assertTrue(BinarySnapshot.decode(content, 11, 20).isEmpty());
+            Assertions.assertTrue(BinarySnapshot.decode(content, 10, 21).isEmpty());
+        }
+
+        @Test
+        void corrupted() throws IOException {
+            byte[] content = BinarySnapshot.encode(properties(), 10, 20);
+            for (int i = 0; i < content.length; i++) {
+                byte[] corrupted = content.clone();
+                corrupted[i] ^= 0x5A;
+                Assertions.assertTrue(BinarySnapshot.decode(corrupted, 10, 20).isEmpty());
+            }
+        }
+
+        @Test
+        void truncated() throws IOException {
+            byte[] content = BinarySnapshot.encode(properties(), 10, 20);
+            for (int i = 0; i < content.length; i++) {
+                byte[] truncated = new byte[i];
+                System.arraycopy(content, 0, truncated, 0, i);
+                Assertions.assertTrue(BinarySnapshot.decode(truncated, 10, 20).isEmpty());
+            }
+        }
+    }
+
+    @Nested
+    class Read {
+
+        @Test
+        void happyFlow() throws IOException {
+            Path file = Files.createTempFile("snapshot", ".properties");
+            Files.writeString(file, "key=value\n");
+            BinarySnapshot.write(file, properties());
+            Assertions.assertEquals(properties(), BinarySnapshot.read(file).orElseThrow());
+        }
+
+        @Test
+        void noSnapshot() throws IOException {
+            Path file = Files.createTempFile("snapshot", ".properties");
+            Assertions.assertTrue(BinarySnapshot.read(file).isEmpty());
+        }
+
+        @Test
+        void sourceModified() throws IOException {
+            Path file = Files.createTempFile("snapshot", ".properties");
+            Files.writeString(file, "key=value\n");
+            BinarySnapshot.write(file, properties());
+            Files.writeString(file, "key=other\n");
+            Assertions.assertTrue(BinarySnapshot.read(file).isEmpty());
+        }
+
+        @Test
+        void sourceModifiedWithSameSizeAndModificationTime() throws IOException {
+            Path file = Files.createTempFile("snapshot", ".properties");
+            Files.writeString(file, "language=fr\n");
+            FileTime modified = Files.getLastModifiedTime(file);
+            BinarySnapshot.write(file, properties());
+            Files.writeString(file, "language=en\n");
+            Files.setLastModifiedTime(file, modified);
+            Assertions.assertTrue(BinarySnapshot.read(file).isEmpty());
+        }
+
+        @Test
+        void sourceTouchedWithoutChange() throws IOException {
+            Path file = Files.createTempFile("snapshot", ".properties");
+            Files.writeString(file, "key=value\n");
+            BinarySnapshot.write(file, properties());
+            Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 1000));
+            Assertions.assertEquals(properties(), BinarySnapshot.read(file).orElseThrow());
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class ChangeJournalTest {
+
+    private static Path configFile() throws IOException {
+        Path file = Files.createTempDirectory("journal").resolve("configuration.properties");
+        Files.writeString(file, "initial=value\n");
+        return file;
+    }
+
+    @Nested
+    class Poll {
+
+        @Test
+        void appendedByOther() throws IOException {
+            Path file = configFile();
+            try (ChangeJournal writer = ChangeJournal.open(file, 4096); ChangeJournal reader = ChangeJournal.open(file, 4096)) {
+                Assertions.assertEquals(1, writer.append(Map.of("a", "1")));
+                Map<String, String> removed = new HashMap<>();
+                removed.put("b", null);
+                Assertions.assertEquals(2, writer.append(removed));
+                ChangeJournal.Poll poll = reader.poll();
+                Assertions.assertFalse(poll.reload());
+                Assertions.assertEquals("1", poll.changes().get("a"));
+                Assertions.assertTrue(poll.changes().containsKey("b"));
+                Assertions.assertNull(poll.changes().get("b"));
+                Assertions.assertEquals(2, poll.version());
+                Assertions.assertTrue(reader.poll().isEmpty());
+            }
+        }
+
+        @Test
+        void ownChangesNotReadBack() throws IOException {
+            Path file = configFile();
+            try (ChangeJournal journal = ChangeJournal.open(file, 4096)) {
+                journal.append(Map.of("a", "1"));
+                Assertions.assertTrue(journal.poll().isEmpty());
+            }
+        }
+
+        @Test
+        void existingRecordsReadWhenOpening() throws IOException {
+            Path file = configFile();
+            try (ChangeJournal writer = ChangeJournal.open(file, 4096)) {
+                writer.append(Map.of("a", "1"));
+            }
+            try (ChangeJournal reader = ChangeJournal.open(file, 4096)) {
+                Assertions.assertEquals(Map.of("a", "1"), reader.poll().changes());
+            }
+        }
+
+        @Test
+        void reloadWhenCompactedBeforeRead() throws IOException {
+            Path file = configFile();
+            try (ChangeJournal writer = ChangeJournal.open(file, 4096); ChangeJournal reader = ChangeJournal.open(file, 4096)) {
+                writer.append(Map.of("a", "1"));
+                writer.compact();
+                writer.append(Map.of("b", "2"));
+                ChangeJournal.Poll poll = reader.poll();
+                Assertions.assertTrue(poll.reload());
+                Assertions.assertEquals(Map.of("b", "2"), poll.changes());
+            }
+        }
+
+        @Test
+        void noReloadWhenCompactedAfterRead() throws IOException {
+            Path file = configFile();
+            try (ChangeJournal writer = ChangeJournal.open(file, 4096); ChangeJournal reader = ChangeJournal.open(file, 4096)) {
+                writer.append(Map.of("a", "1"));
+                reader.poll();
+                writer.compact();
+                ChangeJournal.Poll poll = reader.poll();
+                Assertions.assertTrue(poll.isEmpty());
+            }
+        }
+    }
+
+    @Nested
+    class Compact {
+
+        @Test
+        void foldedInConfigurationFile() throws IOException {
+            Path file = configFile();
+            try (ChangeJournal journal = ChangeJournal.open(file, 4096)) {
+                journal.append(Map.of("a", "1"));
+                Map<String, String> removed = new HashMap<>();
+                removed.put("initial", null);
+                journal.append(removed);
+                journal.compact();
+                Assertions.assertEquals(0, journal.usage());
+            }
+            Properties properties = load(file);
+            Assertions.assertEquals("1", properties.getProperty("a"));
+            Assertions.assertNull(properties.getProperty("initial"));
+        }
+
+        @Test
+        void whenFull() throws IOException {
+            Path file = configFile();
+            try (ChangeJournal journal = ChangeJournal.open(file, 256)) {
+                for (int i = 0; i < 100; i++) {
+                    journal.append(Map.of("key", String.valueOf(i)));
+                }
+            }
+            try (ChangeJournal reader = ChangeJournal.open(file, 256)) {
+                ChangeJournal.Poll poll = reader.poll();
+                String value = poll.changes().getOrDefault("key", load(file).getProperty("key"));
+                Assertions.assertEquals("99", value);
+            }
+        }
+
+        @Test
+        void recordTooLarge() throws IOException {
+            Path file = configFile();
+            try (ChangeJournal journal = ChangeJournal.open(file, 256)) {
+                Assertions.assertThrows(IllegalStateException.class, () -> journal.append(Map.of("key", "x".repeat(1000))));
+            }
+        }
+    }
+
+    private static Properties load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class ConfigKeyTest {
+
+    private static ConfigurationSnapshot snapshot(String key, String value) {
+        Properties properties = new Properties();
+        properties.setProperty(key, value);
+        return ConfigurationSnapshot.of(properties);
+    }
+
+    @Nested
+    class Slot {
+
+        @Test
+        void sameNameSameSlot() {
+            Assertions.assertEquals(ConfigKey.ofString("key.slot").slot, ConfigKey.ofInt("key.slot").slot);
+        }
+
+        @Test
+        void differentNameDifferentSlot() {
+            Assertions.assertNotEquals(ConfigKey.ofString("key.slot1").slot, ConfigKey.ofString("key.slot2").slot);
+        }
+
+        @Test
+        void registeredAfterSnapshot() {
+            ConfigurationSnapshot snapshot = snapshot("key.late", "value");
+            ConfigKey<String> key = ConfigKey.ofString("key.late");
+            Assertions.assertEquals("value", key.read(snapshot));
+        }
+    }
+
+    @Nested
+    class Read {
+
+        @Test
+        void string() {
+            ConfigKey<String> key = ConfigKey.ofString("key.string");
+            Assertions.assertEquals("value", key.read(snapshot("key.string", "value")));
+        }
+
+        @Test
+        void typed() {
+            Assertions.assertEquals(5, ConfigKey.ofInt("key.int").read(snapshot("key.int", "5")));
+            Assertions.assertEquals(5L, ConfigKey.ofLong("key.long").read(snapshot("key.long", "5")));
+            Assertions.assertEquals(0.5, ConfigKey.ofDouble("key.double").read(snapshot("key.double", "0.5")));
+            Assertions.assertEquals(true, ConfigKey.ofBoolean("key.boolean").read(snapshot("key.boolean", "true")));
+            Assertions.assertEquals(1024L, ConfigKey.ofSize("key.size").read(snapshot("key.size", "1KB")));
+            Assertions.assertEquals(Duration.ofSeconds(2), ConfigKey.ofDuration("key.duration").read(snapshot("key.duration", "2s")));
+            Assertions.assertEquals(List.of("a", "b"), ConfigKey.ofList("key.list").read(snapshot("key.list", "a,b")));
+            Assertions.assertEquals(ChronoUnit.DAYS, ConfigKey.ofEnum("key.enum", ChronoUnit.class).read(snapshot("key.enum", "days")));
+        }
+
+        @Test
+        void cached() {
+            ConfigurationSnapshot snapshot = snapshot("key.cached", "500");
+            ConfigKey<Integer> key = ConfigKey.ofInt("key.cached");
+            Assertions.assertSame(key.read(snapshot), key.read(snapshot));
+        }
+
+        @Test
+        void afterChange() {
+            ConfigKey<Integer> key = ConfigKey.ofInt("key.changed");
+            ConfigurationSnapshot snapshot = snapshot("key.changed", "1");
+            Assertions.assertEquals(1, key.read(snapshot));
+            Assertions.assertEquals(2, key.read(snapshot.with("key.changed", "2")));
+        }
+
+        @Test
+        void missing() {
+            ConfigKey<String> key = ConfigKey.ofString("key.missing");
+            ConfigurationSnapshot snapshot = snapshot("other", "value");
+            Assertions.assertThrows(IllegalStateException.class, () -> key.read(snapshot));
+        }
+
+        @Test
+        void missingWithDefault() {
+            ConfigKey<String> key = ConfigKey.ofString("key.missing").withDefault("default");
+            Assertions.assertEquals("default", key.read(snapshot("other", "value")));
+        }
+    }
+
+    @Nested
+    class Parse {
+
+        @Test
+        void happyFlow() {
+            Assertions.assertEquals(Duration.ofMinutes(2), ConfigKey.ofDuration("key.parse").parse(" 2m "));
+            Assertions.assertEquals(List.of("a", "b"), ConfigKey.ofList("key.parse").parse("a, ,b"));
+        }
+
+        @Test
+        void invalid() {
+            ConfigKey<Integer> key = ConfigKey.ofInt("key.parse").withDefault(1);
+            Assertions.assertThrows(IllegalStateException.class, () -> key.parse("abc"));
+        }
+    }
+}
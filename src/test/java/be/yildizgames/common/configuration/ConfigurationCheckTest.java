@@ -0,0 +1,84 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import be.yildizgames.common.configuration.parameter.ApplicationArgs;
+import be.yildizgames.common.configuration.parameter.DefaultArgName;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class ConfigurationCheckTest {
+
+    private final ConfigurationSchema schema = ConfigurationSchema.of(PropertyRule.of(ConfigKey.ofInt("port")).required());
+
+    @Nested
+    class IsRequested {
+
+        @Test
+        void withoutValue() {
+            Assertions.assertTrue(ConfigurationCheck.isRequested(ApplicationArgs.of(DefaultArgName.CONFIGURATION_CHECK)));
+        }
+
+        @Test
+        void withValue() {
+            Assertions.assertTrue(ConfigurationCheck.isRequested(ApplicationArgs.of(DefaultArgName.CONFIGURATION_CHECK + "=a.properties")));
+        }
+
+        @Test
+        void notRequested() {
+            Assertions.assertFalse(ConfigurationCheck.isRequested(ApplicationArgs.of("other")));
+        }
+    }
+
+    @Nested
+    class Run {
+
+        @Test
+        void valid() throws IOException {
+            Path config = Files.createTempFile("config", ".properties");
+            Files.writeString(config, "port=80\n");
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            boolean result = ConfigurationCheck.run(ApplicationArgs.of(DefaultArgName.CONFIGURATION_CHECK + "=" + config),
+                    ConfigurationRetrieverFactory.fromFile(new ConfigurationNotFoundException()), schema,
+                    new PrintStream(out, true, StandardCharsets.UTF_8));
+            Assertions.assertTrue(result);
+            Assertions.assertEquals("{\"valid\":true,\"checked\":1,\"errors\":[]}", out.toString(StandardCharsets.UTF_8).trim());
+        }
+
+        @Test
+        void invalid() throws IOException {
+            Path config = Files.createTempFile("config", ".properties");
+            Files.writeString(config, "port=abc\n");
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            boolean result = ConfigurationCheck.run(ApplicationArgs.of(DefaultArgName.CONFIGURATION_CHECK + "=" + config),
+                    ConfigurationRetrieverFactory.fromFile(new ConfigurationNotFoundException()), schema,
+                    new PrintStream(out, true, StandardCharsets.UTF_8));
+            Assertions.assertFalse(result);
+            Assertions.assertTrue(out.toString(StandardCharsets.UTF_8).startsWith("{\"valid\":false,\"checked\":1,\"errors\":[{\"source\":"));
+        }
+    }
+}
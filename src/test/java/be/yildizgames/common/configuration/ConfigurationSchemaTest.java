@@ -0,0 +1,174 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class ConfigurationSchemaTest {
+
+    private static Properties properties(String... keyValues) {
+        Properties properties = new Properties();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            properties.setProperty(keyValues[i], keyValues[i + 1]);
+        }
+        return properties;
+    }
+
+    @Nested
+    class Of {
+
+        @Test
+        void duplicatedRule() {
+            Assertions.assertThrows(IllegalStateException.class, () -> ConfigurationSchema.of(
+                    PropertyRule.of(ConfigKey.ofInt("port")), PropertyRule.of(ConfigKey.ofString("port"))));
+        }
+
+        @Test
+        void rangeOnList() {
+            PropertyRule<List<String>> rule = PropertyRule.of(ConfigKey.ofList("hosts"));
+            Assertions.assertThrows(IllegalStateException.class, () -> rule.range(List.of(), null));
+        }
+    }
+
+    @Nested
+    class Validate {
+
+        @Test
+        void valid() {
+            ConfigurationSchema schema = ConfigurationSchema.of(
+                    PropertyRule.of(ConfigKey.ofInt("port")).required().range(1, 65535),
+                    PropertyRule.of(ConfigKey.ofDuration("timeout")).range(Duration.ofSeconds(1), Duration.ofMinutes(1)),
+                    PropertyRule.of(ConfigKey.ofString("host")).matching("[a-z.]+"));
+            ValidationReport report = schema.validate("test", properties("port", "80", "timeout", "30s", "host", "db.local"));
+            Assertions.assertTrue(report.isValid());
+            Assertions.assertEquals("{\"valid\":true,\"checked\":1,\"errors\":[]}", report.toJson());
+        }
+
+        @Test
+        void placeholdersResolvedAcrossSources() {
+            ConfigurationSchema schema = ConfigurationSchema.of(PropertyRule.of(ConfigKey.ofInt("port")).range(1, 65535));
+            LayeredConfiguration configuration = LayeredConfiguration.of(
+                    ConfigurationSources.fromProperties("defaults", properties("base.port", "80")),
+                    ConfigurationSources.fromProperties("file", properties("port", "${base.port}")));
+            Assertions.assertTrue(schema.validate("test", configuration).isValid());
+        }
+
+        @Test
+        void placeholderCycleReported() {
+            ConfigurationSchema schema = ConfigurationSchema.of(PropertyRule.of(ConfigKey.ofInt("port")));
+            ValidationReport report = schema.validate("test", properties("port", "${other}", "other", "${port}"));
+            Assertions.assertEquals(1, report.getErrors().size());
+        }
+
+        @Test
+        void missingOptional() {
+            ConfigurationSchema schema = ConfigurationSchema.of(PropertyRule.of(ConfigKey.ofInt("port")));
+            Assertions.assertTrue(schema.validate("test", new Properties()).isValid());
+        }
+
+        @Test
+        void allErrorsReported() {
+            ConfigurationSchema schema = ConfigurationSchema.of(
+                    PropertyRule.of(ConfigKey.ofInt("port")).range(1, 65535),
+                    PropertyRule.of(ConfigKey.ofInt("size")),
+                    PropertyRule.of(ConfigKey.ofString("host")).required(),
+                    PropertyRule.of(ConfigKey.ofString("name")).matching("[a-z]+"),
+                    PropertyRule.of(ConfigKey.ofString("mode")).allowedValues("read", "write"));
+            ValidationReport report = schema.validate("test",
+                    properties("port", "70000", "size", "big", "name", "A1", "mode", "delete"));
+            List<ValidationError> errors = report.getErrors();
+            Assertions.assertEquals(5, errors.size());
+            Assertions.assertEquals(List.of("port", "size", "host", "name", "mode"), errors.stream().map(ValidationError::key).toList());
+            Assertions.assertNull(errors.get(2).value());
+            Assertions.assertEquals("70000", errors.get(0).value());
+        }
+
+        @Test
+        void requiredIgnoresKeyDefault() {
+            ConfigurationSchema schema = ConfigurationSchema.of(PropertyRule.of(ConfigKey.ofInt("port").withDefault(80)).required());
+            Assertions.assertFalse(schema.validate("test", new Properties()).isValid());
+        }
+
+        @Test
+        void unknownKeys() {
+            ConfigurationSchema schema = ConfigurationSchema.of(PropertyRule.of(ConfigKey.ofInt("port"))).rejectUnknownKeys();
+            ValidationReport report = schema.validate("test", properties("port", "80", "prot", "81"));
+            Assertions.assertEquals(1, report.getErrors().size());
+            Assertions.assertEquals("prot", report.getErrors().get(0).key());
+        }
+
+        @Test
+        void unknownKeysAllowedByDefault() {
+            ConfigurationSchema schema = ConfigurationSchema.of(PropertyRule.of(ConfigKey.ofInt("port")));
+            Assertions.assertTrue(schema.validate("test", properties("port", "80", "prot", "81")).isValid());
+        }
+
+        @Test
+        void manyRulesSplitKeepOrder() {
+            PropertyRule<?>[] rules = new PropertyRule<?>[1000];
+            Properties properties = new Properties();
+            for (int i = 0; i < rules.length; i++) {
+                rules[i] = PropertyRule.of(ConfigKey.ofInt("key" + i));
+                properties.setProperty("key" + i, i % 3 == 0 ? "invalid" : String.valueOf(i));
+            }
+            ForkJoinPool pool = new ForkJoinPool(4);
+            try {
+                ValidationReport report = ConfigurationSchema.of(rules).validate(List.of(
+                        new ConfigurationSchema.Input("a", () -> LayeredConfiguration.of(ConfigurationSources.fromProperties("a", properties))),
+                        new ConfigurationSchema.Input("b", () -> {
+                            throw new IllegalStateException("Cannot read b");
+                        })), pool);
+                Assertions.assertEquals(2, report.getCheckedCount());
+                Assertions.assertEquals(335, report.getErrors().size());
+                for (int i = 0; i < 334; i++) {
+                    Assertions.assertEquals("key" + (i * 3), report.getErrors().get(i).key());
+                }
+                Assertions.assertEquals("b", report.getErrors().get(334).source());
+                Assertions.assertEquals("Cannot read b", report.getErrors().get(334).message());
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Nested
+    class ToJson {
+
+        @Test
+        void escaped() {
+            ValidationReport report = new ValidationReport(1, List.of(new ValidationError("c:\\a.properties", "key", "a\"b", "line\nbreak")));
+            Assertions.assertEquals("{\"valid\":false,\"checked\":1,\"errors\":[{\"source\":\"c:\\\\a.properties\",\"key\":\"key\","
+                    + "\"value\":\"a\\\"b\",\"message\":\"line\\nbreak\"}]}", report.toJson());
+        }
+
+        @Test
+        void nullValues() {
+            ValidationReport report = new ValidationReport(1, List.of(new ValidationError("a", null, null, "error")));
+            Assertions.assertEquals("{\"valid\":false,\"checked\":1,\"errors\":[{\"source\":\"a\",\"key\":null,"
+                    + "\"value\":null,\"message\":\"error\"}]}", report.toJson());
+        }
+    }
+}
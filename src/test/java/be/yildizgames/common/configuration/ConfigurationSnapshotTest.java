@@ -0,0 +1,221 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class ConfigurationSnapshotTest {
+
+    @Nested
+    class Of {
+
+        @Test
+        void happyFlow() {
+            Properties properties = new Properties();
+            properties.setProperty("test", "value");
+            ConfigurationSnapshot snapshot = ConfigurationSnapshot.of(properties);
+            Assertions.assertEquals("value", snapshot.get("test"));
+        }
+
+        @Test
+        void withDefaults() {
+            Properties defaults = new Properties();
+            defaults.setProperty("default", "value");
+            ConfigurationSnapshot snapshot = ConfigurationSnapshot.of(new Properties(defaults));
+            Assertions.assertEquals("value", snapshot.get("default"));
+        }
+
+        @Test
+        void notImpactedByPropertiesChange() {
+            Properties properties = new Properties();
+            properties.setProperty("test", "value");
+            ConfigurationSnapshot snapshot = ConfigurationSnapshot.of(properties);
+            properties.setProperty("test", "changed");
+            Assertions.assertEquals("value", snapshot.get("test"));
+        }
+
+        @Test
+        void withNull() {
+            Assertions.assertThrows(NullPointerException.class, () -> ConfigurationSnapshot.of(null));
+        }
+    }
+
+    @Nested
+    class Get {
+
+        @Test
+        void notFound() {
+            ConfigurationSnapshot snapshot = ConfigurationSnapshot.of(new Properties());
+            Assertions.assertNull(snapshot.get("test"));
+        }
+
+        @Test
+        void notFoundWithDefault() {
+            ConfigurationSnapshot snapshot = ConfigurationSnapshot.of(new Properties());
+            Assertions.assertEquals("default", snapshot.get("test", "default"));
+        }
+    }
+
+    @Nested
+    class With {
+
+        @Test
+        void happyFlow() {
+            Properties properties = new Properties();
+            properties.setProperty("test", "value");
+            ConfigurationSnapshot snapshot = ConfigurationSnapshot.of(properties);
+            ConfigurationSnapshot changed = snapshot.with("test", "changed");
+            Assertions.assertEquals("value", snapshot.get("test"));
+            Assertions.assertEquals("changed", changed.get("test"));
+        }
+
+        @Test
+        void withNullValue() {
+            ConfigurationSnapshot snapshot = ConfigurationSnapshot.of(new Properties());
+            Assertions.assertThrows(NullPointerException.class, () -> snapshot.with("test", null));
+        }
+    }
+
+    @Nested
+    class WithAll {
+
+        @Test
+        void happyFlow() {
+            Properties properties = new Properties();
+            properties.setProperty("test", "value");
+            properties.setProperty("unchanged", "value");
+            ConfigurationSnapshot snapshot = ConfigurationSnapshot.of(properties);
+            ConfigurationSnapshot changed = snapshot.withAll(Map.of("test", "changed", "added", "value"));
+            Assertions.assertEquals("value", snapshot.get("test"));
+            Assertions.assertEquals("changed", changed.get("test"));
+            Assertions.assertEquals("value", changed.get("added"));
+            Assertions.assertSame(snapshot.value("unchanged"), changed.value("unchanged"));
+        }
+
+        @Test
+        void noChange() {
+            Properties properties = new Properties();
+            properties.setProperty("test", "value");
+            ConfigurationSnapshot snapshot = ConfigurationSnapshot.of(properties);
+            Assertions.assertSame(snapshot, snapshot.withAll(Map.of("test", "value")));
+        }
+    }
+
+    @Nested
+    class Replace {
+
+        @Test
+        void unchangedValueShared() {
+            Properties properties = new Properties();
+            properties.setProperty("unchanged", "value");
+            properties.setProperty("changed", "value");
+            ConfigurationSnapshot snapshot = ConfigurationSnapshot.of(properties);
+            Properties next = new Properties();
+            next.setProperty("unchanged", "value");
+            next.setProperty("changed", "other");
+            ConfigurationSnapshot replaced = snapshot.replace(next);
+            Assertions.assertSame(snapshot.value("unchanged"), replaced.value("unchanged"));
+            Assertions.assertEquals("other", replaced.get("changed"));
+        }
+    }
+
+    @Nested
+    class Placeholders {
+
+        private ConfigurationSnapshot snapshot() {
+            Properties properties = new Properties();
+            properties.setProperty("host", "db");
+            properties.setProperty("url", "jdbc://${host}/app");
+            properties.setProperty("backup", "${url}/backup");
+            properties.setProperty("other", "${name}");
+            properties.setProperty("name", "test");
+            return ConfigurationSnapshot.of(properties);
+        }
+
+        @Test
+        void resolved() {
+            ConfigurationSnapshot snapshot = this.snapshot();
+            Assertions.assertEquals("jdbc://db/app", snapshot.get("url"));
+            Assertions.assertEquals("jdbc://db/app/backup", snapshot.value("backup").raw);
+            Assertions.assertEquals("${url}/backup", snapshot.raw("backup"));
+        }
+
+        @Test
+        void rawStored() {
+            Assertions.assertEquals("jdbc://${host}/app", this.snapshot().toProperties().getProperty("url"));
+        }
+
+        @Test
+        void dependentsResolvedAgain() {
+            ConfigurationSnapshot snapshot = this.snapshot();
+            ConfigurationSnapshot changed = snapshot.with("host", "db2");
+            Assertions.assertEquals("jdbc://db2/app", changed.get("url"));
+            Assertions.assertEquals("jdbc://db2/app/backup", changed.get("backup"));
+            Assertions.assertSame(snapshot.value("other"), changed.value("other"));
+        }
+
+        @Test
+        void diffContainsDependents() {
+            ConfigurationSnapshot snapshot = this.snapshot();
+            ConfigurationSnapshot changed = snapshot.with("host", "db2");
+            Assertions.assertEquals(Map.of("host", "db2", "url", "jdbc://db2/app", "backup", "jdbc://db2/app/backup"),
+                    snapshot.diff(changed).getChanges());
+            Assertions.assertEquals(Map.of("host", "db2"), snapshot.rawDiff(changed).getChanges());
+        }
+
+        @Test
+        void removedReference() {
+            ConfigurationSnapshot changed = this.snapshot().withAll(Collections.singletonMap("host", null));
+            Assertions.assertEquals("jdbc://${host}/app", changed.get("url"));
+        }
+
+        @Test
+        void replaceResolves() {
+            Properties properties = this.snapshot().toProperties();
+            properties.setProperty("name", "changed");
+            ConfigurationSnapshot replaced = this.snapshot().replace(properties);
+            Assertions.assertEquals("changed", replaced.get("other"));
+        }
+
+        @Test
+        void cycleOnLoad() {
+            Properties properties = new Properties();
+            properties.setProperty("a", "${b}");
+            properties.setProperty("b", "${a}");
+            Assertions.assertThrows(IllegalStateException.class, () -> ConfigurationSnapshot.of(properties));
+        }
+
+        @Test
+        void cycleOnChange() {
+            ConfigurationSnapshot snapshot = this.snapshot();
+            Assertions.assertThrows(IllegalStateException.class, () -> snapshot.with("host", "${backup}"));
+        }
+
+        @Test
+        void readThroughKey() {
+            Assertions.assertEquals("jdbc://db/app", ConfigKey.ofString("url").read(this.snapshot()));
+        }
+    }
+}
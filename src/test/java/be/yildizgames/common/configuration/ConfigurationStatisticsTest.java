@@ -0,0 +1,116 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import be.yildizgames.common.configuration.parameter.ApplicationArgs;
+import be.yildizgames.common.configuration.parameter.DefaultArgName;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class ConfigurationStatisticsTest {
+
+    @Nested
+    class Latency {
+
+        @Test
+        void happyFlow() {
+            ConfigurationStatistics statistics = new ConfigurationStatistics();
+            for (int i = 1; i <= 100; i++) {
+                statistics.onStore(i * 1000L);
+            }
+            Assertions.assertEquals(100, statistics.getStoreCount());
+            Assertions.assertEquals(50500, statistics.getStoreMeanNanos());
+            long p99 = statistics.getStoreP99Nanos();
+            Assertions.assertTrue(p99 >= 99000 && p99 <= 100000, String.valueOf(p99));
+        }
+
+        @Test
+        void empty() {
+            ConfigurationStatistics statistics = new ConfigurationStatistics();
+            Assertions.assertEquals(0, statistics.getLoadMeanNanos());
+            Assertions.assertEquals(0, statistics.getLoadP99Nanos());
+        }
+
+        @Test
+        void meteredRetriever() throws IOException {
+            Path config = Files.createTempFile("config", ".properties");
+            Files.writeString(config, "value=test\n");
+            ApplicationArgs args = ApplicationArgs.of(DefaultArgName.CONFIGURATION_FILE + "=" + config);
+            ConfigurationStatistics statistics = new ConfigurationStatistics();
+            ConfigurationRetriever retriever = ConfigurationRetrieverFactory.metered(ConfigurationRetrieverFactory.fromFile(new ConfigurationNotFoundException()), statistics);
+            retriever.retrieveFromArgs(args);
+            retriever.retrieveLayers(args);
+            Assertions.assertEquals(2, statistics.getLoadCount());
+        }
+    }
+
+    @Nested
+    class Reset {
+
+        @Test
+        void happyFlow() {
+            ConfigurationStatistics statistics = new ConfigurationStatistics();
+            statistics.onRead("key");
+            statistics.onReload(10, 1);
+            statistics.onListenerFailure("key", new IllegalStateException());
+            statistics.reset();
+            Assertions.assertTrue(statistics.getReadCounts().isEmpty());
+            Assertions.assertEquals(0, statistics.getReloadCount());
+            Assertions.assertEquals(0, statistics.getListenerFailureCount());
+        }
+    }
+
+    @Nested
+    class RegisterMBean {
+
+        @Test
+        void happyFlow() throws JMException {
+            ConfigurationStatistics statistics = new ConfigurationStatistics();
+            statistics.onListenerDispatch("key");
+            statistics.registerMBean("test");
+            try {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                ObjectName name = new ObjectName("be.yildizgames.common.configuration:type=Configuration,name=\"test\"");
+                Assertions.assertEquals(1L, server.getAttribute(name, "ListenerDispatchCount"));
+            } finally {
+                statistics.unregisterMBean();
+            }
+        }
+
+        @Test
+        void alreadyRegistered() {
+            ConfigurationStatistics statistics = new ConfigurationStatistics();
+            statistics.registerMBean("duplicate");
+            try {
+                Assertions.assertThrows(IllegalStateException.class, () -> new ConfigurationStatistics().registerMBean("duplicate"));
+            } finally {
+                statistics.unregisterMBean();
+            }
+        }
+    }
+}
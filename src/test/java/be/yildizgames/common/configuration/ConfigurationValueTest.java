@@ -0,0 +1,202 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class ConfigurationValueTest {
+
+    @Nested
+    class AsInt {
+
+        @Test
+        void happyFlow() {
+            Assertions.assertEquals(42, new ConfigurationValue("test", " 42 ").asInt());
+        }
+
+        @Test
+        void invalid() {
+            ConfigurationValue value = new ConfigurationValue("test", "abc");
+            Assertions.assertThrows(IllegalStateException.class, value::asInt);
+        }
+
+        @Test
+        void outOfRange() {
+            ConfigurationValue value = new ConfigurationValue("test", "3000000000");
+            Assertions.assertThrows(IllegalStateException.class, value::asInt);
+        }
+    }
+
+    @Nested
+    class AsLong {
+
+        @Test
+        void happyFlow() {
+            Assertions.assertEquals(3000000000L, new ConfigurationValue("test", "3000000000").asLong());
+        }
+    }
+
+    @Nested
+    class AsDouble {
+
+        @Test
+        void happyFlow() {
+            Assertions.assertEquals(1.5, new ConfigurationValue("test", "1.5").asDouble());
+        }
+
+        @Test
+        void invalid() {
+            ConfigurationValue value = new ConfigurationValue("test", "1,5");
+            Assertions.assertThrows(IllegalStateException.class, value::asDouble);
+        }
+    }
+
+    @Nested
+    class AsBoolean {
+
+        @Test
+        void trueIgnoringCase() {
+            Assertions.assertTrue(new ConfigurationValue("test", "TRUE").asBoolean());
+        }
+
+        @Test
+        void otherIsFalse() {
+            Assertions.assertFalse(new ConfigurationValue("test", "yes").asBoolean());
+        }
+    }
+
+    @Nested
+    class AsDuration {
+
+        @Test
+        void iso() {
+            Assertions.assertEquals(Duration.ofSeconds(10), new ConfigurationValue("test", "PT10S").asDuration());
+        }
+
+        @Test
+        void withUnit() {
+            Assertions.assertEquals(Duration.ofMillis(500), new ConfigurationValue("test", "500ms").asDuration());
+            Assertions.assertEquals(Duration.ofSeconds(10), new ConfigurationValue("test", "10s").asDuration());
+            Assertions.assertEquals(Duration.ofMinutes(5), new ConfigurationValue("test", "5 m").asDuration());
+            Assertions.assertEquals(Duration.ofHours(2), new ConfigurationValue("test", "2h").asDuration());
+            Assertions.assertEquals(Duration.ofDays(1), new ConfigurationValue("test", "1d").asDuration());
+        }
+
+        @Test
+        void withoutUnit() {
+            Assertions.assertEquals(Duration.ofMillis(250), new ConfigurationValue("test", "250").asDuration());
+        }
+
+        @Test
+        void invalidUnit() {
+            ConfigurationValue value = new ConfigurationValue("test", "10w");
+            Assertions.assertThrows(IllegalStateException.class, value::asDuration);
+        }
+
+        @Test
+        void cached() {
+            ConfigurationValue value = new ConfigurationValue("test", "10s");
+            Assertions.assertSame(value.asDuration(), value.asDuration());
+        }
+    }
+
+    @Nested
+    class AsSize {
+
+        @Test
+        void withoutUnit() {
+            Assertions.assertEquals(512, new ConfigurationValue("test", "512").asSize());
+            Assertions.assertEquals(512, new ConfigurationValue("test", "512B").asSize());
+        }
+
+        @Test
+        void withUnit() {
+            Assertions.assertEquals(2048, new ConfigurationValue("test", "2KB").asSize());
+            Assertions.assertEquals(3L << 20, new ConfigurationValue("test", "3mb").asSize());
+            Assertions.assertEquals(1L << 30, new ConfigurationValue("test", "1G").asSize());
+            Assertions.assertEquals(1L << 40, new ConfigurationValue("test", "1 TB").asSize());
+        }
+
+        @Test
+        void invalid() {
+            ConfigurationValue value = new ConfigurationValue("test", "KB");
+            Assertions.assertThrows(IllegalStateException.class, value::asSize);
+        }
+    }
+
+    @Nested
+    class AsEnum {
+
+        @Test
+        void ignoringCase() {
+            Assertions.assertEquals(ChronoUnit.SECONDS, new ConfigurationValue("test", "seconds").asEnum(ChronoUnit.class));
+        }
+
+        @Test
+        void invalid() {
+            ConfigurationValue value = new ConfigurationValue("test", "abc");
+            Assertions.assertThrows(IllegalStateException.class, () -> value.asEnum(ChronoUnit.class));
+        }
+    }
+
+    @Nested
+    class AsList {
+
+        @Test
+        void happyFlow() {
+            Assertions.assertEquals(List.of("a", "b", "c"), new ConfigurationValue("test", "a, b,,c ").asList());
+        }
+
+        @Test
+        void empty() {
+            Assertions.assertEquals(List.of(), new ConfigurationValue("test", "").asList());
+        }
+
+        @Test
+        void cached() {
+            ConfigurationValue value = new ConfigurationValue("test", "a,b");
+            Assertions.assertSame(value.asList(), value.asList());
+        }
+    }
+
+    @Nested
+    class As {
+
+        @Test
+        void severalTypesKeptCached() {
+            ConfigurationValue value = new ConfigurationValue("test", "seconds");
+            List<String> list = value.asList();
+            ChronoUnit unit = value.asEnum(ChronoUnit.class);
+            Function<ConfigurationValue, String> upper = v -> v.raw.toUpperCase(Locale.ROOT);
+            String converted = value.as(upper);
+            Assertions.assertSame(list, value.asList());
+            Assertions.assertSame(unit, value.asEnum(ChronoUnit.class));
+            Assertions.assertSame(converted, value.as(upper));
+            Assertions.assertSame(list, value.asList());
+        }
+    }
+}
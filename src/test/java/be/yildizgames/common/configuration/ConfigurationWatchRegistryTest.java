@@ -0,0 +1,77 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class ConfigurationWatchRegistryTest {
+
+    private static final int FILES = 1000;
+
+    @Test
+    void manyFilesBoundedThreads() throws IOException, InterruptedException {
+        ConfigurationWatchRegistry registry = new ConfigurationWatchRegistry(Executors.newVirtualThreadPerTaskExecutor());
+        int threadsBefore = Thread.getAllStackTraces().size();
+        List<Path> files = new ArrayList<>();
+        List<ConfigurationWatch> watches = new ArrayList<>();
+        AtomicIntegerArray reloads = new AtomicIntegerArray(FILES);
+        for (int i = 0; i < FILES; i++) {
+            Path dir = Files.createTempDirectory("registry");
+            Path file = dir.resolve("config" + i + ".properties");
+            Files.writeString(file, "a=0");
+            files.add(file);
+            int index = i;
+            watches.add(registry.watch(file, Duration.ofMillis(50), () -> reloads.incrementAndGet(index)));
+        }
+        Assertions.assertTrue(Thread.getAllStackTraces().size() - threadsBefore <= 3,
+                "Too many threads: " + (Thread.getAllStackTraces().size() - threadsBefore));
+        Files.writeString(files.get(42), "a=1");
+        Thread.sleep(1000);
+        for (int i = 0; i < FILES; i++) {
+            Assertions.assertEquals(i == 42 ? 1 : 0, reloads.get(i));
+        }
+        watches.forEach(ConfigurationWatch::close);
+    }
+
+    @Test
+    void sameFileTwice() throws IOException, InterruptedException {
+        ConfigurationWatchRegistry registry = new ConfigurationWatchRegistry(Runnable::run);
+        Path file = Files.createTempDirectory("registry").resolve("config.properties");
+        Files.writeString(file, "a=0");
+        AtomicIntegerArray reloads = new AtomicIntegerArray(2);
+        ConfigurationWatch first = registry.watch(file, Duration.ofMillis(50), () -> reloads.incrementAndGet(0));
+        ConfigurationWatch second = registry.watch(file, Duration.ofMillis(50), () -> reloads.incrementAndGet(1));
+        first.close();
+        Files.writeString(file, "a=1");
+        Thread.sleep(1000);
+        Assertions.assertEquals(0, reloads.get(0));
+        Assertions.assertEquals(1, reloads.get(1));
+        second.close();
+    }
+}
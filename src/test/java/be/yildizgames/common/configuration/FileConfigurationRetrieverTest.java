@@ -26,6 +26,7 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Locale;
 import java.util.Properties;
 
 /**
@@ -85,6 +86,102 @@ class FileConfigurationRetrieverTest {
         Assertions.assertEquals("false", result.getProperty("default"));
     }
 
+    @Test
+    void fileNotRewrittenWhenUnchanged() throws IOException {
+        Path config = Files.createTempFile("config",".properties");
+        Files.writeString(config, "#comment\nvalue=test\n");
+        ConfigurationRetriever retriever = new FileConfigurationRetriever(new ConfigurationNotFoundException());
+        Properties result = retriever.retrieveFromArgs(ApplicationArgs.of(DefaultArgName.CONFIGURATION_FILE + "=" + config.toString()));
+        Assertions.assertEquals("test", result.getProperty("value"));
+        Assertions.assertEquals("#comment\nvalue=test\n", Files.readString(config));
+    }
+
+    @Test
+    void fileRewrittenWhenDefaultAdded() throws IOException {
+        Properties p = new Properties();
+        p.put("defaultOnly", "true");
+        Path config = Files.createTempFile("config",".properties");
+        Files.writeString(config, "value=test\n");
+        ConfigurationRetriever retriever = new FileConfigurationRetriever(ConfigurationNotFoundDefault.fromDefault(p));
+        retriever.retrieveFromArgs(ApplicationArgs.of(DefaultArgName.CONFIGURATION_FILE + "=" + config.toString()));
+        Properties written = new Properties();
+        written.load(Files.newBufferedReader(config));
+        Assertions.assertEquals("true", written.getProperty("defaultOnly"));
+        Assertions.assertEquals("test", written.getProperty("value"));
+    }
+
+    @Test
+    void fileRewrittenWhenSanitized() throws IOException {
+        Path config = Files.createTempFile("config",".properties");
+        Files.writeString(config, "value=a\\tb\n");
+        ConfigurationRetriever retriever = new FileConfigurationRetriever(new ConfigurationNotFoundException());
+        Properties result = retriever.retrieveFromArgs(ApplicationArgs.of(DefaultArgName.CONFIGURATION_FILE + "=" + config.toString()));
+        Assertions.assertEquals("a/tb", result.getProperty("value"));
+        Properties written = new Properties();
+        written.load(Files.newBufferedReader(config));
+        Assertions.assertEquals("a/tb", written.getProperty("value"));
+    }
+
+    @Test
+    void mappedFile() throws IOException {
+        Path config = Files.createTempFile("config",".properties");
+        Files.writeString(config, "#comment\nvalue=test\nencoded=\\u00e9t\\u00e9\nmulti=a\\\n  b\n");
+        ConfigurationRetriever retriever = ConfigurationRetrieverFactory.fromMappedFile(new ConfigurationNotFoundException());
+        Properties result = retriever.retrieveFromArgs(ApplicationArgs.of(DefaultArgName.CONFIGURATION_FILE + "=" + config.toString(), "value=arg"));
+        Assertions.assertEquals("arg", result.getProperty("value"));
+        Assertions.assertEquals("été", result.getProperty("encoded"));
+        Assertions.assertEquals("ab", result.getProperty("multi"));
+        Assertions.assertTrue(Files.readString(config).startsWith("#comment"));
+    }
+
+    @Test
+    void snapshotWrittenAndUsed() throws IOException {
+        Path config = Files.createTempFile("config",".properties");
+        Files.writeString(config, "value=test\n");
+        ConfigurationRetriever retriever = ConfigurationRetrieverFactory.fromFileWithSnapshot(new ConfigurationNotFoundException());
+        retriever.retrieveFromArgs(ApplicationArgs.of(DefaultArgName.CONFIGURATION_FILE + "=" + config.toString()));
+        Assertions.assertTrue(Files.exists(BinarySnapshot.pathFor(config)));
+        Properties fromSnapshot = new Properties();
+        fromSnapshot.setProperty("value", "fromSnapshot");
+        BinarySnapshot.write(config, fromSnapshot);
+        Properties result = retriever.retrieveFromArgs(ApplicationArgs.of(DefaultArgName.CONFIGURATION_FILE + "=" + config.toString()));
+        Assertions.assertEquals("fromSnapshot", result.getProperty("value"));
+    }
+
+    @Test
+    void snapshotIgnoredWhenFileModified() throws IOException {
+        Path config = Files.createTempFile("config",".properties");
+        Files.writeString(config, "value=test\n");
+        ConfigurationRetriever retriever = ConfigurationRetrieverFactory.fromFileWithSnapshot(new ConfigurationNotFoundException());
+        retriever.retrieveFromArgs(ApplicationArgs.of(DefaultArgName.CONFIGURATION_FILE + "=" + config.toString()));
+        Files.writeString(config, "value=modified\n");
+        Properties result = retriever.retrieveFromArgs(ApplicationArgs.of(DefaultArgName.CONFIGURATION_FILE + "=" + config.toString()));
+        Assertions.assertEquals("modified", result.getProperty("value"));
+    }
+
+    @Test
+    void snapshotIgnoredWhenCorrupted() throws IOException {
+        Path config = Files.createTempFile("config",".properties");
+        Files.writeString(config, "value=test\n");
+        ConfigurationRetriever retriever = ConfigurationRetrieverFactory.fromFileWithSnapshot(new ConfigurationNotFoundException());
+        retriever.retrieveFromArgs(ApplicationArgs.of(DefaultArgName.CONFIGURATION_FILE + "=" + config.toString()));
+        Files.write(BinarySnapshot.pathFor(config), new byte[]{1, 2, 3, 4, 5});
+        Properties result = retriever.retrieveFromArgs(ApplicationArgs.of(DefaultArgName.CONFIGURATION_FILE + "=" + config.toString()));
+        Assertions.assertEquals("test", result.getProperty("value"));
+    }
+
+    @Test
+    void sanitize() {
+        Assertions.assertEquals("/t/r/n/b/f/", FileConfigurationRetriever.sanitize("\t\r\n\b\f\\"));
+        Assertions.assertEquals("C:/test/nvalue", FileConfigurationRetriever.sanitize("C:\\test\nvalue"));
+    }
+
+    @Test
+    void sanitizeUnchangedReturnsSameInstance() {
+        String value = "nothing to replace";
+        Assertions.assertSame(value, FileConfigurationRetriever.sanitize(value));
+    }
+
     @Test
     void withNullParameter() {
         Assertions.assertThrows(NullPointerException.class, () -> new FileConfigurationRetriever(null));
@@ -110,6 +207,75 @@ class FileConfigurationRetrieverTest {
             Assertions.assertThrows(IllegalStateException.class, () -> retriever.retrieveFromArgs(ApplicationArgs.of(DefaultArgName.CONFIGURATION_FILE + "=invalid/path/config.properties")));
         }
 
+        @Test
+        void argOverridesFileValueWithoutPersisting() throws IOException {
+            Path config = Files.createTempFile("config",".properties");
+            Files.writeString(config, "value=test\n");
+            ConfigurationRetriever retriever = new FileConfigurationRetriever(new ConfigurationNotFoundException());
+            LayeredConfiguration result = retriever.retrieveLayers(ApplicationArgs.of(DefaultArgName.CONFIGURATION_FILE + "=" + config.toString(), "value=fromArgs", "unknown=ignored"));
+            Assertions.assertEquals("fromArgs", result.get("value"));
+            Assertions.assertEquals("application arguments", result.resolve("value").orElseThrow().source());
+            Assertions.assertNull(result.toProperties().getProperty("unknown"));
+            Assertions.assertEquals("value=test\n", Files.readString(config));
+        }
+
+        @Test
+        void argOverrideNotStoredByConfiguration() throws IOException {
+            Path config = Files.createTempFile("config",".properties");
+            Files.writeString(config, "value=test\n");
+            ConfigurationRetriever retriever = new FileConfigurationRetriever(ConfigurationNotFoundDefault.fromDefault(new Properties()));
+            Properties properties = retriever.retrieveFromArgs(ApplicationArgs.of(DefaultArgName.CONFIGURATION_FILE + "=" + config.toString(), "value=fromArgs"));
+            BaseConfigurationTest.TestConfiguration configuration = BaseConfigurationTest.TestConfiguration.of(properties, config);
+            Assertions.assertEquals("fromArgs", configuration.get("value"));
+            configuration.setLocale(Locale.ENGLISH);
+            Properties written = new Properties();
+            written.load(Files.newBufferedReader(config));
+            Assertions.assertEquals("test", written.getProperty("value"));
+            Assertions.assertEquals("en", written.getProperty(BaseConfiguration.LANGUAGE));
+            Assertions.assertEquals("fromArgs", configuration.get("value"));
+        }
+
+        @Test
+        void argOverrideStoredOnceChangedByConfiguration() throws IOException {
+            Path config = Files.createTempFile("config",".properties");
+            Files.writeString(config, "value=test\n");
+            ConfigurationRetriever retriever = new FileConfigurationRetriever(ConfigurationNotFoundDefault.fromDefault(new Properties()));
+            Properties properties = retriever.retrieveFromArgs(ApplicationArgs.of(DefaultArgName.CONFIGURATION_FILE + "=" + config.toString(), "value=fromArgs"));
+            BaseConfigurationTest.TestConfiguration configuration = BaseConfigurationTest.TestConfiguration.of(properties, config);
+            configuration.updateValue("value", "changed");
+            Properties written = new Properties();
+            written.load(Files.newBufferedReader(config));
+            Assertions.assertEquals("changed", written.getProperty("value"));
+        }
+
+        @Test
+        void placeholdersKeptWhenStored() throws IOException {
+            Path config = Files.createTempFile("config",".properties");
+            Files.writeString(config, "host=localhost\nurl=jdbc://${host}/db\nhome=${sys:user.home}\n");
+            ConfigurationRetriever retriever = new FileConfigurationRetriever(new ConfigurationNotFoundException());
+            Properties properties = retriever.retrieveFromArgs(ApplicationArgs.of(DefaultArgName.CONFIGURATION_FILE + "=" + config.toString()));
+            BaseConfigurationTest.TestConfiguration configuration = BaseConfigurationTest.TestConfiguration.of(properties, config);
+            Assertions.assertEquals("jdbc://localhost/db", configuration.get("url"));
+            Assertions.assertEquals(System.getProperty("user.home"), configuration.get("home"));
+            configuration.updateValue("host", "remote");
+            Assertions.assertEquals("jdbc://remote/db", configuration.get("url"));
+            String written = Files.readString(config);
+            Assertions.assertTrue(written.contains("url=jdbc\\://${host}/db"), written);
+            Assertions.assertTrue(written.contains("home=${sys\\:user.home}"), written);
+        }
+
+        @Test
+        void valueFromDefaultReportsDefaultSource() throws IOException {
+            Properties p = new Properties();
+            p.put("defaultOnly", "true");
+            Path config = Files.createTempFile("config",".properties");
+            Files.writeString(config, "value=test\n");
+            ConfigurationRetriever retriever = new FileConfigurationRetriever(ConfigurationNotFoundDefault.fromDefault(p));
+            LayeredConfiguration result = retriever.retrieveLayers(ApplicationArgs.of(DefaultArgName.CONFIGURATION_FILE + "=" + config.toString()));
+            Assertions.assertEquals("defaults", result.resolve("defaultOnly").orElseThrow().source());
+            Assertions.assertEquals(config.toString(), result.resolve("value").orElseThrow().source());
+        }
+
         @Test
         void applicationArgsNull() {
             ConfigurationRetriever retriever = new FileConfigurationRetriever(new ConfigurationNotFoundException());
@@ -138,4 +304,61 @@ class FileConfigurationRetrieverTest {
 
     }
 
+    @Nested
+    class Check {
+
+        private final ConfigurationSchema schema = ConfigurationSchema.of(
+                PropertyRule.of(ConfigKey.ofInt("port")).required().range(1, 65535),
+                PropertyRule.of(ConfigKey.ofString("mode")).allowedValues("read", "write"));
+
+        @Test
+        void happyFlow() throws IOException {
+            Path config = Files.createTempFile("config",".properties");
+            Files.writeString(config, "port=8080\nmode=read\n");
+            ConfigurationRetriever retriever = new FileConfigurationRetriever(new ConfigurationNotFoundException());
+            ValidationReport report = retriever.check(ApplicationArgs.of(DefaultArgName.CONFIGURATION_CHECK,
+                    DefaultArgName.CONFIGURATION_FILE + "=" + config), this.schema);
+            Assertions.assertTrue(report.isValid());
+            Assertions.assertEquals(1, report.getCheckedCount());
+        }
+
+        @Test
+        void fileNotWritten() throws IOException {
+            Properties p = new Properties();
+            p.put("mode", "write");
+            Path config = Files.createTempFile("config",".properties");
+            Files.writeString(config, "port=8080\nvalue=a\\tb\n");
+            ConfigurationRetriever retriever = ConfigurationRetrieverFactory.fromFileWithSnapshot(ConfigurationNotFoundDefault.fromDefault(p));
+            ValidationReport report = retriever.check(ApplicationArgs.of(DefaultArgName.CONFIGURATION_CHECK + "=" + config), this.schema);
+            Assertions.assertTrue(report.isValid());
+            Assertions.assertEquals("port=8080\nvalue=a\\tb\n", Files.readString(config));
+            Assertions.assertFalse(Files.exists(BinarySnapshot.pathFor(config)));
+        }
+
+        @Test
+        void severalFiles() throws IOException {
+            Path valid = Files.createTempFile("config",".properties");
+            Files.writeString(valid, "port=8080\n");
+            Path invalid = Files.createTempFile("config",".properties");
+            Files.writeString(invalid, "port=0\nmode=delete\n");
+            ConfigurationRetriever retriever = new FileConfigurationRetriever(new ConfigurationNotFoundException());
+            ValidationReport report = retriever.check(ApplicationArgs.of(DefaultArgName.CONFIGURATION_CHECK + "=" + valid,
+                    DefaultArgName.CONFIGURATION_CHECK + "=" + invalid), this.schema);
+            Assertions.assertEquals(2, report.getCheckedCount());
+            Assertions.assertEquals(2, report.getErrors().size());
+            Assertions.assertEquals(invalid.toString(), report.getErrors().get(0).source());
+            Assertions.assertEquals("port", report.getErrors().get(0).key());
+            Assertions.assertEquals("mode", report.getErrors().get(1).key());
+        }
+
+        @Test
+        void fileNotFound() {
+            ConfigurationRetriever retriever = new FileConfigurationRetriever(new ConfigurationNotFoundException());
+            ValidationReport report = retriever.check(ApplicationArgs.of(DefaultArgName.CONFIGURATION_CHECK + "=notexisting.properties"), this.schema);
+            Assertions.assertFalse(report.isValid());
+            Assertions.assertNull(report.getErrors().get(0).key());
+            Assertions.assertFalse(Files.exists(Path.of("notexisting.properties")));
+        }
+    }
+
 }
@@ -0,0 +1,72 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class FileFingerprintTest {
+
+    @Nested
+    class Refresh {
+
+        @Test
+        void unchanged() throws IOException {
+            Path file = Files.createTempFile("fingerprint", ".properties");
+            Files.writeString(file, "language=fr");
+            FileFingerprint fingerprint = FileFingerprint.of(file);
+            Assertions.assertSame(fingerprint, fingerprint.refresh(file));
+        }
+
+        @Test
+        void touchedWithoutContentChange() throws IOException {
+            Path file = Files.createTempFile("fingerprint", ".properties");
+            Files.writeString(file, "language=fr");
+            FileFingerprint fingerprint = FileFingerprint.of(file);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 10_000));
+            Assertions.assertSame(fingerprint, fingerprint.refresh(file));
+        }
+
+        @Test
+        void sameSizeAndModificationTime() throws IOException {
+            Path file = Files.createTempFile("fingerprint", ".properties");
+            Files.writeString(file, "language=fr");
+            FileTime modified = Files.getLastModifiedTime(file);
+            FileFingerprint fingerprint = FileFingerprint.of(file);
+            Files.writeString(file, "language=en");
+            Files.setLastModifiedTime(file, modified);
+            Assertions.assertNotSame(fingerprint, fingerprint.refresh(file));
+        }
+
+        @Test
+        void sizeChanged() throws IOException {
+            Path file = Files.createTempFile("fingerprint", ".properties");
+            Files.writeString(file, "language=fr");
+            FileFingerprint fingerprint = FileFingerprint.of(file);
+            Files.writeString(file, "language=fr\nlocale=fr");
+            Assertions.assertNotSame(fingerprint, fingerprint.refresh(file));
+        }
+    }
+}
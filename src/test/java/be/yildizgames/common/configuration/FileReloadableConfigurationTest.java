@@ -22,6 +22,10 @@ import org.junit.jupiter.api.Test;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
 
 class FileReloadableConfigurationTest {
 
@@ -40,6 +44,78 @@ class FileReloadableConfigurationTest {
         Assertions.assertTrue(this.run);
     }
 
+    @Test
+    void atomicReplaceReloaded() throws IOException, InterruptedException {
+        Path config = Files.createTempDirectory("reload").resolve("config.properties");
+        Files.writeString(config, "a=0");
+        AtomicInteger count = new AtomicInteger();
+        try (FileReloadableConfiguration configuration = new FileReloadableConfiguration(config, count::incrementAndGet, Duration.ofMillis(50))) {
+            configuration.inspect();
+            Properties properties = new Properties();
+            properties.setProperty("a", "1");
+            AtomicPropertiesWriter.write(config, properties, "test", false);
+            Thread.sleep(1000);
+            Assertions.assertEquals(1, count.get());
+        }
+    }
+
+    @Test
+    void burstReloadedOnce() throws IOException, InterruptedException {
+        Path config = Files.createTempDirectory("reload").resolve("config.properties");
+        Files.writeString(config, "a=0");
+        AtomicInteger count = new AtomicInteger();
+        try (FileReloadableConfiguration configuration = new FileReloadableConfiguration(config, count::incrementAndGet, Duration.ofMillis(300))) {
+            configuration.inspect();
+            for (int i = 1; i <= 5; i++) {
+                Files.writeString(config, "a=" + i);
+                Thread.sleep(20);
+            }
+            Thread.sleep(1500);
+            Assertions.assertEquals(1, count.get());
+        }
+    }
+
+    @Test
+    void otherFileIgnored() throws IOException, InterruptedException {
+        Path dir = Files.createTempDirectory("reload");
+        Path config = dir.resolve("config.properties");
+        Files.writeString(config, "a=0");
+        AtomicInteger count = new AtomicInteger();
+        try (FileReloadableConfiguration configuration = new FileReloadableConfiguration(config, count::incrementAndGet, Duration.ofMillis(50))) {
+            configuration.inspect();
+            Files.writeString(dir.resolve("other.properties"), "b=1");
+            Thread.sleep(1000);
+            Assertions.assertEquals(0, count.get());
+        }
+    }
+
+    @Test
+    void unchangedContentIgnored() throws IOException, InterruptedException {
+        Path config = Files.createTempDirectory("reload").resolve("config.properties");
+        Files.writeString(config, "a=0");
+        AtomicInteger count = new AtomicInteger();
+        try (FileReloadableConfiguration configuration = new FileReloadableConfiguration(config, count::incrementAndGet, Duration.ofMillis(50))) {
+            configuration.inspect();
+            Files.setLastModifiedTime(config, FileTime.fromMillis(System.currentTimeMillis() + 10000));
+            Files.writeString(config, "a=0");
+            Thread.sleep(1000);
+            Assertions.assertEquals(0, count.get());
+        }
+    }
+
+    @Test
+    void noReloadAfterClose() throws IOException, InterruptedException {
+        Path config = Files.createTempDirectory("reload").resolve("config.properties");
+        Files.writeString(config, "a=0");
+        AtomicInteger count = new AtomicInteger();
+        FileReloadableConfiguration configuration = new FileReloadableConfiguration(config, count::incrementAndGet, Duration.ofMillis(50));
+        configuration.inspect();
+        configuration.close();
+        Files.writeString(config, "a=1");
+        Thread.sleep(1000);
+        Assertions.assertEquals(0, count.get());
+    }
+
     private void run() {
         System.out.println("updated");
         run = true;
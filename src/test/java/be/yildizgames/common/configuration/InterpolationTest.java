@@ -0,0 +1,133 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class InterpolationTest {
+
+    private static PersistentMap<ConfigurationValue> values(String... keyValues) {
+        PersistentMap<ConfigurationValue> values = PersistentMap.empty();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            values = values.with(keyValues[i], new ConfigurationValue(keyValues[i], keyValues[i + 1]));
+        }
+        return values;
+    }
+
+    private static Set<String> keys(PersistentMap<ConfigurationValue> values) {
+        Set<String> keys = new HashSet<>();
+        values.forEach((k, v) -> keys.add(k));
+        return keys;
+    }
+
+    private static Map<String, String> resolveAll(Interpolation interpolation, PersistentMap<ConfigurationValue> values) {
+        Interpolation compiled = interpolation.update(values, keys(values));
+        return compiled.resolve(keys(values), values, PersistentMap.empty());
+    }
+
+    @Nested
+    class Resolve {
+
+        @Test
+        void key() {
+            Map<String, String> result = resolveAll(Interpolation.EMPTY, values("host", "db", "url", "jdbc://${host}:${port}/x", "port", "5432"));
+            Assertions.assertEquals(Map.of("url", "jdbc://db:5432/x"), result);
+        }
+
+        @Test
+        void transitive() {
+            Map<String, String> result = resolveAll(Interpolation.EMPTY, values("a", "${b}/a", "b", "${c}/b", "c", "c"));
+            Assertions.assertEquals("c/b/a", result.get("a"));
+            Assertions.assertEquals("c/b", result.get("b"));
+        }
+
+        @Test
+        void environmentAndSystem() {
+            Interpolation interpolation = Interpolation.of(Map.of("HOME", "/home/test")::get, Map.of("user.name", "test")::get);
+            Map<String, String> result = resolveAll(interpolation, values("path", "${env:HOME}/${sys:user.name}"));
+            Assertions.assertEquals("/home/test/test", result.get("path"));
+        }
+
+        @Test
+        void missingKeptAsIs() {
+            Interpolation interpolation = Interpolation.of(v -> null, v -> null);
+            Map<String, String> result = resolveAll(interpolation, values("a", "${missing}-${env:MISSING}-${sys:missing}"));
+            Assertions.assertEquals("${missing}-${env:MISSING}-${sys:missing}", result.get("a"));
+        }
+
+        @Test
+        void escaped() {
+            Map<String, String> result = resolveAll(Interpolation.EMPTY, values("a", "$${b}-${b}", "b", "value"));
+            Assertions.assertEquals("${b}-value", result.get("a"));
+        }
+
+        @Test
+        void unclosed() {
+            Interpolation compiled = Interpolation.EMPTY.update(values("a", "${b"), Set.of("a"));
+            Assertions.assertTrue(compiled.isEmpty());
+        }
+
+        @Test
+        void cycle() {
+            IllegalStateException e = Assertions.assertThrows(IllegalStateException.class,
+                    () -> resolveAll(Interpolation.EMPTY, values("a", "${b}", "b", "${c}", "c", "${a}", "d", "x")));
+            Assertions.assertTrue(e.getMessage().startsWith("Circular placeholder reference"));
+        }
+
+        @Test
+        void selfReference() {
+            Assertions.assertThrows(IllegalStateException.class, () -> resolveAll(Interpolation.EMPTY, values("a", "x${a}")));
+        }
+    }
+
+    @Nested
+    class Affected {
+
+        @Test
+        void transitiveDependents() {
+            PersistentMap<ConfigurationValue> values = values("a", "${b}", "b", "${c}", "c", "c", "d", "${e}", "e", "e");
+            Interpolation compiled = Interpolation.EMPTY.update(values, keys(values));
+            Assertions.assertEquals(Set.of("c", "b", "a"), compiled.affected(List.of("c")));
+            Assertions.assertEquals(Set.of("e", "d"), compiled.affected(List.of("e")));
+        }
+
+        @Test
+        void dependencyRemoved() {
+            PersistentMap<ConfigurationValue> values = values("a", "${b}", "b", "b");
+            Interpolation compiled = Interpolation.EMPTY.update(values, keys(values));
+            Interpolation updated = compiled.update(values.with("a", new ConfigurationValue("a", "static")), Set.of("a"));
+            Assertions.assertTrue(updated.isEmpty());
+            Assertions.assertEquals(Set.of("b"), updated.affected(List.of("b")));
+        }
+
+        @Test
+        void noTemplateChangeReturnsSameInstance() {
+            PersistentMap<ConfigurationValue> values = values("a", "${b}", "b", "b");
+            Interpolation compiled = Interpolation.EMPTY.update(values, keys(values));
+            Assertions.assertSame(compiled, compiled.update(values.with("b", new ConfigurationValue("b", "changed")), Set.of("b")));
+        }
+    }
+}
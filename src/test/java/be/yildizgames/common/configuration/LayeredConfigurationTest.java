@@ -0,0 +1,121 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import be.yildizgames.common.configuration.parameter.ApplicationArgs;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class LayeredConfigurationTest {
+
+    private static ConfigurationSource source(String name, String key, String value) {
+        Properties properties = new Properties();
+        properties.setProperty(key, value);
+        return ConfigurationSources.fromProperties(name, properties);
+    }
+
+    @Nested
+    class Get {
+
+        @Test
+        void highestSourceWins() {
+            LayeredConfiguration configuration = LayeredConfiguration.of(source("low", "key", "a"), source("high", "key", "b"));
+            Assertions.assertEquals("b", configuration.get("key"));
+        }
+
+        @Test
+        void fallbackToLowerSource() {
+            LayeredConfiguration configuration = LayeredConfiguration.of(source("low", "key", "a"), source("high", "other", "b"));
+            Assertions.assertEquals("a", configuration.get("key"));
+        }
+
+        @Test
+        void notFound() {
+            LayeredConfiguration configuration = LayeredConfiguration.of(source("low", "key", "a"));
+            Assertions.assertNull(configuration.get("other"));
+            Assertions.assertTrue(configuration.resolve("other").isEmpty());
+        }
+    }
+
+    @Nested
+    class Resolve {
+
+        @Test
+        void reportSource() {
+            LayeredConfiguration configuration = LayeredConfiguration.of(source("low", "key", "a"), source("high", "other", "b"));
+            Assertions.assertEquals(new ResolvedValue("key", "a", "low"), configuration.resolve("key").orElseThrow());
+            Assertions.assertEquals(new ResolvedValue("other", "b", "high"), configuration.resolve("other").orElseThrow());
+        }
+    }
+
+    @Nested
+    class With {
+
+        @Test
+        void environmentOverridesKnownKeysOnly() {
+            ConfigurationSource environment = ConfigurationSources.fromEnvironment("APP_", Map.of("APP_DATABASE_HOST", "remote", "APP_OTHER", "x"));
+            LayeredConfiguration configuration = LayeredConfiguration.of(source("file", "database.host", "localhost")).with(environment);
+            Assertions.assertEquals("remote", configuration.get("database.host"));
+            Assertions.assertEquals("environment", configuration.resolve("database.host").orElseThrow().source());
+            Assertions.assertEquals(Set.of("database.host"), configuration.getKeys());
+        }
+
+        @Test
+        void environmentVariableNameUpperCased() {
+            ConfigurationSource environment = ConfigurationSources.fromEnvironment("", Map.of("DATABASE_MAX_POOL", "10"));
+            Assertions.assertEquals("10", environment.get("database.max-pool"));
+            Assertions.assertNull(environment.get("database.maxPool"));
+        }
+
+        @Test
+        void argsOverrideEnvironment() {
+            ConfigurationSource environment = ConfigurationSources.fromEnvironment("", Map.of("KEY", "env"));
+            LayeredConfiguration configuration = LayeredConfiguration.of(source("file", "key", "file"))
+                    .with(environment)
+                    .with(ConfigurationSources.fromArgs(ApplicationArgs.of("key=args")));
+            Assertions.assertEquals("args", configuration.get("key"));
+            Assertions.assertEquals(3, configuration.getSources().size());
+        }
+
+        @Test
+        void originalNotModified() {
+            LayeredConfiguration configuration = LayeredConfiguration.of(source("file", "key", "file"));
+            configuration.with(ConfigurationSources.fromArgs(ApplicationArgs.of("key=args")));
+            Assertions.assertEquals("file", configuration.get("key"));
+        }
+    }
+
+    @Nested
+    class ToProperties {
+
+        @Test
+        void happyFlow() {
+            LayeredConfiguration configuration = LayeredConfiguration.of(source("low", "key", "a"), source("high", "key", "b"), source("other", "other", "c"));
+            Properties properties = configuration.toProperties();
+            Assertions.assertEquals("b", properties.getProperty("key"));
+            Assertions.assertEquals("c", properties.getProperty("other"));
+            Assertions.assertEquals(2, properties.size());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class MappedPropertiesSourceTest {
+
+    private static final String CONTENT = """
+            # comment with key=value
+            ! other comment
+            simple=value
+              indented : spaced value  \s
+            noSeparator value
+            empty=
+            onlyKey
+            escaped\\ key\\=x=a\\tb\\nc\\\\d
+            unicode=\\u00e9t\\u00E9
+            utf8=éèç
+            multi=first \\
+                  second \\
+              third
+            windows=a\r
+            duplicate=first
+            duplicate=second
+            last=no newline""";
+
+    private static Path write(String content) throws IOException {
+        Path file = Files.createTempFile("mapped", ".properties");
+        Files.writeString(file, content);
+        return file;
+    }
+
+    @Nested
+    class Get {
+
+        @Test
+        void sameAsPropertiesLoad() throws IOException {
+            Properties expected = new Properties();
+            expected.load(new StringReader(CONTENT));
+            ConfigurationSource source = ConfigurationSources.fromMappedFile(write(CONTENT));
+            Assertions.assertEquals(expected.stringPropertyNames(), source.getKeys());
+            for (String key : expected.stringPropertyNames()) {
+                Assertions.assertEquals(expected.getProperty(key), source.get(key), key);
+            }
+        }
+
+        @Test
+        void notFound() throws IOException {
+            ConfigurationSource source = ConfigurationSources.fromMappedFile(write("key=value"));
+            Assertions.assertNull(source.get("other"));
+        }
+
+        @Test
+        void decodedOnce() throws IOException {
+            ConfigurationSource source = ConfigurationSources.fromMappedFile(write("key=value"));
+            Assertions.assertSame(source.get("key"), source.get("key"));
+        }
+
+        @Test
+        void emptyFile() throws IOException {
+            ConfigurationSource source = ConfigurationSources.fromMappedFile(write(""));
+            Assertions.assertTrue(source.getKeys().isEmpty());
+        }
+    }
+
+    @Nested
+    class Map {
+
+        @Test
+        void fileNotFound() {
+            Assertions.assertThrows(IllegalStateException.class, () -> ConfigurationSources.fromMappedFile(Path.of("invalid/path/config.properties")));
+        }
+    }
+}
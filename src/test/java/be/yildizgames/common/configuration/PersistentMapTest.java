@@ -0,0 +1,178 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class PersistentMapTest {
+
+    private static Map<String, String> content(PersistentMap<String> map) {
+        Map<String, String> result = new HashMap<>();
+        map.forEach(result::put);
+        return result;
+    }
+
+    private static Map<String, String> diff(PersistentMap<String> previous, PersistentMap<String> next) {
+        Map<String, String> result = new HashMap<>();
+        PersistentMap.diff(previous, next, (k, p, n) -> result.put(k, n == null ? "<removed>" : n));
+        return result;
+    }
+
+    @Nested
+    class With {
+
+        @Test
+        void happyFlow() {
+            PersistentMap<String> map = PersistentMap.<String>empty().with("a", "1").with("b", "2");
+            Assertions.assertEquals("1", map.get("a"));
+            Assertions.assertEquals("2", map.get("b"));
+            Assertions.assertNull(map.get("c"));
+            Assertions.assertEquals(2, map.size());
+        }
+
+        @Test
+        void previousNotModified() {
+            PersistentMap<String> map = PersistentMap.<String>empty().with("a", "1");
+            PersistentMap<String> changed = map.with("a", "2");
+            Assertions.assertEquals("1", map.get("a"));
+            Assertions.assertEquals("2", changed.get("a"));
+            Assertions.assertEquals(1, changed.size());
+        }
+
+        @Test
+        void sameValueReturnsSameInstance() {
+            String value = "1";
+            PersistentMap<String> map = PersistentMap.<String>empty().with("a", value);
+            Assertions.assertSame(map, map.with("a", value));
+        }
+
+        @Test
+        void hashCollision() {
+            Assertions.assertEquals("Aa".hashCode(), "BB".hashCode());
+            PersistentMap<String> map = PersistentMap.<String>empty().with("Aa", "1").with("BB", "2").with("C#", "3");
+            Assertions.assertEquals("1", map.get("Aa"));
+            Assertions.assertEquals("2", map.get("BB"));
+            Assertions.assertEquals("3", map.get("C#"));
+            PersistentMap<String> removed = map.without("Aa");
+            Assertions.assertNull(removed.get("Aa"));
+            Assertions.assertEquals("2", removed.get("BB"));
+            Assertions.assertEquals(2, removed.size());
+        }
+    }
+
+    @Nested
+    class Without {
+
+        @Test
+        void absentReturnsSameInstance() {
+            PersistentMap<String> map = PersistentMap.<String>empty().with("a", "1");
+            Assertions.assertSame(map, map.without("b"));
+        }
+
+        @Test
+        void lastRemoved() {
+            PersistentMap<String> map = PersistentMap.<String>empty().with("a", "1").without("a");
+            Assertions.assertTrue(map.isEmpty());
+            Assertions.assertNull(map.get("a"));
+        }
+    }
+
+    @Nested
+    class Randomized {
+
+        @Test
+        void sameAsHashMap() {
+            Random random = new Random(42);
+            PersistentMap<String> map = PersistentMap.empty();
+            Map<String, String> expected = new HashMap<>();
+            for (int i = 0; i < 20_000; i++) {
+                String key = "key" + random.nextInt(3_000);
+                if (random.nextInt(4) == 0) {
+                    map = map.without(key);
+                    expected.remove(key);
+                } else {
+                    String value = String.valueOf(random.nextInt(10));
+                    map = map.with(key, value);
+                    expected.put(key, value);
+                }
+            }
+            Assertions.assertEquals(expected.size(), map.size());
+            Assertions.assertEquals(expected, content(map));
+            for (String key : expected.keySet()) {
+                Assertions.assertEquals(expected.get(key), map.get(key));
+            }
+        }
+
+        @Test
+        void diffSameAsNaive() {
+            Random random = new Random(7);
+            PersistentMap<String> base = PersistentMap.empty();
+            for (int i = 0; i < 2_000; i++) {
+                base = base.with("key" + i, "v" + i);
+            }
+            for (int round = 0; round < 50; round++) {
+                PersistentMap<String> next = base;
+                Map<String, String> expected = new HashMap<>();
+                Set<String> touched = new HashSet<>();
+                for (int i = 0; i < 20; i++) {
+                    String key = "key" + random.nextInt(2_500);
+                    if (!touched.add(key)) {
+                        continue;
+                    }
+                    if (random.nextBoolean()) {
+                        if (base.get(key) != null) {
+                            expected.put(key, "<removed>");
+                        }
+                        next = next.without(key);
+                    } else {
+                        String value = "n" + i;
+                        expected.put(key, value);
+                        next = next.with(key, value);
+                    }
+                }
+                Assertions.assertEquals(expected, diff(base, next));
+            }
+        }
+    }
+
+    @Nested
+    class Diff {
+
+        @Test
+        void identical() {
+            PersistentMap<String> map = PersistentMap.<String>empty().with("a", "1");
+            Assertions.assertTrue(diff(map, map).isEmpty());
+        }
+
+        @Test
+        void fromEmpty() {
+            PersistentMap<String> map = PersistentMap.<String>empty().with("a", "1").with("Aa", "2").with("BB", "3");
+            Assertions.assertEquals(Map.of("a", "1", "Aa", "2", "BB", "3"), diff(PersistentMap.empty(), map));
+            Assertions.assertEquals(Map.of("a", "<removed>", "Aa", "<removed>", "BB", "<removed>"), diff(map, PersistentMap.empty()));
+        }
+    }
+}
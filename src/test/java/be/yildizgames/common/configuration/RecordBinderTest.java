@@ -0,0 +1,121 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class RecordBinderTest {
+
+    enum Mode {
+        FAST, SAFE
+    }
+
+    record Server(String host, int port) {
+    }
+
+    record Cache(long maxSize, double ratio, boolean enabled, Duration timeout, List<String> names, Mode mode, Integer threads, Server server) {
+    }
+
+    record Invalid(Object value) {
+    }
+
+    record Ports(List<Integer> values) {
+    }
+
+    private static ConfigurationSnapshot snapshot() {
+        Properties properties = new Properties();
+        properties.setProperty("cache.max.size", "1024");
+        properties.setProperty("cache.ratio", "0.5");
+        properties.setProperty("cache.enabled", "true");
+        properties.setProperty("cache.timeout", "10s");
+        properties.setProperty("cache.names", "a, b");
+        properties.setProperty("cache.mode", "safe");
+        properties.setProperty("cache.threads", "4");
+        properties.setProperty("cache.server.host", "localhost");
+        properties.setProperty("cache.server.port", "8080");
+        return ConfigurationSnapshot.of(properties);
+    }
+
+    @Nested
+    class Bind {
+
+        @Test
+        void happyFlow() {
+            Cache cache = RecordBinder.of(Cache.class, "cache").bind(snapshot());
+            Assertions.assertEquals(new Cache(1024, 0.5, true, Duration.ofSeconds(10), List.of("a", "b"), Mode.SAFE, 4, new Server("localhost", 8080)), cache);
+        }
+
+        @Test
+        void withoutPrefix() {
+            Server server = RecordBinder.of(Server.class, "cache.server").bind(snapshot());
+            Assertions.assertEquals(new Server("localhost", 8080), server);
+        }
+
+        @Test
+        void missingValue() {
+            RecordBinder<Server> binder = RecordBinder.of(Server.class, "other");
+            Assertions.assertThrows(IllegalStateException.class, () -> binder.bind(snapshot()));
+        }
+
+        @Test
+        void invalidValue() {
+            RecordBinder<Server> binder = RecordBinder.of(Server.class, "cache");
+            Properties properties = new Properties();
+            properties.setProperty("cache.host", "localhost");
+            properties.setProperty("cache.port", "invalid");
+            Assertions.assertThrows(IllegalStateException.class, () -> binder.bind(ConfigurationSnapshot.of(properties)));
+        }
+    }
+
+    @Nested
+    class Of {
+
+        @Test
+        void keys() {
+            Assertions.assertEquals(List.of("cache.server.host", "cache.server.port"), RecordBinder.of(Server.class, "cache.server").keys());
+            Assertions.assertTrue(RecordBinder.of(Cache.class, "cache").keys().contains("cache.server.port"));
+        }
+
+        @Test
+        void unsupportedType() {
+            Assertions.assertThrows(IllegalStateException.class, () -> RecordBinder.of(Invalid.class, "invalid"));
+        }
+
+        @Test
+        void unsupportedListElementType() {
+            Assertions.assertThrows(IllegalStateException.class, () -> RecordBinder.of(Ports.class, "ports"));
+        }
+    }
+
+    @Nested
+    class PropertyName {
+
+        @Test
+        void happyFlow() {
+            Assertions.assertEquals("max.size", RecordBinder.propertyName("maxSize"));
+            Assertions.assertEquals("host", RecordBinder.propertyName("host"));
+        }
+    }
+}
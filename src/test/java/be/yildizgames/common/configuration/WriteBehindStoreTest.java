@@ -0,0 +1,65 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class WriteBehindStoreTest {
+
+    @Nested
+    class RequestWrite {
+
+        @Test
+        void coalesced() {
+            AtomicInteger writes = new AtomicInteger();
+            WriteBehindStore store = new WriteBehindStore(writes::incrementAndGet, Duration.ofHours(1));
+            store.requestWrite();
+            store.requestWrite();
+            store.close();
+            Assertions.assertEquals(1, writes.get());
+        }
+
+        @Test
+        void afterCloseWrittenSynchronously() {
+            AtomicInteger writes = new AtomicInteger();
+            WriteBehindStore store = new WriteBehindStore(writes::incrementAndGet, Duration.ofHours(1));
+            store.close();
+            store.requestWrite();
+            Assertions.assertEquals(1, writes.get());
+        }
+
+        @Test
+        void racingWithCloseNeverRejected() throws InterruptedException {
+            for (int i = 0; i < 200; i++) {
+                AtomicInteger writes = new AtomicInteger();
+                WriteBehindStore store = new WriteBehindStore(writes::incrementAndGet, Duration.ofHours(1));
+                Thread closer = new Thread(store::close);
+                closer.start();
+                store.requestWrite();
+                closer.join();
+                Assertions.assertEquals(1, writes.get());
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration.logger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class PreLoggerTest {
+
+    private PrintStream out;
+
+    private ByteArrayOutputStream console;
+
+    @BeforeEach
+    void setUp() {
+        this.out = System.out;
+        this.console = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(this.console, true, StandardCharsets.UTF_8));
+    }
+
+    @AfterEach
+    void tearDown() {
+        PreLogger.reset();
+        System.setOut(this.out);
+    }
+
+    private String[] lines() {
+        return this.console.toString(StandardCharsets.UTF_8).lines().toArray(String[]::new);
+    }
+
+    @Nested
+    class Print {
+
+        @Test
+        void format() {
+            new PreLogger().info("message");
+            String[] lines = lines();
+            Assertions.assertEquals(1, lines.length);
+            Assertions.assertTrue(lines[0].matches("\\d{4}/\\d{2}/\\d{2} \\d{2}:\\d{2}:\\d{2} \\| INFO \\| be\\.yildizgames\\.common\\.application\\.Prelogger \\| message"), lines[0]);
+        }
+
+        @Test
+        void levels() {
+            PreLogger logger = new PreLogger();
+            logger.warn("warning");
+            logger.error("error");
+            String[] lines = lines();
+            Assertions.assertTrue(lines[0].contains(" | WARN | "));
+            Assertions.assertTrue(lines[1].contains(" | ERROR| "));
+        }
+
+        @Test
+        void withException() {
+            new PreLogger().error("message", new IllegalStateException("cause"));
+            String[] lines = lines();
+            Assertions.assertTrue(lines[0].endsWith("| message"));
+            Assertions.assertTrue(lines[1].endsWith("| cause"));
+            Assertions.assertTrue(lines[2].contains("IllegalStateException"));
+        }
+
+        @Test
+        void filtered() {
+            PreLogger.setLevel(System.Logger.Level.WARNING);
+            PreLogger logger = new PreLogger();
+            logger.info("hidden");
+            logger.warn("shown");
+            String[] lines = lines();
+            Assertions.assertEquals(1, lines.length);
+            Assertions.assertTrue(lines[0].endsWith("| shown"));
+        }
+
+        @Test
+        void concurrent() throws InterruptedException {
+            PreLogger logger = new PreLogger();
+            Thread[] threads = new Thread[8];
+            for (int i = 0; i < threads.length; i++) {
+                int id = i;
+                threads[i] = new Thread(() -> {
+                    for (int j = 0; j < 100; j++) {
+                        logger.info("thread" + id + "-" + j);
+                    }
+                });
+                threads[i].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            String[] lines = lines();
+            Assertions.assertEquals(800, lines.length);
+            for (String line : lines) {
+                Assertions.assertTrue(line.matches("\\d{4}/\\d{2}/\\d{2} \\d{2}:\\d{2}:\\d{2} \\| INFO \\| .* \\| thread\\d-\\d+"), line);
+            }
+        }
+    }
+
+    @Nested
+    class Async {
+
+        @Test
+        void allLinesDisplayedInOrder() {
+            PreLogger.enableAsync(4);
+            PreLogger logger = new PreLogger();
+            for (int i = 0; i < 100; i++) {
+                logger.info("line" + i);
+            }
+            PreLogger.handoff(new CapturingLogger());
+            String[] lines = lines();
+            Assertions.assertEquals(100, lines.length);
+            for (int i = 0; i < 100; i++) {
+                Assertions.assertTrue(lines[i].endsWith("| line" + i), lines[i]);
+            }
+        }
+
+        @Test
+        void invalidCapacity() {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> PreLogger.enableAsync(0));
+        }
+    }
+
+    @Nested
+    class Handoff {
+
+        @Test
+        void bufferedLinesReplayed() {
+            PreLogger.enableAsync(2);
+            PreLogger logger = new PreLogger();
+            logger.info("first");
+            logger.warn("second");
+            logger.error("third");
+            CapturingLogger target = new CapturingLogger();
+            PreLogger.handoff(target);
+            Assertions.assertEquals(2, target.messages.size());
+            Assertions.assertTrue(target.messages.get(0).endsWith(" | second"));
+            Assertions.assertTrue(target.messages.get(1).endsWith(" | third"));
+        }
+
+        @Test
+        void followingMessagesDelegated() {
+            CapturingLogger target = new CapturingLogger();
+            PreLogger.handoff(target);
+            new PreLogger().info("after");
+            Assertions.assertEquals(List.of("after"), target.messages);
+            Assertions.assertEquals(0, lines().length);
+        }
+    }
+
+    private static final class CapturingLogger implements System.Logger {
+
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String getName() {
+            return "test";
+        }
+
+        @Override
+        public boolean isLoggable(Level level) {
+            return true;
+        }
+
+        @Override
+        public void log(Level level, ResourceBundle bundle, String msg, Throwable thrown) {
+            this.messages.add(msg);
+        }
+
+        @Override
+        public void log(Level level, ResourceBundle bundle, String format, Object... params) {
+            this.messages.add(format);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration.parameter;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class ApplicationArgsTest {
+
+    @Nested
+    class GetArg {
+
+        @Test
+        void happyFlow() {
+            ApplicationArgs args = ApplicationArgs.of("key=value", "other=value2");
+            Assertions.assertEquals(Optional.of("value"), args.getArg("key"));
+            Assertions.assertEquals(Optional.of("value2"), args.getArg("other"));
+        }
+
+        @Test
+        void ignoreCase() {
+            ApplicationArgs args = ApplicationArgs.of("Key=value");
+            Assertions.assertEquals(Optional.of("value"), args.getArg("KEY"));
+        }
+
+        @Test
+        void valueWithSeparator() {
+            ApplicationArgs args = ApplicationArgs.of("url=jdbc:mysql://host/db?user=a&password=b", "token=YWJj==");
+            Assertions.assertEquals(Optional.of("jdbc:mysql://host/db?user=a&password=b"), args.getArg("url"));
+            Assertions.assertEquals(Optional.of("YWJj=="), args.getArg("token"));
+        }
+
+        @Test
+        void emptyValue() {
+            ApplicationArgs args = ApplicationArgs.of("key=");
+            Assertions.assertEquals(Optional.of(""), args.getArg("key"));
+        }
+
+        @Test
+        void notFound() {
+            ApplicationArgs args = ApplicationArgs.of("key=value");
+            Assertions.assertEquals(Optional.empty(), args.getArg("other"));
+        }
+
+        @Test
+        void repeatedReturnsFirst() {
+            ApplicationArgs args = ApplicationArgs.of("key=first", "KEY=second");
+            Assertions.assertEquals(Optional.of("first"), args.getArg("key"));
+        }
+
+        @Test
+        void nullArgs() {
+            ApplicationArgs args = ApplicationArgs.of((String[]) null);
+            Assertions.assertTrue(args.isEmpty());
+            Assertions.assertEquals(Optional.empty(), args.getArg("key"));
+        }
+    }
+
+    @Nested
+    class GetArgValues {
+
+        @Test
+        void repeated() {
+            ApplicationArgs args = ApplicationArgs.of("key=first", "other=value", "KEY=second");
+            Assertions.assertEquals(List.of("first", "second"), args.getArgValues("key"));
+        }
+
+        @Test
+        void notFound() {
+            Assertions.assertEquals(List.of(), ApplicationArgs.of("key=value").getArgValues("other"));
+        }
+    }
+
+    @Nested
+    class Typed {
+
+        @Test
+        void asInt() {
+            ApplicationArgs args = ApplicationArgs.of("port=8080");
+            Assertions.assertEquals(OptionalInt.of(8080), args.getArgAsInt("port"));
+            Assertions.assertEquals(OptionalInt.empty(), args.getArgAsInt("other"));
+        }
+
+        @Test
+        void asIntInvalid() {
+            ApplicationArgs args = ApplicationArgs.of("port=abc");
+            Assertions.assertThrows(IllegalStateException.class, () -> args.getArgAsInt("port"));
+        }
+
+        @Test
+        void asLong() {
+            Assertions.assertEquals(OptionalLong.of(10000000000L), ApplicationArgs.of("size=10000000000").getArgAsLong("size"));
+        }
+
+        @Test
+        void asBoolean() {
+            Assertions.assertEquals(Optional.of(true), ApplicationArgs.of("debug=TRUE").getArgAsBoolean("debug"));
+        }
+    }
+
+    @Nested
+    class HasArg {
+
+        @Test
+        void withoutValue() {
+            ApplicationArgs args = ApplicationArgs.of("configuration-check");
+            Assertions.assertTrue(args.hasArg("configuration-check"));
+            Assertions.assertFalse(args.hasArg("other"));
+        }
+
+        @Test
+        void withValue() {
+            Assertions.assertTrue(ApplicationArgs.of("key=value").hasArg("KEY"));
+        }
+    }
+}
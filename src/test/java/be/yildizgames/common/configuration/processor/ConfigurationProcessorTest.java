@@ -0,0 +1,299 @@
+/*
+ This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ Copyright (c) 2024 Grégory Van den Borre
+ More infos available: https://engine.yildiz-games.be
+ Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to the following conditions: The above copyright
+ notice and this permission notice shall be included in all copies or substantial portions of the  Software.
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package be.yildizgames.common.configuration.processor;
+
+import be.yildizgames.common.configuration.ConfigurationNotFoundDefault;
+import be.yildizgames.common.configuration.ConfigurationRetriever;
+import be.yildizgames.common.configuration.ConfigurationRetrieverFactory;
+import be.yildizgames.common.configuration.parameter.ApplicationArgs;
+import be.yildizgames.common.configuration.parameter.DefaultArgName;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * @author Grégory Van den Borre
+ */
+class ConfigurationProcessorTest {
+
+    private static final String SETTINGS = """
+            package test;
+
+            import be.yildizgames.common.configuration.annotation.ConfigKey;
+            import be.yildizgames.common.configuration.annotation.DefaultValue;
+            import be.yildizgames.common.configuration.annotation.GenerateConfiguration;
+
+            @GenerateConfiguration
+            public interface DatabaseSettings {
+
+                enum Mode { READ, WRITE }
+
+                @ConfigKey("database.host")
+                @DefaultValue("localhost")
+                String host();
+
+                @ConfigKey("database.port")
+                @DefaultValue("5432")
+                int port();
+
+                @ConfigKey("database.pool.timeout")
+                @DefaultValue("30s")
+                java.time.Duration poolTimeout();
+
+                @ConfigKey("database.schemas")
+                @DefaultValue("public, audit")
+                java.util.List<String> schemas();
+
+                @ConfigKey("database.mode")
+                @DefaultValue("write")
+                Mode mode();
+
+                @ConfigKey("database.user")
+                String user();
+            }
+            """;
+
+    private Path directory;
+
+    @BeforeEach
+    void init() throws IOException {
+        this.directory = Files.createTempDirectory("processor");
+    }
+
+    @AfterEach
+    void clean() throws IOException {
+        try (Stream<Path> files = Files.walk(this.directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    private List<Diagnostic<? extends JavaFileObject>> compile(String source) throws IOException {
+        return compile(source, Map.of());
+    }
+
+    private List<Diagnostic<? extends JavaFileObject>> compile(String source, Map<String, String> others) throws IOException {
+        Path file = this.directory.resolve("src/test/Settings.java");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, source.replace("DatabaseSettings", "Settings"));
+        List<Path> files = new ArrayList<>(List.of(file));
+        for (Map.Entry<String, String> other : others.entrySet()) {
+            Path otherFile = file.resolveSibling(other.getKey() + ".java");
+            Files.writeString(otherFile, other.getValue());
+            files.add(otherFile);
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager manager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, manager, diagnostics,
+                    List.of("-d", this.directory.resolve("classes").toString(),
+                            "-s", this.directory.resolve("generated").toString(),
+                            "-cp", System.getProperty("java.class.path")),
+                    null, manager.getJavaFileObjectsFromPaths(files));
+            Files.createDirectories(this.directory.resolve("classes"));
+            Files.createDirectories(this.directory.resolve("generated"));
+            task.setProcessors(List.of(new ConfigurationProcessor()));
+            task.call();
+        }
+        return diagnostics.getDiagnostics().stream().filter(d -> d.getKind() == Diagnostic.Kind.ERROR).toList();
+    }
+
+    private Object instantiate(Properties properties) throws Exception {
+        return load("test.SettingsConfiguration").getConstructor(Properties.class).newInstance(properties);
+    }
+
+    private Class<?> load(String name) throws Exception {
+        URLClassLoader loader = new URLClassLoader(new URL[]{this.directory.resolve("classes").toUri().toURL()},
+                this.getClass().getClassLoader());
+        return loader.loadClass(name);
+    }
+
+    private static Object call(Object target, String method) throws Exception {
+        return target.getClass().getMethod(method).invoke(target);
+    }
+
+    @Nested
+    class Generate {
+
+        @Test
+        void happyFlow() throws Exception {
+            Assertions.assertEquals(List.of(), compile(SETTINGS));
+            Properties properties = new Properties();
+            properties.setProperty("database.host", "db.example.com");
+            properties.setProperty("database.user", "admin");
+            Object configuration = instantiate(properties);
+            Assertions.assertEquals("db.example.com", call(configuration, "host"));
+            Assertions.assertEquals(5432, call(configuration, "port"));
+            Assertions.assertEquals(Duration.ofSeconds(30), call(configuration, "poolTimeout"));
+            Assertions.assertEquals(List.of("public", "audit"), call(configuration, "schemas"));
+            Assertions.assertEquals("WRITE", call(configuration, "mode").toString());
+            Assertions.assertEquals("admin", call(configuration, "user"));
+        }
+
+        @Test
+        void defaultProperties() throws Exception {
+            Assertions.assertEquals(List.of(), compile(SETTINGS));
+            Object configuration = instantiate(new Properties());
+            Properties defaults = (Properties) configuration.getClass().getMethod("defaultProperties").invoke(null);
+            Assertions.assertEquals("localhost", defaults.getProperty("database.host"));
+            Assertions.assertEquals("30s", defaults.getProperty("database.pool.timeout"));
+            Assertions.assertNull(defaults.getProperty("database.user"));
+        }
+
+        @Test
+        void missingWithoutDefault() throws Exception {
+            Assertions.assertEquals(List.of(), compile(SETTINGS));
+            Object configuration = instantiate(new Properties());
+            Exception e = Assertions.assertThrows(Exception.class, () -> call(configuration, "user"));
+            Assertions.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Nested
+    class Store {
+
+        /**
+         * Generated configuration written in a given file instead of the default one.
+         */
+        private static final String FILE_SETTINGS = """
+                package test;
+
+                public class FileSettings extends SettingsConfiguration {
+
+                    private final java.nio.file.Path file;
+
+                    public FileSettings(java.util.Properties properties, java.nio.file.Path file) {
+                        super(properties);
+                        this.file = file;
+                    }
+
+                    @Override
+                    protected java.nio.file.Path getConfigFile() {
+                        return this.file;
+                    }
+                }
+                """;
+
+        @Test
+        void argsAndDefaultsNotPersisted() throws Exception {
+            Assertions.assertEquals(List.of(), compile(SETTINGS, Map.of("FileSettings", FILE_SETTINGS)));
+            Path config = Files.createTempFile("config", ".properties");
+            Files.writeString(config, "database.host=file.example.com\ndatabase.user=admin\n");
+            ConfigurationRetriever retriever = ConfigurationRetrieverFactory.fromFile(ConfigurationNotFoundDefault.fromDefault(new Properties()));
+            Properties properties = retriever.retrieveFromArgs(ApplicationArgs.of(DefaultArgName.CONFIGURATION_FILE + "=" + config, "database.host=arg.example.com"));
+            Object configuration = load("test.FileSettings").getConstructor(Properties.class, Path.class).newInstance(properties, config);
+            Assertions.assertEquals("arg.example.com", call(configuration, "host"));
+            Assertions.assertEquals(5432, call(configuration, "port"));
+            configuration.getClass().getMethod("setLocale", Locale.class).invoke(configuration, Locale.ENGLISH);
+            Properties written = new Properties();
+            try (Reader reader = Files.newBufferedReader(config)) {
+                written.load(reader);
+            }
+            Assertions.assertEquals("file.example.com", written.getProperty("database.host"));
+            Assertions.assertNull(written.getProperty("database.port"));
+            Assertions.assertEquals("arg.example.com", call(configuration, "host"));
+            Files.delete(config);
+        }
+    }
+
+    @Nested
+    class Errors {
+
+        @Test
+        void invalidDefault() throws Exception {
+            List<Diagnostic<? extends JavaFileObject>> errors = compile(SETTINGS.replace("\"5432\"", "\"abc\""));
+            Assertions.assertEquals(1, errors.size());
+            Assertions.assertTrue(errors.get(0).getMessage(null).contains("port"));
+        }
+
+        @Test
+        void invalidDurationDefault() throws Exception {
+            List<Diagnostic<? extends JavaFileObject>> errors = compile(SETTINGS.replace("\"30s\"", "\"30x\""));
+            Assertions.assertEquals(1, errors.size());
+            Assertions.assertTrue(errors.get(0).getMessage(null).contains("poolTimeout"));
+        }
+
+        @Test
+        void invalidEnumDefault() throws Exception {
+            List<Diagnostic<? extends JavaFileObject>> errors = compile(SETTINGS.replace("\"write\"", "\"delete\""));
+            Assertions.assertEquals(1, errors.size());
+        }
+
+        @Test
+        void missingAnnotation() throws Exception {
+            List<Diagnostic<? extends JavaFileObject>> errors = compile(SETTINGS.replace("@ConfigKey(\"database.user\")", ""));
+            Assertions.assertEquals(1, errors.size());
+        }
+
+        @Test
+        void unsupportedType() throws Exception {
+            List<Diagnostic<? extends JavaFileObject>> errors = compile(SETTINGS.replace("String user();", "Object user();"));
+            Assertions.assertEquals(1, errors.size());
+        }
+
+        @Test
+        void notAnInterface() throws Exception {
+            List<Diagnostic<? extends JavaFileObject>> errors = compile(
+                    "package test; @be.yildizgames.common.configuration.annotation.GenerateConfiguration class Settings {}");
+            Assertions.assertEquals(1, errors.size());
+        }
+    }
+
+    @Nested
+    class ConstantName {
+
+        @Test
+        void camelCase() {
+            Assertions.assertEquals("MAX_POOL_SIZE", ConfigurationProcessor.constantName("maxPoolSize"));
+        }
+
+        @Test
+        void singleWord() {
+            Assertions.assertEquals("HOST", ConfigurationProcessor.constantName("host"));
+        }
+    }
+
+    @Nested
+    class Literal {
+
+        @Test
+        void escaped() {
+            Assertions.assertEquals("\"a\\\"b\\\\c\\n\\u00e9\"", ConfigurationProcessor.literal("a\"b\\c\né"));
+        }
+    }
+}